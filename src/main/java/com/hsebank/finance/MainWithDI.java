@@ -31,10 +31,12 @@ public class MainWithDI {
 
         DIContainer container = new DIContainer();
 
-        // Регистрация фабрик
-        container.register(CategoryFactory.class);
-        container.register(BankAccountFactory.class);
-        container.register(OperationFactory.class);
+        // Регистрация фабрик и генератора ID: классы с @Component из индекса, собранного при компиляции
+        if (container.registerIndexedComponents() == 0) {
+            container.register(CategoryFactory.class);
+            container.register(BankAccountFactory.class);
+            container.register(OperationFactory.class);
+        }
 
         // Регистрация репозиториев (общая и конкретные реализации)
         container.register(Repository.class, InMemoryCategoryRepository.class);
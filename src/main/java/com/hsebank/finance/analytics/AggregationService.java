@@ -0,0 +1,220 @@
+package com.hsebank.finance.analytics;
+
+import com.hsebank.finance.domain.model.Money;
+import com.hsebank.finance.domain.model.MoneyAccumulator;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.facade.OperationListener;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Нарастающие итоги по операциям, которые обновляются при каждом изменении через фасад,
+ * поэтому сводки читаются за O(1) без просмотра операций.
+ *
+ * <p>Итоги ведутся в разрезе типа операции и календарного месяца (плюс «за всё время») —
+ * общие, по категориям и по счетам. Операции без типа или суммы не учитываются; без даты —
+ * попадают только в итоги за всё время; без категории или счёта — не попадают в соответствующий разрез.
+ *
+ * <p>Для каждой учтённой операции запоминается её вклад, поэтому удаление и повторное
+ * добавление (обновление) вычитают ровно то, что было добавлено, даже если объект операции
+ * с тех пор изменили. Изменения, сделанные в обход фасада, в итогах не отражаются —
+ * для этого есть {@link #rebuild(Collection)}.
+ *
+ * <p>Итоги хранятся в {@link MoneyAccumulator}, а разрезы операции вычисляются один раз при учёте,
+ * поэтому учёт операции с обычной суммой не создаёт новых BigDecimal и ключей.
+ *
+ * <p>Потокобезопасен: изменения и чтение сериализуются.
+ */
+public class AggregationService implements OperationListener {
+
+    private final Map<String, Contribution> contributions = new HashMap<>();
+    private final Map<Slice, MoneyAccumulator> totals = new HashMap<>();
+    private final Map<Slice, Map<String, MoneyAccumulator>> byCategory = new HashMap<>();
+    private final Map<Slice, Map<String, MoneyAccumulator>> byAccount = new HashMap<>();
+
+    @Override
+    public synchronized void onOperationAdded(Operation operation) {
+        if (operation.getId() == null) {
+            return;
+        }
+        Contribution previous = contributions.remove(operation.getId());
+        if (previous != null) {
+            apply(previous, -1);
+        }
+
+        if (operation.getType() == null || operation.getAmount() == null) {
+            return;
+        }
+        Contribution contribution = new Contribution(operation);
+        contributions.put(operation.getId(), contribution);
+        apply(contribution, 1);
+    }
+
+    @Override
+    public synchronized void onOperationRemoved(Operation operation) {
+        if (operation.getId() == null) {
+            return;
+        }
+        Contribution previous = contributions.remove(operation.getId());
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    /**
+     * Пересчитывает итоги заново по переданным операциям (например, после восстановления из снимка).
+     */
+    public synchronized void rebuild(Collection<Operation> operations) {
+        contributions.clear();
+        totals.clear();
+        byCategory.clear();
+        byAccount.clear();
+        for (Operation operation : operations) {
+            onOperationAdded(operation);
+        }
+    }
+
+    /**
+     * Сумма операций типа type за месяц (null — за всё время).
+     */
+    public synchronized BigDecimal getTotal(OperationType type, YearMonth month) {
+        MoneyAccumulator total = totals.get(new Slice(type, month));
+        return total == null ? BigDecimal.ZERO : total.toBigDecimal();
+    }
+
+    /**
+     * Сумма операций типа type по категории за месяц (null — за всё время).
+     */
+    public synchronized BigDecimal getCategoryTotal(String categoryId, OperationType type, YearMonth month) {
+        return lookup(byCategory, categoryId, type, month);
+    }
+
+    /**
+     * Сумма операций типа type по счёту за месяц (null — за всё время).
+     */
+    public synchronized BigDecimal getAccountTotal(String bankAccountId, OperationType type, YearMonth month) {
+        return lookup(byAccount, bankAccountId, type, month);
+    }
+
+    /**
+     * Суммы операций типа type по всем категориям за месяц (null — за всё время).
+     */
+    public synchronized Map<String, BigDecimal> getCategoryTotals(OperationType type, YearMonth month) {
+        return copy(byCategory.get(new Slice(type, month)));
+    }
+
+    /**
+     * Суммы операций типа type по всем счетам за месяц (null — за всё время).
+     */
+    public synchronized Map<String, BigDecimal> getAccountTotals(OperationType type, YearMonth month) {
+        return copy(byAccount.get(new Slice(type, month)));
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        for (Slice slice : contribution.slices) {
+            contribution.applyTo(totals.computeIfAbsent(slice, key -> new MoneyAccumulator()), sign);
+            if (contribution.categoryId != null) {
+                contribution.applyTo(accumulator(byCategory, slice, contribution.categoryId), sign);
+            }
+            if (contribution.bankAccountId != null) {
+                contribution.applyTo(accumulator(byAccount, slice, contribution.bankAccountId), sign);
+            }
+        }
+    }
+
+    private static MoneyAccumulator accumulator(Map<Slice, Map<String, MoneyAccumulator>> dimension,
+                                                Slice slice, String key) {
+        return dimension.computeIfAbsent(slice, ignored -> new HashMap<>())
+                .computeIfAbsent(key, ignored -> new MoneyAccumulator());
+    }
+
+    private static BigDecimal lookup(Map<Slice, Map<String, MoneyAccumulator>> dimension, String key,
+                                     OperationType type, YearMonth month) {
+        Map<String, MoneyAccumulator> slice = dimension.get(new Slice(type, month));
+        if (slice == null || key == null) {
+            return BigDecimal.ZERO;
+        }
+        MoneyAccumulator total = slice.get(key);
+        return total == null ? BigDecimal.ZERO : total.toBigDecimal();
+    }
+
+    private static Map<String, BigDecimal> copy(Map<String, MoneyAccumulator> slice) {
+        if (slice == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, BigDecimal> result = new HashMap<>();
+        for (Map.Entry<String, MoneyAccumulator> entry : slice.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().toBigDecimal());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Что операция внесла в итоги на момент учёта.
+     */
+    private static final class Contribution {
+        final Money money;
+        final BigDecimal amount;
+        final Slice[] slices;
+        final String categoryId;
+        final String bankAccountId;
+
+        Contribution(Operation operation) {
+            this.money = operation.getMoney();
+            this.amount = operation.getAmount();
+            Slice allTime = new Slice(operation.getType(), null);
+            this.slices = operation.getDate() == null
+                    ? new Slice[]{allTime}
+                    : new Slice[]{new Slice(operation.getType(), YearMonth.from(operation.getDate())), allTime};
+            this.categoryId = operation.getCategoryId();
+            this.bankAccountId = operation.getBankAccountId();
+        }
+
+        void applyTo(MoneyAccumulator accumulator, int sign) {
+            if (money == null) {
+                accumulator.add(sign > 0 ? amount : amount.negate());
+            } else if (sign > 0) {
+                accumulator.add(money);
+            } else {
+                accumulator.subtract(money);
+            }
+        }
+    }
+
+    /**
+     * Разрез итогов: тип операции и месяц (null — всё время).
+     */
+    private static final class Slice {
+        final OperationType type;
+        final YearMonth month;
+
+        Slice(OperationType type, YearMonth month) {
+            this.type = type;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Slice)) {
+                return false;
+            }
+            Slice other = (Slice) o;
+            return type == other.type && Objects.equals(month, other.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, month);
+        }
+    }
+}
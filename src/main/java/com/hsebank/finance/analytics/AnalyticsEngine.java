@@ -0,0 +1,208 @@
+package com.hsebank.finance.analytics;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.facade.OperationFacade;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+/**
+ * Разовые отчёты по всем операциям: итоги по категориям, движение денег по счетам и по дням,
+ * крупнейшие расходы.
+ *
+ * <p>Отчёт считается параллельным потоком по представлению репозитория (без копирования операций)
+ * внутри заданного пула ForkJoin, так что степень параллелизма задаёт пул, а не общий пул JVM.
+ * Результат не зависит от параллелизма: суммы BigDecimal точны и не зависят от порядка сложения,
+ * ключи упорядочены, а у крупнейших расходов полный порядок (сумма, дата, id).
+ *
+ * <p>Отчёт читает репозиторий во время записи так же, как его представление: для потокобезопасного
+ * чтения под нагрузкой нужен Concurrent-репозиторий.
+ */
+public class AnalyticsEngine implements AutoCloseable {
+    private static final Comparator<String> KEY_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    /**
+     * Порядок «крупнее — раньше»; при равных суммах — более ранние, затем по id.
+     */
+    private static final Comparator<Operation> LARGEST_FIRST = Comparator
+            .comparing(Operation::getAmount, Comparator.reverseOrder())
+            .thenComparing(Operation::getDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Operation::getId, KEY_ORDER);
+
+    private final OperationFacade operationFacade;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    /**
+     * Отчёты в общем пуле ForkJoin.
+     */
+    public AnalyticsEngine(OperationFacade operationFacade) {
+        this(operationFacade, ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * Отчёты в собственном пуле заданной степени параллелизма; пул закрывается в {@link #close()}.
+     */
+    public AnalyticsEngine(OperationFacade operationFacade, int parallelism) {
+        this(operationFacade, new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Отчёты во внешнем пуле; движок его не закрывает.
+     */
+    public AnalyticsEngine(OperationFacade operationFacade, ForkJoinPool pool) {
+        this(operationFacade, pool, false);
+    }
+
+    private AnalyticsEngine(OperationFacade operationFacade, ForkJoinPool pool, boolean ownsPool) {
+        this.operationFacade = operationFacade;
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Суммы операций типа type (null — любого) за период [from, to] по категориям, упорядоченные по id категории.
+     * null-граница периода не ограничивает.
+     */
+    public NavigableMap<String, BigDecimal> totalsByCategory(OperationType type, LocalDate from, LocalDate to) {
+        Predicate<Operation> filter = op -> (type == null || op.getType() == type)
+                && op.getAmount() != null
+                && isWithin(op.getDate(), from, to);
+
+        return run(filter, Collector.of(
+                () -> new TreeMap<String, BigDecimal>(KEY_ORDER),
+                (totals, op) -> totals.merge(op.getCategoryId(), op.getAmount(), BigDecimal::add),
+                AnalyticsEngine::mergeInto));
+    }
+
+    /**
+     * Чистое движение денег (доходы минус расходы) за всё время по каждому счёту, упорядоченное по id счёта.
+     */
+    public NavigableMap<String, BigDecimal> netByAccount() {
+        Predicate<Operation> filter = op -> op.getType() != null && op.getAmount() != null;
+
+        // Счетов мало, операций много: копим в хеш-таблице и упорядочиваем один раз в конце
+        return run(filter, Collector.<Operation, HashMap<String, BigDecimal>, NavigableMap<String, BigDecimal>>of(
+                HashMap::new,
+                (totals, op) -> totals.merge(op.getBankAccountId(), signed(op), BigDecimal::add),
+                AnalyticsEngine::mergeInto,
+                totals -> {
+                    TreeMap<String, BigDecimal> ordered = new TreeMap<>(KEY_ORDER);
+                    ordered.putAll(totals);
+                    return ordered;
+                }));
+    }
+
+    /**
+     * n крупнейших расходов за период [from, to], от большего к меньшему.
+     */
+    public List<Operation> topExpenses(int n, LocalDate from, LocalDate to) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Количество должно быть положительным");
+        }
+        Predicate<Operation> filter = op -> op.getType() == OperationType.EXPENSE
+                && op.getAmount() != null
+                && isWithin(op.getDate(), from, to);
+
+        // Куча на n элементов с наименьшим из отобранных в вершине: каждая часть держит только свои n лучших
+        Comparator<Operation> smallestFirst = LARGEST_FIRST.reversed();
+        return run(filter, Collector.<Operation, PriorityQueue<Operation>, List<Operation>>of(
+                () -> new PriorityQueue<>(n + 1, smallestFirst),
+                (top, op) -> offer(top, op, n),
+                (left, right) -> {
+                    for (Operation op : right) {
+                        offer(left, op, n);
+                    }
+                    return left;
+                },
+                top -> {
+                    List<Operation> result = new ArrayList<>(top);
+                    result.sort(LARGEST_FIRST);
+                    return Collections.unmodifiableList(result);
+                }));
+    }
+
+    /**
+     * Чистое движение денег (доходы минус расходы) по каждому дню периода [from, to];
+     * дни без операций присутствуют с нулём.
+     */
+    public NavigableMap<LocalDate, BigDecimal> dailyCashFlow(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Период задан неверно: " + from + " — " + to);
+        }
+        Predicate<Operation> filter = op -> op.getType() != null
+                && op.getAmount() != null
+                && isWithin(op.getDate(), from, to);
+
+        NavigableMap<LocalDate, BigDecimal> flow = run(filter, Collector.of(
+                () -> new TreeMap<LocalDate, BigDecimal>(),
+                (days, op) -> days.merge(op.getDate(), signed(op), BigDecimal::add),
+                AnalyticsEngine::mergeInto));
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            flow.putIfAbsent(day, BigDecimal.ZERO);
+        }
+        return flow;
+    }
+
+    /**
+     * Закрывает собственный пул движка; внешний и общий пулы не трогает.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private <R> R run(Predicate<Operation> filter, Collector<Operation, ?, R> collector) {
+        Collection<Operation> operations = operationFacade.getAllOperationsView();
+        // Параллельный поток, запущенный из задачи пула, выполняется в этом пуле
+        return pool.submit(() -> operations.parallelStream().filter(filter).collect(collector)).join();
+    }
+
+    private static void offer(PriorityQueue<Operation> top, Operation op, int n) {
+        if (top.size() < n) {
+            top.add(op);
+        } else if (LARGEST_FIRST.compare(op, top.peek()) < 0) {
+            top.poll();
+            top.add(op);
+        }
+    }
+
+    private static <K, M extends Map<K, BigDecimal>> M mergeInto(M left, M right) {
+        for (Map.Entry<K, BigDecimal> entry : right.entrySet()) {
+            left.merge(entry.getKey(), entry.getValue(), BigDecimal::add);
+        }
+        return left;
+    }
+
+    private static BigDecimal signed(Operation op) {
+        return op.getType() == OperationType.INCOME ? op.getAmount() : op.getAmount().negate();
+    }
+
+    private static boolean isWithin(LocalDate date, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        return date != null && (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+}
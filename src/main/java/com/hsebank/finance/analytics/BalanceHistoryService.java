@@ -0,0 +1,137 @@
+package com.hsebank.finance.analytics;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Money;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.facade.BankAccountFacade;
+import com.hsebank.finance.facade.OperationListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Баланс счёта на любую дату без просмотра операций.
+ *
+ * <p>Для каждого счёта ведётся дерево Фенвика изменений баланса по дням ({@link BalanceTimeline}),
+ * которое обновляется при каждом изменении через фасад. Баланс на дату — входящий остаток плюс
+ * сумма изменений по эту дату включительно, то есть O(log n) от числа дней истории.
+ * Операция задним числом (например, импортированная) обновляет O(log n) узлов, а не все
+ * последующие дни.
+ *
+ * <p>Как и {@link AggregationService}, запоминает вклад каждой операции, поэтому удаление вычитает
+ * ровно учтённое. Операции без даты, типа или суммы в историю не попадают; изменения в обход
+ * фасада отражаются только после {@link #rebuild(Collection)}.
+ */
+public class BalanceHistoryService implements OperationListener {
+    private final BankAccountFacade accountFacade;
+    private final Map<String, Contribution> contributions = new ConcurrentHashMap<>();
+    private final Map<String, BalanceTimeline> timelines = new ConcurrentHashMap<>();
+
+    public BalanceHistoryService(BankAccountFacade accountFacade) {
+        this.accountFacade = accountFacade;
+    }
+
+    @Override
+    public synchronized void onOperationAdded(Operation operation) {
+        if (operation.getId() == null) {
+            return;
+        }
+        Contribution previous = contributions.remove(operation.getId());
+        if (previous != null) {
+            apply(previous, -1);
+        }
+
+        if (operation.getType() == null || operation.getAmount() == null
+                || operation.getDate() == null || operation.getBankAccountId() == null) {
+            return;
+        }
+        Contribution contribution = new Contribution(operation);
+        contributions.put(operation.getId(), contribution);
+        apply(contribution, 1);
+    }
+
+    @Override
+    public synchronized void onOperationRemoved(Operation operation) {
+        if (operation.getId() == null) {
+            return;
+        }
+        Contribution previous = contributions.remove(operation.getId());
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    /**
+     * Пересчитывает историю заново по переданным операциям (например, после восстановления из снимка).
+     */
+    public synchronized void rebuild(Collection<Operation> operations) {
+        contributions.clear();
+        timelines.clear();
+        for (Operation operation : operations) {
+            onOperationAdded(operation);
+        }
+    }
+
+    /**
+     * Баланс счёта на конец дня date: входящий остаток плюс все операции по эту дату включительно.
+     */
+    public BigDecimal getBalanceAsOf(String bankAccountId, LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Дата не задана");
+        }
+        BankAccount account = accountFacade.getBankAccountById(bankAccountId)
+                .orElseThrow(() -> new IllegalArgumentException("Счёт с ID " + bankAccountId + " не найден"));
+
+        BigDecimal opening = account.getOpeningBalance() == null ? BigDecimal.ZERO : account.getOpeningBalance();
+        return opening.add(sumThrough(bankAccountId, date.toEpochDay()));
+    }
+
+    /**
+     * Изменение баланса счёта за период [from, to] (доходы минус расходы).
+     */
+    public BigDecimal getChange(String bankAccountId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Период задан неверно: " + from + " — " + to);
+        }
+        return sumThrough(bankAccountId, to.toEpochDay())
+                .subtract(sumThrough(bankAccountId, from.toEpochDay() - 1));
+    }
+
+    private BigDecimal sumThrough(String bankAccountId, long epochDay) {
+        BalanceTimeline timeline = timelines.get(bankAccountId);
+        return timeline == null ? BigDecimal.ZERO : timeline.sumThrough(epochDay);
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        BalanceTimeline timeline = timelines.computeIfAbsent(contribution.bankAccountId, key -> new BalanceTimeline());
+        if (contribution.money != null) {
+            timeline.add(contribution.epochDay, contribution.money, sign * contribution.sign);
+        } else {
+            BigDecimal delta = sign * contribution.sign > 0 ? contribution.amount : contribution.amount.negate();
+            timeline.add(contribution.epochDay, delta);
+        }
+    }
+
+    /**
+     * Что операция внесла в историю на момент учёта: сумма и знак изменения баланса.
+     */
+    private static final class Contribution {
+        final String bankAccountId;
+        final long epochDay;
+        final Money money;
+        final BigDecimal amount;
+        final int sign;
+
+        Contribution(Operation operation) {
+            this.bankAccountId = operation.getBankAccountId();
+            this.epochDay = operation.getDate().toEpochDay();
+            this.money = operation.getMoney();
+            this.amount = operation.getAmount();
+            this.sign = operation.getType() == OperationType.INCOME ? 1 : -1;
+        }
+    }
+}
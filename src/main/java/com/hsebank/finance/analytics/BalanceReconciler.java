@@ -0,0 +1,87 @@
+package com.hsebank.finance.analytics;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.facade.BankAccountFacade;
+import com.hsebank.finance.facade.OperationFacade;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+/**
+ * Сверка балансов счетов с операциями.
+ *
+ * <p>Ожидаемый баланс счёта — входящий остаток плюс доходы минус расходы по всем его операциям.
+ * Движение по всем счетам считается одним параллельным проходом по операциям
+ * ({@link AnalyticsEngine#netByAccount()}), после чего каждый счёт проверяется за O(1),
+ * а не отдельным просмотром операций на счёт.
+ *
+ * <p>Исправление применяет разницу через {@link OperationFacade#correctBalance}, а не перезаписывает баланс,
+ * поэтому не затирает изменения, сделанные после чтения. Операции, добавленные во время сверки,
+ * могут дать ложное расхождение — сверку с исправлением стоит запускать без параллельной записи.
+ */
+public class BalanceReconciler {
+    private final AnalyticsEngine analyticsEngine;
+    private final BankAccountFacade accountFacade;
+    private final OperationFacade operationFacade;
+
+    public BalanceReconciler(AnalyticsEngine analyticsEngine,
+                             BankAccountFacade accountFacade,
+                             OperationFacade operationFacade) {
+        this.analyticsEngine = analyticsEngine;
+        this.accountFacade = accountFacade;
+        this.operationFacade = operationFacade;
+    }
+
+    /**
+     * Находит расхождения, ничего не меняя.
+     */
+    public ReconciliationReport check() {
+        return reconcile(false);
+    }
+
+    /**
+     * Находит расхождения и исправляет балансы счетов.
+     */
+    public ReconciliationReport repair() {
+        return reconcile(true);
+    }
+
+    private ReconciliationReport reconcile(boolean repair) {
+        NavigableMap<String, BigDecimal> net = analyticsEngine.netByAccount();
+
+        List<ReconciliationReport.Discrepancy> discrepancies = new ArrayList<>();
+        Set<String> known = new HashSet<>();
+        int checked = 0;
+        for (BankAccount account : accountFacade.getAllBankAccountsView()) {
+            known.add(account.getId());
+            checked++;
+
+            BigDecimal opening = account.getOpeningBalance() == null ? BigDecimal.ZERO : account.getOpeningBalance();
+            BigDecimal expected = opening.add(net.getOrDefault(account.getId(), BigDecimal.ZERO));
+            BigDecimal recorded = account.getBalance() == null ? BigDecimal.ZERO : account.getBalance();
+            if (recorded.compareTo(expected) != 0) {
+                discrepancies.add(new ReconciliationReport.Discrepancy(account.getId(), recorded, expected));
+            }
+        }
+
+        Map<String, BigDecimal> orphaned = new LinkedHashMap<>();
+        for (Map.Entry<String, BigDecimal> entry : net.entrySet()) {
+            if (!known.contains(entry.getKey())) {
+                orphaned.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (repair) {
+            for (ReconciliationReport.Discrepancy discrepancy : discrepancies) {
+                operationFacade.correctBalance(discrepancy.getAccountId(), discrepancy.getDifference());
+            }
+        }
+        return new ReconciliationReport(checked, discrepancies, orphaned, repair && !discrepancies.isEmpty());
+    }
+}
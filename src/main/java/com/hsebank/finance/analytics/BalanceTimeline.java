@@ -0,0 +1,159 @@
+package com.hsebank.finance.analytics;
+
+import com.hsebank.finance.domain.model.Money;
+import com.hsebank.finance.domain.model.MoneyAccumulator;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Изменения баланса одного счёта по дням в дереве Фенвика: добавление изменения за день
+ * и сумма изменений по день включительно — за O(log n) от числа дней в диапазоне.
+ *
+ * <p>Диапазон дней растёт в обе стороны по мере появления операций вне его; при росте дерево
+ * перестраивается за O(n), а ёмкость удваивается, так что перестроек логарифмически мало.
+ * Дни дальше {@link #MAX_SPAN} от начала диапазона (заведомо ошибочные даты) хранятся отдельно
+ * и учитываются перебором.
+ *
+ * <p>Узлы — {@link MoneyAccumulator}, создаваемые при первом изменении, так что изменение
+ * с обычной суммой не выделяет памяти, а пустые дни её не занимают.
+ */
+final class BalanceTimeline {
+    static final int MAX_SPAN = 1 << 20; // ~2800 лет
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long firstDay;
+    private MoneyAccumulator[] daily; // null — ноль
+    private MoneyAccumulator[] tree; // с единицы: tree[i] — сумма daily[i - lowbit(i), i)
+    private final MoneyAccumulator total = new MoneyAccumulator();
+    private final TreeMap<Long, BigDecimal> outliers = new TreeMap<>();
+
+    /**
+     * Прибавляет изменение за день: amount со знаком sign.
+     */
+    synchronized void add(long epochDay, Money amount, int sign) {
+        apply(total, amount, sign);
+        if (!ensureCovered(epochDay)) {
+            outliers.merge(epochDay, sign > 0 ? amount.toBigDecimal() : amount.toBigDecimal().negate(), BigDecimal::add);
+            return;
+        }
+
+        int index = (int) (epochDay - firstDay);
+        apply(node(daily, index), amount, sign);
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            apply(node(tree, i), amount, sign);
+        }
+    }
+
+    /**
+     * Прибавляет изменение за день, не представимое как {@link Money}.
+     */
+    synchronized void add(long epochDay, BigDecimal delta) {
+        total.add(delta);
+        if (!ensureCovered(epochDay)) {
+            outliers.merge(epochDay, delta, BigDecimal::add);
+            return;
+        }
+
+        int index = (int) (epochDay - firstDay);
+        node(daily, index).add(delta);
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            node(tree, i).add(delta);
+        }
+    }
+
+    /**
+     * Сумма изменений по день epochDay включительно.
+     */
+    synchronized BigDecimal sumThrough(long epochDay) {
+        MoneyAccumulator sum = new MoneyAccumulator();
+        for (Map.Entry<Long, BigDecimal> outlier : outliers.headMap(epochDay, true).entrySet()) {
+            sum.add(outlier.getValue());
+        }
+        if (daily == null || epochDay < firstDay) {
+            return sum.toBigDecimal();
+        }
+
+        long last = firstDay + daily.length - 1;
+        for (int i = (int) (Math.min(epochDay, last) - firstDay) + 1; i > 0; i -= i & -i) {
+            if (tree[i] != null) {
+                sum.add(tree[i]);
+            }
+        }
+        return sum.toBigDecimal();
+    }
+
+    synchronized BigDecimal total() {
+        return total.toBigDecimal();
+    }
+
+    /**
+     * Расширяет диапазон так, чтобы он включал день; false — если день слишком далеко.
+     */
+    private boolean ensureCovered(long epochDay) {
+        if (daily == null) {
+            firstDay = epochDay - INITIAL_CAPACITY / 2;
+            daily = new MoneyAccumulator[INITIAL_CAPACITY];
+            tree = new MoneyAccumulator[INITIAL_CAPACITY + 1];
+        }
+        long last = firstDay + daily.length - 1;
+        if (epochDay >= firstDay && epochDay <= last) {
+            return true;
+        }
+
+        long newFirst = Math.min(firstDay, epochDay);
+        long newLast = Math.max(last, epochDay);
+        if (newLast - newFirst >= MAX_SPAN) {
+            return false;
+        }
+        int capacity = daily.length;
+        while (capacity < newLast - newFirst + 1) {
+            capacity *= 2;
+        }
+        capacity = Math.min(capacity * 2, MAX_SPAN);
+        // Запас с той стороны, куда диапазон рос: следующие операции туда же не потребуют перестройки
+        if (epochDay < firstDay) {
+            newFirst = newLast - capacity + 1;
+        }
+
+        MoneyAccumulator[] newDaily = new MoneyAccumulator[capacity];
+        System.arraycopy(daily, 0, newDaily, (int) (firstDay - newFirst), daily.length);
+        firstDay = newFirst;
+        daily = newDaily;
+        rebuildTree();
+        return true;
+    }
+
+    private void rebuildTree() {
+        tree = new MoneyAccumulator[daily.length + 1];
+        for (int i = 0; i < daily.length; i++) {
+            if (daily[i] != null) {
+                node(tree, i + 1).add(daily[i]);
+            }
+        }
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length && tree[i] != null) {
+                node(tree, parent).add(tree[i]);
+            }
+        }
+    }
+
+    private static MoneyAccumulator node(MoneyAccumulator[] nodes, int index) {
+        MoneyAccumulator node = nodes[index];
+        if (node == null) {
+            node = new MoneyAccumulator();
+            nodes[index] = node;
+        }
+        return node;
+    }
+
+    private static void apply(MoneyAccumulator accumulator, Money amount, int sign) {
+        if (sign > 0) {
+            accumulator.add(amount);
+        } else {
+            accumulator.subtract(amount);
+        }
+    }
+}
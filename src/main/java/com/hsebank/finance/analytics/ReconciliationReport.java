@@ -0,0 +1,98 @@
+package com.hsebank.finance.analytics;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Результат сверки балансов: расхождения по счетам и операции, ссылающиеся на несуществующие счета.
+ */
+public class ReconciliationReport {
+    private final int accountsChecked;
+    private final List<Discrepancy> discrepancies;
+    private final Map<String, BigDecimal> orphanedTotals;
+    private final boolean repaired;
+
+    public ReconciliationReport(int accountsChecked,
+                                List<Discrepancy> discrepancies,
+                                Map<String, BigDecimal> orphanedTotals,
+                                boolean repaired) {
+        this.accountsChecked = accountsChecked;
+        this.discrepancies = Collections.unmodifiableList(discrepancies);
+        this.orphanedTotals = Collections.unmodifiableMap(orphanedTotals);
+        this.repaired = repaired;
+    }
+
+    public int getAccountsChecked() {
+        return accountsChecked;
+    }
+
+    /**
+     * Счета, у которых записанный баланс не равен входящему остатку плюс движение по операциям.
+     */
+    public List<Discrepancy> getDiscrepancies() {
+        return discrepancies;
+    }
+
+    /**
+     * Чистое движение по операциям, чей счёт не найден, — по id счёта.
+     */
+    public Map<String, BigDecimal> getOrphanedTotals() {
+        return orphanedTotals;
+    }
+
+    /**
+     * true, если расхождения были исправлены в ходе сверки.
+     */
+    public boolean isRepaired() {
+        return repaired;
+    }
+
+    public boolean isConsistent() {
+        return discrepancies.isEmpty() && orphanedTotals.isEmpty();
+    }
+
+    /**
+     * Расхождение по одному счёту.
+     */
+    public static class Discrepancy {
+        private final String accountId;
+        private final BigDecimal recorded;
+        private final BigDecimal expected;
+
+        public Discrepancy(String accountId, BigDecimal recorded, BigDecimal expected) {
+            this.accountId = accountId;
+            this.recorded = recorded;
+            this.expected = expected;
+        }
+
+        public String getAccountId() {
+            return accountId;
+        }
+
+        public BigDecimal getRecorded() {
+            return recorded;
+        }
+
+        public BigDecimal getExpected() {
+            return expected;
+        }
+
+        /**
+         * Сколько нужно добавить к записанному балансу, чтобы он стал верным.
+         */
+        public BigDecimal getDifference() {
+            return expected.subtract(recorded);
+        }
+
+        @Override
+        public String toString() {
+            return "Discrepancy{" +
+                    "accountId='" + accountId + '\'' +
+                    ", recorded=" + recorded +
+                    ", expected=" + expected +
+                    '}';
+        }
+    }
+}
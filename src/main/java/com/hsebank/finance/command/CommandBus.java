@@ -0,0 +1,232 @@
+package com.hsebank.finance.command;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.facade.OperationFacade;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Асинхронная шина команд: команды ставятся в ограниченную очередь и выполняются пулом рабочих потоков,
+ * вызывающий поток не ждёт выполнения и получает future с результатом.
+ *
+ * <p>Рабочий поток забирает из очереди всё накопившееся (до maxBatch команд) и выполняет пачкой:
+ * операции {@link OperationCommand} одного фасада сохраняются одним {@link OperationFacade#addOperations},
+ * поэтому команды по одному счёту дают одно изменение его баланса на пачку. Если пачка не сохранилась
+ * (одна из команд ссылается на несуществующий счёт или репозиторий отклонил запись), фасад оставляет
+ * балансы как были, команды пачки выполняются по одной, и ошибку получает только future виновной команды.
+ *
+ * <p>При переполнении очереди submit не блокируется, а возвращает future, завершённый
+ * {@link RejectedExecutionException}: вызывающий сам решает, повторить позже или отказать.
+ * Порядок выполнения команд разных рабочих потоков не гарантируется.
+ *
+ * <p>Рабочие потоки виртуальные: почти всё время они ждут очереди, блокировок счетов или журнала
+ * и при этом не занимают потоков ОС. Как и демоны, они не мешают завершению JVM.
+ */
+public class CommandBus implements AutoCloseable {
+    private static final Pending CLOSE = new Pending(null, null);
+
+    private final ArrayBlockingQueue<Pending> queue;
+    private final int capacity;
+    private final Thread[] workers;
+    private final int maxBatch;
+    private final Object submitLock = new Object();
+    private boolean closed;
+
+    public CommandBus() {
+        this(Runtime.getRuntime().availableProcessors(), 10_000, 256);
+    }
+
+    /**
+     * @param workers  количество рабочих (виртуальных) потоков
+     * @param capacity максимальное число команд, ожидающих выполнения
+     * @param maxBatch максимальное число команд, выполняемых одной пачкой
+     */
+    public CommandBus(int workers, int capacity, int maxBatch) {
+        if (workers <= 0 || capacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Число потоков, ёмкость очереди и размер пачки должны быть больше нуля");
+        }
+        // Место под маркер закрытия: close() не ждёт, пока рабочие потоки освободят очередь
+        this.queue = new ArrayBlockingQueue<>(capacity + 1);
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.workers = new Thread[workers];
+        ThreadFactory threads = Thread.ofVirtual().name("command-bus-", 0).factory();
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = threads.newThread(this::workLoop);
+            this.workers[i].start();
+        }
+    }
+
+    /**
+     * Ставит команду создания операции в очередь; future завершается созданной операцией
+     * (тем же значением, что вернёт {@link OperationCommand#getResult()}).
+     */
+    public CompletableFuture<Operation> submit(OperationCommand command) {
+        CompletableFuture<Operation> done = new CompletableFuture<>();
+        enqueue(new Pending(command, done));
+        return done;
+    }
+
+    /**
+     * Ставит произвольную команду в очередь; future завершается после её выполнения.
+     */
+    public CompletableFuture<Void> submit(Command command) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        enqueue(new Pending(command, done));
+        return done;
+    }
+
+    /**
+     * Количество команд, ожидающих выполнения.
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Перестаёт принимать команды, выполняет уже принятые и останавливает рабочие потоки.
+     */
+    @Override
+    public void close() {
+        synchronized (submitLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        try {
+            queue.put(CLOSE);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Pending pending) {
+        if (pending.command == null) {
+            throw new IllegalArgumentException("Команда не задана");
+        }
+        synchronized (submitLock) {
+            if (closed) {
+                pending.done.completeExceptionally(new IllegalStateException("Шина команд закрыта"));
+                return;
+            }
+            // Очередь пополняется только здесь, под блокировкой, поэтому проверка размера не устаревает
+            if (queue.size() >= capacity || !queue.offer(pending)) {
+                pending.done.completeExceptionally(new RejectedExecutionException(
+                        "Очередь команд переполнена: " + queue.size() + " ожидают выполнения"));
+            }
+        }
+    }
+
+    private void workLoop() {
+        List<Pending> batch = new ArrayList<>();
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+
+            // Маркер закрытия стоит после всех принятых команд; возвращаем его для остальных потоков
+            if (batch.remove(CLOSE)) {
+                running = false;
+                queue.offer(CLOSE);
+            }
+            execute(batch);
+            batch.clear();
+        }
+    }
+
+    private void execute(List<Pending> batch) {
+        Map<OperationFacade, List<Pending>> byFacade = new IdentityHashMap<>();
+        for (Pending pending : batch) {
+            if (pending.command instanceof OperationCommand) {
+                OperationFacade facade = ((OperationCommand) pending.command).getOperationFacade();
+                byFacade.computeIfAbsent(facade, key -> new ArrayList<>()).add(pending);
+            } else {
+                executeSingle(pending);
+            }
+        }
+        for (Map.Entry<OperationFacade, List<Pending>> group : byFacade.entrySet()) {
+            executeBatch(group.getKey(), group.getValue());
+        }
+    }
+
+    /**
+     * Сохраняет операции пачки разом; при ошибке — выполняет команды по одной.
+     */
+    private void executeBatch(OperationFacade facade, List<Pending> group) {
+        List<Pending> prepared = new ArrayList<>(group.size());
+        List<Operation> operations = new ArrayList<>(group.size());
+        for (Pending pending : group) {
+            try {
+                operations.add(((OperationCommand) pending.command).prepare());
+                prepared.add(pending);
+            } catch (RuntimeException e) {
+                // Команда не прошла проверки фабрики — остальные пачки это не касается
+                pending.done.completeExceptionally(e);
+            }
+        }
+        if (prepared.isEmpty()) {
+            return;
+        }
+
+        try {
+            facade.addOperations(operations);
+        } catch (RuntimeException e) {
+            for (Pending pending : prepared) {
+                executeSingle(pending);
+            }
+            return;
+        }
+
+        for (int i = 0; i < prepared.size(); i++) {
+            OperationCommand command = (OperationCommand) prepared.get(i).command;
+            command.complete(operations.get(i));
+            prepared.get(i).complete(command.getResult());
+        }
+    }
+
+    private static void executeSingle(Pending pending) {
+        try {
+            pending.command.execute();
+            pending.complete(pending.command instanceof OperationCommand
+                    ? ((OperationCommand) pending.command).getResult()
+                    : null);
+        } catch (RuntimeException e) {
+            pending.done.completeExceptionally(e);
+        }
+    }
+
+    private static final class Pending {
+        final Command command;
+        final CompletableFuture<?> done;
+
+        Pending(Command command, CompletableFuture<?> done) {
+            this.command = command;
+            this.done = done;
+        }
+
+        /**
+         * Future создаётся в submit с типом результата команды, поэтому приведение безопасно.
+         */
+        @SuppressWarnings("unchecked")
+        void complete(Object result) {
+            ((CompletableFuture<Object>) done).complete(result);
+        }
+    }
+}
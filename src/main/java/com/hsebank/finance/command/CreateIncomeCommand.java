@@ -1,6 +1,7 @@
 package com.hsebank.finance.command;
 
 import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
 import com.hsebank.finance.facade.OperationFacade;
 
 import java.math.BigDecimal;
@@ -9,7 +10,7 @@ import java.math.BigDecimal;
  * Команда для создания дохода
  * Автоматически увеличивает баланс счёта
  */
-public class CreateIncomeCommand implements Command {
+public class CreateIncomeCommand implements OperationCommand {
     private final OperationFacade operationFacade;
     private final String bankAccountId;
     private final BigDecimal amount;
@@ -35,6 +36,22 @@ public class CreateIncomeCommand implements Command {
         result = operationFacade.createIncome(bankAccountId, amount, categoryId, description);
     }
 
+    @Override
+    public OperationFacade getOperationFacade() {
+        return operationFacade;
+    }
+
+    @Override
+    public Operation prepare() {
+        return operationFacade.newOperation(OperationType.INCOME, bankAccountId, amount, categoryId, description);
+    }
+
+    @Override
+    public void complete(Operation operation) {
+        result = operation;
+    }
+
+    @Override
     public Operation getResult() {
         return result;
     }
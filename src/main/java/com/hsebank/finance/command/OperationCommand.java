@@ -0,0 +1,30 @@
+package com.hsebank.finance.command;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.facade.OperationFacade;
+
+/**
+ * Команда, создающая одну операцию. Кроме обычного {@link #execute()} поддерживает пакетное
+ * выполнение в {@link CommandBus}: операция готовится без сохранения ({@link #prepare()}),
+ * шина сохраняет пачку одним {@link OperationFacade#addOperations} — с одним изменением баланса
+ * на счёт — и сообщает результат через {@link #complete(Operation)}.
+ */
+public interface OperationCommand extends Command {
+
+    /**
+     * Фасад, через который сохраняются операции команды.
+     */
+    OperationFacade getOperationFacade();
+
+    /**
+     * Создаёт операцию с проверками, но без сохранения и изменения баланса.
+     */
+    Operation prepare();
+
+    /**
+     * Запоминает операцию, сохранённую в пакете, как результат команды.
+     */
+    void complete(Operation operation);
+
+    Operation getResult();
+}
@@ -1,5 +1,9 @@
 package com.hsebank.finance.console;
 
+import com.hsebank.finance.analytics.AggregationService;
+import com.hsebank.finance.analytics.AnalyticsEngine;
+import com.hsebank.finance.analytics.BalanceHistoryService;
+import com.hsebank.finance.analytics.BalanceReconciler;
 import com.hsebank.finance.domain.model.BankAccount;
 import com.hsebank.finance.domain.model.Category;
 import com.hsebank.finance.domain.model.Operation;
@@ -8,7 +12,9 @@ import com.hsebank.finance.facade.CategoryFacade;
 import com.hsebank.finance.facade.OperationFacade;
 import com.hsebank.finance.factory.BankAccountFactory;
 import com.hsebank.finance.factory.CategoryFactory;
+import com.hsebank.finance.factory.IdGenerator;
 import com.hsebank.finance.factory.OperationFactory;
+import com.hsebank.finance.factory.TimeOrderedIdGenerator;
 import com.hsebank.finance.repository.InMemoryBankAccountRepository;
 import com.hsebank.finance.repository.InMemoryCategoryRepository;
 import com.hsebank.finance.repository.InMemoryOperationRepository;
@@ -39,6 +45,9 @@ public class ConsoleApplication {
                 facades.categoryFacade,
                 facades.accountFacade,
                 facades.operationFacade,
+                facades.aggregationService,
+                facades.balanceReconciler,
+                facades.balanceHistoryService,
                 helper
         );
 
@@ -60,10 +69,11 @@ public class ConsoleApplication {
     }
 
     private FacadeHolder initializeFacades() {
-        // Создаём фабрики
-        BankAccountFactory accountFactory = new BankAccountFactory();
-        CategoryFactory categoryFactory = new CategoryFactory();
-        OperationFactory operationFactory = new OperationFactory();
+        // Создаём фабрики с общим генератором упорядоченных по времени ID
+        IdGenerator idGenerator = new TimeOrderedIdGenerator();
+        BankAccountFactory accountFactory = new BankAccountFactory(idGenerator);
+        CategoryFactory categoryFactory = new CategoryFactory(idGenerator);
+        OperationFactory operationFactory = new OperationFactory(idGenerator);
 
         // Создаём репозитории
         Repository<BankAccount, String> accountRepo = new InMemoryBankAccountRepository();
@@ -75,7 +85,17 @@ public class ConsoleApplication {
         CategoryFacade categoryFacade = new CategoryFacade(categoryFactory, categoryRepo);
         OperationFacade operationFacade = new OperationFacade(operationFactory, operationRepo, accountRepo);
 
-        return new FacadeHolder(categoryFacade, accountFacade, operationFacade);
+        // Итоги обновляются при каждом изменении операций через фасад
+        AggregationService aggregationService = new AggregationService();
+        operationFacade.addListener(aggregationService);
+        BalanceHistoryService balanceHistoryService = new BalanceHistoryService(accountFacade);
+        operationFacade.addListener(balanceHistoryService);
+
+        BalanceReconciler balanceReconciler =
+                new BalanceReconciler(new AnalyticsEngine(operationFacade), accountFacade, operationFacade);
+
+        return new FacadeHolder(categoryFacade, accountFacade, operationFacade, aggregationService, balanceReconciler,
+                balanceHistoryService);
     }
 
     /**
@@ -116,6 +136,11 @@ public class ConsoleApplication {
         System.out.println("9. Импорт из CSV");
         System.out.println("10. Экспорт в JSON");
         System.out.println("11. Экспорт в CSV");
+        System.out.println("12. Импорт из двоичного формата");
+        System.out.println("13. Экспорт в двоичный формат");
+        System.out.println("14. Сводка за месяц");
+        System.out.println("15. Сверка балансов");
+        System.out.println("16. Баланс на дату");
         System.out.println("0. Выход");
         System.out.println("═══════════════════════════════════════════");
     }
@@ -155,6 +180,21 @@ public class ConsoleApplication {
             case 11:
                 exportService.exportToCsv();
                 break;
+            case 12:
+                importService.importFromBinary();
+                break;
+            case 13:
+                exportService.exportToBinary();
+                break;
+            case 14:
+                uiService.showMonthlySummary();
+                break;
+            case 15:
+                uiService.reconcileBalances();
+                break;
+            case 16:
+                uiService.showBalanceAsOf();
+                break;
             case 0:
                 return false; // Выход из программы
             default:
@@ -168,13 +208,22 @@ public class ConsoleApplication {
         final CategoryFacade categoryFacade;
         final BankAccountFacade accountFacade;
         final OperationFacade operationFacade;
+        final AggregationService aggregationService;
+        final BalanceReconciler balanceReconciler;
+        final BalanceHistoryService balanceHistoryService;
 
         FacadeHolder(CategoryFacade categoryFacade,
                      BankAccountFacade accountFacade,
-                     OperationFacade operationFacade) {
+                     OperationFacade operationFacade,
+                     AggregationService aggregationService,
+                     BalanceReconciler balanceReconciler,
+                     BalanceHistoryService balanceHistoryService) {
             this.categoryFacade = categoryFacade;
             this.accountFacade = accountFacade;
             this.operationFacade = operationFacade;
+            this.aggregationService = aggregationService;
+            this.balanceReconciler = balanceReconciler;
+            this.balanceHistoryService = balanceHistoryService;
         }
     }
 }
\ No newline at end of file
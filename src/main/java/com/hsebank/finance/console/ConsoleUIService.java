@@ -1,5 +1,9 @@
 package com.hsebank.finance.console;
 
+import com.hsebank.finance.analytics.AggregationService;
+import com.hsebank.finance.analytics.BalanceHistoryService;
+import com.hsebank.finance.analytics.BalanceReconciler;
+import com.hsebank.finance.analytics.ReconciliationReport;
 import com.hsebank.finance.command.*;
 import com.hsebank.finance.decorator.TimingDecorator;
 import com.hsebank.finance.domain.model.BankAccount;
@@ -11,8 +15,13 @@ import com.hsebank.finance.facade.CategoryFacade;
 import com.hsebank.finance.facade.OperationFacade;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Сервис опроса пользователя: задаёт вопросы и формирует DTO для команд.
@@ -21,15 +30,24 @@ public class ConsoleUIService {
     private final CategoryFacade categoryFacade;
     private final BankAccountFacade accountFacade;
     private final OperationFacade operationFacade;
+    private final AggregationService aggregationService;
+    private final BalanceReconciler balanceReconciler;
+    private final BalanceHistoryService balanceHistoryService;
     private final ConsoleHelper helper;
 
     public ConsoleUIService(CategoryFacade categoryFacade,
                             BankAccountFacade accountFacade,
                             OperationFacade operationFacade,
+                            AggregationService aggregationService,
+                            BalanceReconciler balanceReconciler,
+                            BalanceHistoryService balanceHistoryService,
                             ConsoleHelper helper) {
         this.categoryFacade = categoryFacade;
         this.accountFacade = accountFacade;
         this.operationFacade = operationFacade;
+        this.aggregationService = aggregationService;
+        this.balanceReconciler = balanceReconciler;
+        this.balanceHistoryService = balanceHistoryService;
         this.helper = helper;
     }
 
@@ -269,7 +287,7 @@ public class ConsoleUIService {
     public void showAllCategories() {
         System.out.println("─── Все категории ───");
 
-        List<Category> categories = categoryFacade.getAllCategories();
+        Collection<Category> categories = categoryFacade.getAllCategoriesView();
 
         if (categories.isEmpty()) {
             System.out.println("Категорий пока нет");
@@ -290,7 +308,7 @@ public class ConsoleUIService {
     public void showAllAccounts() {
         System.out.println("─── Все банковские счета ───");
 
-        List<BankAccount> accounts = accountFacade.getAllBankAccounts();
+        Collection<BankAccount> accounts = accountFacade.getAllBankAccountsView();
 
         if (accounts.isEmpty()) {
             System.out.println("Счетов пока нет");
@@ -311,7 +329,7 @@ public class ConsoleUIService {
     public void showAllOperations() {
         System.out.println("─── Все операции ───");
 
-        List<Operation> operations = operationFacade.getAllOperations();
+        Collection<Operation> operations = operationFacade.getAllOperationsView();
 
         if (operations.isEmpty()) {
             System.out.println("Операций пока нет");
@@ -339,4 +357,96 @@ public class ConsoleUIService {
         System.out.println("Всего операций: " + operations.size());
     }
 
+    /**
+     * Доходы и расходы за текущий месяц, всего и по категориям — из нарастающих итогов, без просмотра операций.
+     */
+    public void showMonthlySummary() {
+        YearMonth month = YearMonth.now();
+        System.out.println("─── Сводка за " + month + " ───");
+
+        BigDecimal income = aggregationService.getTotal(OperationType.INCOME, month);
+        BigDecimal expense = aggregationService.getTotal(OperationType.EXPENSE, month);
+        System.out.println("Доходы: " + income + "₽");
+        System.out.println("Расходы: " + expense + "₽");
+        System.out.println("Итого: " + income.subtract(expense) + "₽");
+
+        printCategoryTotals("Доходы по категориям:", aggregationService.getCategoryTotals(OperationType.INCOME, month));
+        printCategoryTotals("Расходы по категориям:", aggregationService.getCategoryTotals(OperationType.EXPENSE, month));
+    }
+
+    /**
+     * Сверяет балансы счетов с операциями и по подтверждению исправляет расхождения.
+     */
+    public void reconcileBalances() {
+        System.out.println("─── Сверка балансов ───");
+
+        ReconciliationReport report = balanceReconciler.check();
+        System.out.println("Проверено счетов: " + report.getAccountsChecked());
+
+        for (String accountId : report.getOrphanedTotals().keySet()) {
+            System.out.println("Операции ссылаются на несуществующий счёт: " + accountId);
+        }
+
+        if (report.getDiscrepancies().isEmpty()) {
+            System.out.println("Расхождений нет");
+            return;
+        }
+
+        for (ReconciliationReport.Discrepancy discrepancy : report.getDiscrepancies()) {
+            String name = accountFacade.getBankAccountById(discrepancy.getAccountId())
+                    .map(BankAccount::getName)
+                    .orElse(discrepancy.getAccountId());
+            System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+            System.out.println("Счёт: " + name);
+            System.out.println("Записано: " + discrepancy.getRecorded() + "₽");
+            System.out.println("По операциям: " + discrepancy.getExpected() + "₽");
+        }
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+
+        String answer = helper.getStringInput("Исправить балансы? (да/нет): ");
+        if (answer.trim().equalsIgnoreCase("да")) {
+            ReconciliationReport repaired = balanceReconciler.repair();
+            System.out.println("Исправлено счетов: " + repaired.getDiscrepancies().size());
+        }
+    }
+
+    /**
+     * Показывает балансы всех счетов на конец выбранного дня.
+     */
+    public void showBalanceAsOf() {
+        System.out.println("─── Баланс на дату ───");
+
+        List<BankAccount> accounts = accountFacade.getAllBankAccounts();
+        if (accounts.isEmpty()) {
+            System.out.println("Счетов нет");
+            return;
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.parse(helper.getStringInput("Введите дату (ГГГГ-ММ-ДД): ").trim());
+        } catch (DateTimeParseException e) {
+            System.out.println("Неверный формат даты!");
+            return;
+        }
+
+        for (BankAccount account : accounts) {
+            BigDecimal balance = balanceHistoryService.getBalanceAsOf(account.getId(), date);
+            System.out.println(account.getName() + ": " + balance + "₽");
+        }
+    }
+
+    private void printCategoryTotals(String title, Map<String, BigDecimal> totals) {
+        if (totals.isEmpty()) {
+            return;
+        }
+        System.out.println("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━");
+        System.out.println(title);
+        for (Map.Entry<String, BigDecimal> entry : totals.entrySet()) {
+            String name = categoryFacade.getCategoryById(entry.getKey())
+                    .map(Category::getName)
+                    .orElse(entry.getKey());
+            System.out.println("  " + name + ": " + entry.getValue() + "₽");
+        }
+    }
 }
@@ -3,6 +3,12 @@ package com.hsebank.finance.console;
 import com.hsebank.finance.domain.model.BankAccount;
 import com.hsebank.finance.domain.model.Category;
 import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.exporter.ChannelExportWriter;
+import com.hsebank.finance.exporter.Exportable;
+import com.hsebank.finance.exporter.binary.BinaryBankAccountExporter;
+import com.hsebank.finance.exporter.binary.BinaryCategoryExporter;
+import com.hsebank.finance.exporter.binary.BinaryExporter;
+import com.hsebank.finance.exporter.binary.BinaryOperationExporter;
 import com.hsebank.finance.exporter.csv.CsvBankAccountExporter;
 import com.hsebank.finance.exporter.csv.CsvCategoryExporter;
 import com.hsebank.finance.exporter.csv.CsvOperationExporter;
@@ -13,13 +19,16 @@ import com.hsebank.finance.facade.BankAccountFacade;
 import com.hsebank.finance.facade.CategoryFacade;
 import com.hsebank.finance.facade.OperationFacade;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Function;
 
 /**
- * Сервис экспорта данных в файлы (JSON, CSV)
- * Использует паттерн Visitor для экспорта
+ * Сервис экспорта данных в файлы (JSON, CSV, двоичный формат)
+ * Использует паттерн Visitor для экспорта; записи пишутся в файл потоково, без сборки документа в памяти
  */
 public class ExportService {
     private final CategoryFacade categoryFacade;
@@ -66,21 +75,21 @@ public class ExportService {
     }
 
     private void exportCategoriesToJson(String filePath) throws IOException {
-        List<Category> categories = categoryFacade.getAllCategories();
+        Collection<Category> categories = categoryFacade.getAllCategoriesView();
 
         if (categories.isEmpty()) {
             System.out.println("Нет категорий для экспорта");
             return;
         }
 
-        JsonCategoryExporter exporter = new JsonCategoryExporter();
+        try (ChannelExportWriter writer = new ChannelExportWriter(Path.of(filePath))) {
+            JsonCategoryExporter exporter = new JsonCategoryExporter(writer);
 
-        for (Category category : categories) {
-            category.accept(exporter);
-        }
+            for (Category category : categories) {
+                category.accept(exporter);
+            }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(exporter.getJson());
+            exporter.finish();
         }
 
         System.out.println("Экспортировано категорий: " + categories.size());
@@ -88,21 +97,21 @@ public class ExportService {
     }
 
     private void exportAccountsToJson(String filePath) throws IOException {
-        List<BankAccount> accounts = accountFacade.getAllBankAccounts();  // ← Получаем из фасада!
+        Collection<BankAccount> accounts = accountFacade.getAllBankAccountsView();
 
         if (accounts.isEmpty()) {
             System.out.println("Нет счетов для экспорта");
             return;
         }
 
-        JsonBankAccountExporter exporter = new JsonBankAccountExporter();
+        try (ChannelExportWriter writer = new ChannelExportWriter(Path.of(filePath))) {
+            JsonBankAccountExporter exporter = new JsonBankAccountExporter(writer);
 
-        for (BankAccount account : accounts) {
-            account.accept(exporter);
-        }
+            for (BankAccount account : accounts) {
+                account.accept(exporter);
+            }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(exporter.getJson());
+            exporter.finish();
         }
 
         System.out.println("Экспортировано счетов: " + accounts.size());
@@ -110,21 +119,21 @@ public class ExportService {
     }
 
     private void exportOperationsToJson(String filePath) throws IOException {
-        List<Operation> operations = operationFacade.getAllOperations();  // ← Получаем из фасада!
+        Collection<Operation> operations = operationFacade.getAllOperationsView();
 
         if (operations.isEmpty()) {
             System.out.println("Нет операций для экспорта");
             return;
         }
 
-        JsonOperationExporter exporter = new JsonOperationExporter();
+        try (ChannelExportWriter writer = new ChannelExportWriter(Path.of(filePath))) {
+            JsonOperationExporter exporter = new JsonOperationExporter(writer);
 
-        for (Operation operation : operations) {
-            operation.accept(exporter);
-        }
+            for (Operation operation : operations) {
+                operation.accept(exporter);
+            }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(exporter.getJson());
+            exporter.finish();
         }
 
         System.out.println("Экспортировано операций: " + operations.size());
@@ -160,21 +169,21 @@ public class ExportService {
     }
 
     private void exportCategoriesToCsv(String filePath) throws IOException {
-        List<Category> categories = categoryFacade.getAllCategories();  // ← Получаем из фасада!
+        Collection<Category> categories = categoryFacade.getAllCategoriesView();
 
         if (categories.isEmpty()) {
             System.out.println("Нет категорий для экспорта");
             return;
         }
 
-        CsvCategoryExporter exporter = new CsvCategoryExporter();
+        try (ChannelExportWriter writer = new ChannelExportWriter(Path.of(filePath))) {
+            CsvCategoryExporter exporter = new CsvCategoryExporter(writer);
 
-        for (Category category : categories) {
-            category.accept(exporter);
-        }
+            for (Category category : categories) {
+                category.accept(exporter);
+            }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(exporter.getCsv());
+            exporter.finish();
         }
 
         System.out.println("Экспортировано категорий: " + categories.size());
@@ -182,21 +191,21 @@ public class ExportService {
     }
 
     private void exportAccountsToCsv(String filePath) throws IOException {
-        List<BankAccount> accounts = accountFacade.getAllBankAccounts();  // ← Получаем из фасада!
+        Collection<BankAccount> accounts = accountFacade.getAllBankAccountsView();
 
         if (accounts.isEmpty()) {
             System.out.println("Нет счетов для экспорта");
             return;
         }
 
-        CsvBankAccountExporter exporter = new CsvBankAccountExporter();
+        try (ChannelExportWriter writer = new ChannelExportWriter(Path.of(filePath))) {
+            CsvBankAccountExporter exporter = new CsvBankAccountExporter(writer);
 
-        for (BankAccount account : accounts) {
-            account.accept(exporter);
-        }
+            for (BankAccount account : accounts) {
+                account.accept(exporter);
+            }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(exporter.getCsv());
+            exporter.finish();
         }
 
         System.out.println("Экспортировано счетов: " + accounts.size());
@@ -204,24 +213,75 @@ public class ExportService {
     }
 
     private void exportOperationsToCsv(String filePath) throws IOException {
-        List<Operation> operations = operationFacade.getAllOperations();  // ← Получаем из фасада!
+        Collection<Operation> operations = operationFacade.getAllOperationsView();
 
         if (operations.isEmpty()) {
             System.out.println("Нет операций для экспорта");
             return;
         }
 
-        CsvOperationExporter exporter = new CsvOperationExporter();
+        try (ChannelExportWriter writer = new ChannelExportWriter(Path.of(filePath))) {
+            CsvOperationExporter exporter = new CsvOperationExporter(writer);
 
-        for (Operation operation : operations) {
-            operation.accept(exporter);
-        }
+            for (Operation operation : operations) {
+                operation.accept(exporter);
+            }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(exporter.getCsv());
+            exporter.finish();
         }
 
         System.out.println("Экспортировано операций: " + operations.size());
         System.out.println("Файл: " + filePath);
     }
+
+    public void exportToBinary() {
+        System.out.println("─── Экспорт в двоичный формат ───");
+        System.out.println("1. Категории");
+        System.out.println("2. Счета");
+        System.out.println("3. Операции");
+
+        int choice = helper.getIntInput("Выберите тип данных: ");
+        String filePath = helper.getStringInput("Введите путь к файлу: ");
+
+        try {
+            switch (choice) {
+                case 1:
+                    exportToBinary(filePath, categoryFacade.getAllCategoriesView(), BinaryCategoryExporter::new, "категорий");
+                    break;
+                case 2:
+                    exportToBinary(filePath, accountFacade.getAllBankAccountsView(), BinaryBankAccountExporter::new, "счетов");
+                    break;
+                case 3:
+                    exportToBinary(filePath, operationFacade.getAllOperationsView(), BinaryOperationExporter::new, "операций");
+                    break;
+                default:
+                    System.out.println("Неверный выбор");
+            }
+        } catch (Exception e) {
+            System.out.println("Ошибка: " + e.getMessage());
+        }
+    }
+
+    private void exportToBinary(String filePath,
+                                Collection<? extends Exportable> items,
+                                Function<OutputStream, BinaryExporter> exporterFactory,
+                                String what) throws IOException {
+        if (items.isEmpty()) {
+            System.out.println("Нет " + what + " для экспорта");
+            return;
+        }
+
+        try (OutputStream out = Files.newOutputStream(Path.of(filePath))) {
+            BinaryExporter exporter = exporterFactory.apply(out);
+
+            for (Exportable item : items) {
+                item.accept(exporter);
+            }
+
+            exporter.finish();
+        }
+
+        System.out.println("Экспортировано " + what + ": " + items.size());
+        System.out.println("Файл: " + filePath);
+    }
 }
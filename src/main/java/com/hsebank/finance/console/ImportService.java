@@ -7,6 +7,9 @@ import com.hsebank.finance.facade.BankAccountFacade;
 import com.hsebank.finance.facade.CategoryFacade;
 import com.hsebank.finance.facade.OperationFacade;
 import com.hsebank.finance.importer.DataImporter;
+import com.hsebank.finance.importer.binary.BinaryBankAccountImporter;
+import com.hsebank.finance.importer.binary.BinaryCategoryImporter;
+import com.hsebank.finance.importer.binary.BinaryOperationImporter;
 import com.hsebank.finance.importer.csv.CsvBankAccountImporter;
 import com.hsebank.finance.importer.csv.CsvCategoryImporter;
 import com.hsebank.finance.importer.csv.CsvOperationImporter;
@@ -14,13 +17,18 @@ import com.hsebank.finance.importer.json.JsonBankAccountImporter;
 import com.hsebank.finance.importer.json.JsonCategoryImporter;
 import com.hsebank.finance.importer.json.JsonOperationImporter;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Сервис импорта данных из файлов (JSON, CSV)
+ * Сервис импорта данных из файлов (JSON, CSV, двоичный формат)
  * Использует паттерн Template Method для импорта
  */
 public class ImportService {
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
     private final CategoryFacade categoryFacade;
     private final BankAccountFacade accountFacade;
     private final OperationFacade operationFacade;
@@ -48,13 +56,13 @@ public class ImportService {
         try {
             switch (choice) {
                 case 1:
-                    importCategoriesFromJson(filePath);
+                    importCategories(new JsonCategoryImporter(), filePath);
                     break;
                 case 2:
-                    importAccountsFromJson(filePath);
+                    importAccounts(new JsonBankAccountImporter(), filePath);
                     break;
                 case 3:
-                    importOperationsFromJson(filePath);
+                    importOperations(new JsonOperationImporter(), filePath);
                     break;
                 default:
                     System.out.println("Неверный выбор");
@@ -64,96 +72,36 @@ public class ImportService {
         }
     }
 
-    private void importCategoriesFromJson(String filePath) {
-        DataImporter<Category> importer = new JsonCategoryImporter();
-
-        try {
-            List<Category> categories = importer.importFromFile(filePath);
-
-            for (Category category : categories) {
-                categoryFacade.getCategoryById(category.getId()).ifPresentOrElse(
-                        existing -> System.out.println("Категория с ID " + category.getId() + " уже существует"),
-                        () -> {
-                            Category newCategory = new Category(
-                                    category.getId(),
-                                    category.getType(),
-                                    category.getName()
-                            );
-                            categoryFacade.updateCategory(newCategory);
-                            System.out.println("Импортирована: " + category.getName());
-                        }
-                );
-            }
-
-            System.out.println("\nИмпорт завершён!");
-
-        } catch (Exception e) {
-            System.out.println("\nОшибка импорта: " + e.getMessage());
-        }
-    }
-
-    private void importAccountsFromJson(String filePath) {
-        DataImporter<BankAccount> importer = new JsonBankAccountImporter();
-
-        try {
-            List<BankAccount> accounts = importer.importFromFile(filePath);
-
-            for (BankAccount account : accounts) {
-                accountFacade.getBankAccountById(account.getId()).ifPresentOrElse(
-                        existing -> System.out.println("Счёт с ID " + account.getId() + " уже существует"),
-                        () -> {
-                            BankAccount newAccount = new BankAccount(
-                                    account.getId(),
-                                    account.getName(),
-                                    account.getBalance()
-                            );
-                            accountFacade.updateBankAccount(newAccount);
-                            System.out.println("Импортирован: " + account.getName());
-                        }
-                );
-            }
-
-            System.out.println("\nИмпорт завершён!");
-
-        } catch (Exception e) {
-            System.out.println("\nОшибка импорта: " + e.getMessage());
-        }
-    }
+    public void importFromCsv() {
+        System.out.println("─── Импорт из CSV ───");
+        System.out.println("1. Категории");
+        System.out.println("2. Счета");
+        System.out.println("3. Операции");
 
-    private void importOperationsFromJson(String filePath) {
-        DataImporter<Operation> importer = new JsonOperationImporter();
+        int choice = helper.getIntInput("Выберите тип данных: ");
+        String filePath = helper.getStringInput("Введите путь к файлу: ");
 
         try {
-            List<Operation> operations = importer.importFromFile(filePath);
-
-            for (Operation operation : operations) {
-                operationFacade.getOperationById(operation.getId()).ifPresentOrElse(
-                        existing -> System.out.println("Операция с ID " + operation.getId() + " уже существует"),
-                        () -> {
-                            Operation newOperation = new Operation(
-                                    operation.getId(),
-                                    operation.getType(),
-                                    operation.getBankAccountId(),
-                                    operation.getAmount(),
-                                    operation.getDate(),
-                                    operation.getCategoryId()
-                            );
-                            newOperation.setDescription(operation.getDescription());
-                            System.out.println("Импортирована операция: " + operation.getType() +
-                                    " на сумму " + operation.getAmount() + "₽");
-                        }
-                );
+            switch (choice) {
+                case 1:
+                    importCategories(new CsvCategoryImporter(), filePath);
+                    break;
+                case 2:
+                    importAccounts(new CsvBankAccountImporter(), filePath);
+                    break;
+                case 3:
+                    importOperations(new CsvOperationImporter(), filePath);
+                    break;
+                default:
+                    System.out.println("Неверный выбор");
             }
-
-            System.out.println("\nИмпорт операций завершён!");
-
         } catch (Exception e) {
-            System.out.println("\nОшибка импорта: " + e.getMessage());
+            System.out.println("Ошибка: " + e.getMessage());
         }
     }
 
-    public void importFromCsv() {
-        System.out.println("─── Импорт из CSV ───");
+    public void importFromBinary() {
+        System.out.println("─── Импорт из двоичного формата ───");
         System.out.println("1. Категории");
         System.out.println("2. Счета");
         System.out.println("3. Операции");
@@ -164,13 +112,13 @@ public class ImportService {
         try {
             switch (choice) {
                 case 1:
-                    importCategoriesFromCsv(filePath);
+                    importCategories(new BinaryCategoryImporter(), filePath);
                     break;
                 case 2:
-                    importAccountsFromCsv(filePath);
+                    importAccounts(new BinaryBankAccountImporter(), filePath);
                     break;
                 case 3:
-                    importOperationsFromCsv(filePath);
+                    importOperations(new BinaryOperationImporter(), filePath);
                     break;
                 default:
                     System.out.println("Неверный выбор");
@@ -180,25 +128,21 @@ public class ImportService {
         }
     }
 
-    private void importCategoriesFromCsv(String filePath) {
-        DataImporter<Category> importer = new CsvCategoryImporter();
-
+    private void importCategories(DataImporter<Category> importer, String filePath) {
         try {
             List<Category> categories = importer.importFromFile(filePath);
 
+            List<Category> newCategories = new ArrayList<>();
             for (Category category : categories) {
-                categoryFacade.getCategoryById(category.getId()).ifPresentOrElse(
-                        existing -> System.out.println("Категория с ID " + category.getId() + " уже существует"),
-                        () -> {
-                            Category newCategory = new Category(
-                                    category.getId(),
-                                    category.getType(),
-                                    category.getName()
-                            );
-                            categoryFacade.updateCategory(newCategory);
-                            System.out.println("Импортирована: " + category.getName());
-                        }
-                );
+                if (categoryFacade.getCategoryById(category.getId()).isPresent()) {
+                    System.out.println("Категория с ID " + category.getId() + " уже существует");
+                } else {
+                    newCategories.add(category);
+                }
+            }
+            categoryFacade.saveCategories(newCategories);
+            for (Category category : newCategories) {
+                System.out.println("Импортирована: " + category.getName());
             }
 
             System.out.println("\nИмпорт завершён!");
@@ -208,25 +152,21 @@ public class ImportService {
         }
     }
 
-    private void importAccountsFromCsv(String filePath) {
-        DataImporter<BankAccount> importer = new CsvBankAccountImporter();
-
+    private void importAccounts(DataImporter<BankAccount> importer, String filePath) {
         try {
             List<BankAccount> accounts = importer.importFromFile(filePath);
 
+            List<BankAccount> newAccounts = new ArrayList<>();
             for (BankAccount account : accounts) {
-                accountFacade.getBankAccountById(account.getId()).ifPresentOrElse(
-                        existing -> System.out.println("Счёт с ID " + account.getId() + " уже существует"),
-                        () -> {
-                            BankAccount newAccount = new BankAccount(
-                                    account.getId(),
-                                    account.getName(),
-                                    account.getBalance()
-                            );
-                            accountFacade.updateBankAccount(newAccount);
-                            System.out.println("Импортирован: " + account.getName());
-                        }
-                );
+                if (accountFacade.getBankAccountById(account.getId()).isPresent()) {
+                    System.out.println("Счёт с ID " + account.getId() + " уже существует");
+                } else {
+                    newAccounts.add(account);
+                }
+            }
+            accountFacade.saveBankAccounts(newAccounts);
+            for (BankAccount account : newAccounts) {
+                System.out.println("Импортирован: " + account.getName());
             }
 
             System.out.println("\nИмпорт завершён!");
@@ -236,30 +176,12 @@ public class ImportService {
         }
     }
 
-    private void importOperationsFromCsv(String filePath) {
-        DataImporter<Operation> importer = new CsvOperationImporter();
-
+    /**
+     * Операции читаются потоково, пачками: выписки бывают большими.
+     */
+    private void importOperations(DataImporter<Operation> importer, String filePath) {
         try {
-            List<Operation> operations = importer.importFromFile(filePath);
-
-            for (Operation operation : operations) {
-                operationFacade.getOperationById(operation.getId()).ifPresentOrElse(
-                        existing -> System.out.println("Операция с ID " + operation.getId() + " уже существует"),
-                        () -> {
-                            Operation newOperation = new Operation(
-                                    operation.getId(),
-                                    operation.getType(),
-                                    operation.getBankAccountId(),
-                                    operation.getAmount(),
-                                    operation.getDate(),
-                                    operation.getCategoryId()
-                            );
-                            newOperation.setDescription(operation.getDescription());
-                            System.out.println("Импортирована операция: " + operation.getType() +
-                                    " на сумму " + operation.getAmount() + "₽");
-                        }
-                );
-            }
+            importer.importFromFile(filePath, IMPORT_BATCH_SIZE, this::saveOperationBatch);
 
             System.out.println("\nИмпорт операций завершён!");
 
@@ -267,4 +189,29 @@ public class ImportService {
             System.out.println("\nОшибка импорта: " + e.getMessage());
         }
     }
+
+    /**
+     * Сохраняет пачку импортированных операций: уже существующие и повторяющиеся в пачке пропускаются,
+     * остальные сохраняются одним вызовом фасада с пересчётом балансов по счетам.
+     * Повторы из прошлых пачек находит проверка репозитория — те пачки к этому моменту уже сохранены,
+     * поэтому в памяти держатся идентификаторы только текущей пачки.
+     */
+    private void saveOperationBatch(List<Operation> operations) {
+        List<Operation> newOperations = new ArrayList<>();
+        Set<String> batchIds = new HashSet<>();
+        for (Operation operation : operations) {
+            if (!batchIds.add(operation.getId())) {
+                System.out.println("Операция с ID " + operation.getId() + " повторяется в файле");
+            } else if (operationFacade.getOperationById(operation.getId()).isPresent()) {
+                System.out.println("Операция с ID " + operation.getId() + " уже существует");
+            } else {
+                newOperations.add(operation);
+            }
+        }
+        operationFacade.addOperations(newOperations);
+        for (Operation operation : newOperations) {
+            System.out.println("Импортирована операция: " + operation.getType() +
+                    " на сумму " + operation.getAmount() + "₽");
+        }
+    }
 }
@@ -0,0 +1,267 @@
+package com.hsebank.finance.di;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Скомпилированный контейнер: граф зависимостей строится один раз при создании
+ * ({@link DIContainer#compile()}), дальше рефлексия не используется.
+ *
+ * <p>При компиляции для каждого бина выбирается конструктор (по тем же правилам, что и в {@link DIContainer}),
+ * превращается в MethodHandle, а бины раскладываются по уровням топологической сортировки:
+ * на уровне 0 — бины без зависимостей, на уровне k — бины, зависящие только от уровней ниже.
+ * Циклы и зависимости, которые нельзя создать, обнаруживаются сразу, а не при первом resolve.
+ *
+ * <p>{@link #start(int)} создаёт все бины заранее, уровень за уровнем; бины одного уровня независимы
+ * и создаются параллельно. После старта {@link #resolve(Class)} — чтение из неизменяемой таблицы,
+ * безопасное из любых потоков; первый resolve до старта сам запускает последовательный старт.
+ *
+ * <p>Подготовка MethodHandle дороже одного рефлексивного вызова, поэтому компиляция окупается, когда граф
+ * используется повторно: {@link #fresh()} даёт новый контейнер на том же графе без повторной компиляции.
+ */
+public class CompiledContainer {
+
+    private final Map<Class<?>, Integer> slots;
+    private final List<Bean> beans;
+    private final List<List<Bean>> levels;
+    private volatile Map<Class<?>, Object> instances;
+
+    CompiledContainer(Map<Class<?>, Class<?>> registrations, Map<Class<?>, Object> singletons) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        this.slots = new HashMap<>();
+        this.beans = new ArrayList<>();
+
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.addAll(registrations.keySet());
+        pending.addAll(singletons.keySet());
+        while (!pending.isEmpty()) {
+            Class<?> key = pending.poll();
+            if (slots.containsKey(key)) {
+                continue;
+            }
+            Bean bean = singletons.containsKey(key)
+                    ? new Bean(key, singletons.get(key))
+                    : compile(lookup, key, DIContainer.implementationOf(registrations, key));
+            slots.put(key, beans.size());
+            beans.add(bean);
+            Collections.addAll(pending, bean.dependencies);
+        }
+
+        this.levels = sortByLevel();
+    }
+
+    private CompiledContainer(CompiledContainer compiled) {
+        this.slots = compiled.slots;
+        this.beans = compiled.beans;
+        this.levels = compiled.levels;
+    }
+
+    /**
+     * Новый, ещё не запущенный контейнер на том же скомпилированном графе: свои экземпляры бинов,
+     * общие только синглтоны, зарегистрированные готовыми объектами.
+     */
+    public CompiledContainer fresh() {
+        return new CompiledContainer(this);
+    }
+
+    /**
+     * Количество бинов в графе, включая неявные зависимости.
+     */
+    public int size() {
+        return beans.size();
+    }
+
+    /**
+     * Количество уровней: длина самой длинной цепочки зависимостей.
+     */
+    public int depth() {
+        return levels.size();
+    }
+
+    /**
+     * Создаёт все бины последовательно.
+     */
+    public void start() {
+        start(1);
+    }
+
+    /**
+     * Создаёт все бины заранее; независимые бины одного уровня — в parallelism потоков.
+     * Повторный вызов ничего не делает.
+     */
+    public synchronized void start(int parallelism) {
+        if (instances != null) {
+            return;
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Степень параллелизма должна быть больше нуля");
+        }
+
+        Object[] created = new Object[beans.size()];
+        if (parallelism == 1) {
+            for (List<Bean> level : levels) {
+                for (Bean bean : level) {
+                    created[slots.get(bean.key)] = bean.create(created, slots);
+                }
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                for (List<Bean> level : levels) {
+                    List<ForkJoinTask<?>> tasks = new ArrayList<>(level.size());
+                    for (Bean bean : level) {
+                        tasks.add(pool.submit(() -> {
+                            created[slots.get(bean.key)] = bean.create(created, slots);
+                        }));
+                    }
+                    // join даёт happens-before: следующий уровень видит созданные бины
+                    for (ForkJoinTask<?> task : tasks) {
+                        task.join();
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        Map<Class<?>, Object> table = new HashMap<>();
+        for (Map.Entry<Class<?>, Integer> slot : slots.entrySet()) {
+            table.put(slot.getKey(), created[slot.getValue()]);
+        }
+        instances = Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * Экземпляр бина; до старта запускает последовательный старт.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T resolve(Class<T> clazz) {
+        Map<Class<?>, Object> table = instances;
+        if (table == null) {
+            start();
+            table = instances;
+        }
+        Object instance = table.get(clazz);
+        if (instance == null) {
+            throw new IllegalArgumentException("Бин не зарегистрирован: " + clazz.getName());
+        }
+        return (T) instance;
+    }
+
+    public boolean isStarted() {
+        return instances != null;
+    }
+
+    private static Bean compile(MethodHandles.Lookup lookup, Class<?> key, Class<?> implementation) {
+        if (implementation.isInterface() || Modifier.isAbstract(implementation.getModifiers())) {
+            throw new IllegalStateException("Нет реализации для " + key.getName());
+        }
+        try {
+            Constructor<?> constructor = DIContainer.findInjectConstructor(implementation);
+            if (constructor == null) {
+                constructor = implementation.getDeclaredConstructor();
+            }
+            constructor.setAccessible(true);
+            MethodHandle handle = lookup.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount());
+            return new Bean(key, handle, constructor.getParameterTypes());
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Не удалось подготовить конструктор: " + implementation.getName(), e);
+        }
+    }
+
+    /**
+     * Раскладывает бины по уровням (алгоритм Кана); оставшиеся бины образуют цикл.
+     */
+    private List<List<Bean>> sortByLevel() {
+        int[] remaining = new int[beans.size()];
+        Map<Integer, List<Integer>> dependents = new HashMap<>();
+        List<Bean> current = new ArrayList<>();
+        for (int i = 0; i < beans.size(); i++) {
+            Bean bean = beans.get(i);
+            remaining[i] = bean.dependencies.length;
+            for (Class<?> dependency : bean.dependencies) {
+                dependents.computeIfAbsent(slots.get(dependency), key -> new ArrayList<>()).add(i);
+            }
+            if (remaining[i] == 0) {
+                current.add(bean);
+            }
+        }
+
+        List<List<Bean>> result = new ArrayList<>();
+        int sorted = 0;
+        while (!current.isEmpty()) {
+            result.add(Collections.unmodifiableList(current));
+            sorted += current.size();
+            List<Bean> next = new ArrayList<>();
+            for (Bean bean : current) {
+                for (int dependent : dependents.getOrDefault(slots.get(bean.key), Collections.emptyList())) {
+                    if (--remaining[dependent] == 0) {
+                        next.add(beans.get(dependent));
+                    }
+                }
+            }
+            current = next;
+        }
+
+        if (sorted < beans.size()) {
+            List<String> unsorted = new ArrayList<>();
+            for (int i = 0; i < beans.size(); i++) {
+                if (remaining[i] > 0) {
+                    unsorted.add(beans.get(i).key.getSimpleName());
+                }
+            }
+            throw new IllegalStateException("Циклическая зависимость: не удаётся упорядочить бины " + unsorted);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static final class Bean {
+        final Class<?> key;
+        final MethodHandle constructor;
+        final Class<?>[] dependencies;
+        final Object prebuilt;
+
+        Bean(Class<?> key, MethodHandle constructor, Class<?>[] dependencies) {
+            this.key = key;
+            this.constructor = constructor;
+            this.dependencies = dependencies;
+            this.prebuilt = null;
+        }
+
+        Bean(Class<?> key, Object prebuilt) {
+            this.key = key;
+            this.constructor = null;
+            this.dependencies = new Class<?>[0];
+            this.prebuilt = prebuilt;
+        }
+
+        Object create(Object[] created, Map<Class<?>, Integer> slots) {
+            if (constructor == null) {
+                return prebuilt;
+            }
+            Object[] arguments = new Object[dependencies.length];
+            for (int i = 0; i < dependencies.length; i++) {
+                arguments[i] = created[slots.get(dependencies[i])];
+            }
+            try {
+                return constructor.invoke(arguments);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Не удалось создать экземпляр: " + key.getName(), e);
+            }
+        }
+    }
+}
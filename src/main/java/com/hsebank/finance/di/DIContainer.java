@@ -1,56 +1,277 @@
 package com.hsebank.finance.di;
 
+import com.hsebank.finance.di.annotations.ImplementedBy;
 import com.hsebank.finance.di.annotations.Inject;
+import com.hsebank.finance.di.annotations.Lazy;
+import com.hsebank.finance.di.annotations.Scoped;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
 
 /**
  * Простой DI-контейнер (Dependency Injection Container)
  * Управляет созданием объектов и автоматическим внедрением зависимостей
  * Аналог: Spring IoC Container (упрощённая версия)
+ *
+ * <p>Потокобезопасен: каждый синглтон создаётся ровно один раз — потоки, запросившие бин во время
+ * его создания, ждут именно его, а не общую блокировку, поэтому независимые бины создаются параллельно.
+ * Перед созданием граф зависимостей проверяется на циклы; цикл можно разорвать через {@link Lazy}.
+ *
+ * <p>Кроме синглтонов поддерживаются другие области видимости ({@link Scoped} или явно при регистрации):
+ * {@link #PROTOTYPE} — новый экземпляр на каждый resolve, {@link #THREAD} — свой экземпляр на поток,
+ * а также пользовательские {@link Scope}. Объекты с состоянием для горячего пути лучше брать
+ * из {@link #pool(Class, int)}, а не создавать заново.
  */
 public class DIContainer {
+    public static final String SINGLETON = "singleton";
+    public static final String PROTOTYPE = "prototype";
+    public static final String THREAD = "thread";
+    /**
+     * Индекс компонентов, который генерирует {@code ComponentIndexProcessor} при компиляции
+     */
+    public static final String COMPONENT_INDEX = "META-INF/hsebank/components.idx";
 
-    private final Map<Class<?>, Object> singletons = new HashMap<>();
-    private final Map<Class<?>, Class<?>> registrations = new HashMap<>();
+    private final Map<Class<?>, Object> singletons = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Class<?>> registrations = new ConcurrentHashMap<>();
+    private final Map<Class<?>, FutureTask<Object>> creations = new ConcurrentHashMap<>();
+    private final Set<Class<?>> acyclic = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Set<Class<?>>> creating = ThreadLocal.withInitial(HashSet::new);
+    private final Map<Class<?>, String> lifetimes = new ConcurrentHashMap<>();
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Injection> injections = new ConcurrentHashMap<>();
+    private final ThreadScope threadScope = new ThreadScope();
+
+    public DIContainer() {
+        scopes.put(THREAD, threadScope);
+    }
 
     /**
      * Регистрация связи интерфейс → реализация
      */
     public <T> void register(Class<T> interfaceClass, Class<? extends T> implementationClass) {
         registrations.put(interfaceClass, implementationClass);
+        lifetimes.remove(interfaceClass);
+        acyclic.clear();
         System.out.println("📦 Зарегистрирован: " + interfaceClass.getSimpleName() +
                 " → " + implementationClass.getSimpleName());
     }
 
+    /**
+     * Регистрация связи интерфейс → реализация с областью видимости (имя встроенной или зарегистрированной)
+     */
+    public <T> void register(Class<T> interfaceClass, Class<? extends T> implementationClass, String scope) {
+        requireKnownScope(scope);
+        register(interfaceClass, implementationClass);
+        lifetimes.put(interfaceClass, scope);
+    }
+
     /**
      * Регистрация конкретного класса
      */
     public <T> void register(Class<T> concreteClass) {
         registrations.put(concreteClass, concreteClass);
+        lifetimes.remove(concreteClass);
+        acyclic.clear();
         System.out.println("📦 Зарегистрирован: " + concreteClass.getSimpleName());
     }
 
+    /**
+     * Регистрация конкретного класса с областью видимости
+     */
+    public <T> void register(Class<T> concreteClass, String scope) {
+        register(concreteClass, concreteClass, scope);
+    }
+
+    /**
+     * Регистрирует компоненты из индексов {@link #COMPONENT_INDEX} всех модулей на classpath.
+     * Индекс строится при компиляции, поэтому старт не сканирует классы и JAR-файлы.
+     *
+     * @return количество зарегистрированных связей
+     */
+    public int registerIndexedComponents() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return registerIndexedComponents(loader != null ? loader : DIContainer.class.getClassLoader());
+    }
+
+    /**
+     * Регистрирует компоненты из индексов, видимых через загрузчик классов
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public int registerIndexedComponents(ClassLoader loader) {
+        int registered = 0;
+        try {
+            Enumeration<URL> indexes = loader.getResources(COMPONENT_INDEX);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (line.isEmpty() || line.startsWith("#")) {
+                            continue;
+                        }
+                        int separator = line.indexOf('=');
+                        // Классы не инициализируются: статические блоки выполнятся только при создании бина
+                        Class implementation = Class.forName(line.substring(separator + 1), false, loader);
+                        if (separator < 0) {
+                            register(implementation);
+                        } else {
+                            register(Class.forName(line.substring(0, separator), false, loader), implementation);
+                        }
+                        registered++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Индекс компонентов ссылается на отсутствующий класс: " + e.getMessage(), e);
+        }
+        return registered;
+    }
+
+    /**
+     * Регистрация пользовательской области видимости под именем
+     */
+    public void registerScope(String name, Scope scope) {
+        if (name == null || SINGLETON.equals(name) || PROTOTYPE.equals(name) || THREAD.equals(name)) {
+            throw new IllegalArgumentException("Недопустимое имя области видимости: " + name);
+        }
+        if (scope == null) {
+            throw new IllegalArgumentException("Область видимости не задана");
+        }
+        scopes.put(name, scope);
+    }
+
+    /**
+     * Завершает область {@link #THREAD} текущего потока (например, по окончании обработки запроса)
+     */
+    public void clearThreadScope() {
+        threadScope.clear();
+    }
+
+    /**
+     * Пул экземпляров класса для повторного использования: каждый объект пула создаётся
+     * со всеми зависимостями, как прототип, независимо от области видимости класса.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Resettable> InstancePool<T> pool(Class<T> clazz, int capacity) {
+        checkAcyclic(clazz);
+        return new InstancePool<>(() -> (T) instantiate(clazz), capacity);
+    }
+
     /**
      * Получение экземпляра с автоматическим созданием и внедрением зависимостей
      */
     @SuppressWarnings("unchecked")
     public <T> T resolve(Class<T> clazz) {
-        if (singletons.containsKey(clazz)) {
-            return (T) singletons.get(clazz);
+        Object existing = singletons.get(clazz);
+        if (existing != null) {
+            return (T) existing;
+        }
+        checkAcyclic(clazz);
+
+        String scope = lifetimeOf(clazz);
+        if (PROTOTYPE.equals(scope)) {
+            return (T) instantiate(clazz);
+        }
+        if (!SINGLETON.equals(scope)) {
+            return (T) scopes.get(scope).get(clazz, () -> instantiate(clazz));
+        }
+
+        // Создание — одна задача на бин: остальные потоки ждут её результат
+        FutureTask<Object> creation = new FutureTask<>(() -> createSingleton(clazz));
+        FutureTask<Object> running = creations.putIfAbsent(clazz, creation);
+        if (running == null) {
+            running = creation;
+            creation.run();
+        } else if (!running.isDone() && creating.get().contains(clazz)) {
+            // Бин уже создаётся этим же потоком: @Lazy-зависимость вызвана из конструктора
+            throw new IllegalStateException("Циклическая зависимость: " + clazz.getSimpleName()
+                    + " запрошен во время собственного создания");
         }
 
-        Class<?> implementationClass = registrations.getOrDefault(clazz, clazz);
+        try {
+            return (T) running.get();
+        } catch (ExecutionException e) {
+            // Неудачное создание не кэшируем: следующий resolve попробует снова
+            creations.remove(clazz, running);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Не удалось создать экземпляр: " + clazz.getName(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ожидание создания прервано: " + clazz.getName(), e);
+        }
+    }
+
+    private Object createSingleton(Class<?> clazz) {
+        Class<?> implementationClass = implementationOf(registrations, clazz);
 
+        Set<Class<?>> inProgress = creating.get();
+        inProgress.add(clazz);
         try {
-            T instance = (T) createInstance(implementationClass);
+            Object instance = clazz.isInterface() && implementationClass.isAnnotationPresent(Lazy.class)
+                    ? lazyProxy(clazz, () -> createInstance(implementationClass))
+                    : createInstance(implementationClass);
             singletons.put(clazz, instance);
             System.out.println("✅ Создан бин: " + clazz.getSimpleName());
             return instance;
         } catch (Exception e) {
             throw new RuntimeException("Не удалось создать экземпляр: " + clazz.getName(), e);
+        } finally {
+            inProgress.remove(clazz);
+        }
+    }
+
+    /**
+     * Новый экземпляр бина вне кэша синглтонов (прототипы, пользовательские области, пулы)
+     */
+    private Object instantiate(Class<?> clazz) {
+        try {
+            return createInstance(implementationOf(registrations, clazz));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Не удалось создать экземпляр: " + clazz.getName(), e);
+        }
+    }
+
+    private String lifetimeOf(Class<?> clazz) {
+        return lifetimes.computeIfAbsent(clazz, key -> {
+            Scoped scoped = implementationOf(registrations, key).getAnnotation(Scoped.class);
+            String scope = scoped == null ? SINGLETON : scoped.value();
+            requireKnownScope(scope);
+            return scope;
+        });
+    }
+
+    private void requireKnownScope(String scope) {
+        if (!SINGLETON.equals(scope) && !PROTOTYPE.equals(scope) && !scopes.containsKey(scope)) {
+            throw new IllegalArgumentException("Неизвестная область видимости: " + scope);
         }
     }
 
@@ -58,28 +279,103 @@ public class DIContainer {
      * Создание экземпляра с рекурсивным внедрением зависимостей
      */
     private Object createInstance(Class<?> clazz) throws Exception {
-        Constructor<?> injectConstructor = findInjectConstructor(clazz);
+        // Разбор конструктора кэшируется: прототипы и пулы создают экземпляры многократно
+        Injection injection = injections.get(clazz);
+        if (injection == null) {
+            injection = new Injection(clazz);
+            injections.put(clazz, injection);
+        }
+
+        Class<?>[] parameterTypes = injection.parameterTypes;
+        Object[] parameters = new Object[parameterTypes.length];
+
+        // Рекурсивно создаём зависимости; @Lazy-параметр получает прокси
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            parameters[i] = injection.lazy[i]
+                    ? lazyProxy(parameterType, () -> resolve(parameterType))
+                    : resolve(parameterType);
+        }
+
+        return injection.constructor.newInstance(parameters);
+    }
+
+    /**
+     * Проверяет граф зависимостей бина на циклы до создания — иначе цикл дал бы переполнение стека
+     * (или взаимное ожидание потоков). Рёбра через {@link Lazy} циклом не считаются.
+     */
+    private void checkAcyclic(Class<?> clazz) {
+        if (!acyclic.contains(clazz)) {
+            visit(clazz, new ArrayList<>());
+        }
+    }
 
-        if (injectConstructor != null) {
-            Class<?>[] parameterTypes = injectConstructor.getParameterTypes();
-            Object[] parameters = new Object[parameterTypes.length];
+    private void visit(Class<?> clazz, List<Class<?>> path) {
+        if (acyclic.contains(clazz) || singletons.containsKey(clazz)) {
+            return;
+        }
+        int start = path.indexOf(clazz);
+        if (start >= 0) {
+            StringBuilder cycle = new StringBuilder();
+            for (Class<?> step : path.subList(start, path.size())) {
+                cycle.append(step.getSimpleName()).append(" → ");
+            }
+            throw new IllegalStateException("Циклическая зависимость: " + cycle + clazz.getSimpleName());
+        }
 
-            // Рекурсивно создаём зависимости
+        path.add(clazz);
+        Class<?> implementationClass = implementationOf(registrations, clazz);
+        Constructor<?> constructor = findInjectConstructor(implementationClass);
+        boolean deferred = clazz.isInterface() && implementationClass.isAnnotationPresent(Lazy.class);
+        if (constructor != null && !deferred) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
             for (int i = 0; i < parameterTypes.length; i++) {
-                parameters[i] = resolve(parameterTypes[i]);
+                if (!isLazy(constructor, i)) {
+                    visit(parameterTypes[i], path);
+                }
             }
+        }
+        path.remove(path.size() - 1);
+        acyclic.add(clazz);
+    }
 
-            return injectConstructor.newInstance(parameters);
+    private static boolean isLazy(Constructor<?> constructor, int parameter) {
+        return constructor.getParameters()[parameter].isAnnotationPresent(Lazy.class);
+    }
+
+    /**
+     * Прокси интерфейса, создающий настоящий объект при первом вызове метода.
+     */
+    private static Object lazyProxy(Class<?> type, Callable<Object> factory) {
+        if (!type.isInterface()) {
+            throw new IllegalStateException("@Lazy поддерживается только для интерфейсов: " + type.getName());
         }
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new LazyHandler(factory));
+    }
 
-        Constructor<?> defaultConstructor = clazz.getDeclaredConstructor();
-        return defaultConstructor.newInstance();
+    /**
+     * Реализация бина: явная регистрация, затем {@link ImplementedBy} на интерфейсе, иначе сам класс
+     */
+    static Class<?> implementationOf(Map<Class<?>, Class<?>> registrations, Class<?> clazz) {
+        Class<?> registered = registrations.get(clazz);
+        if (registered != null) {
+            return registered;
+        }
+        ImplementedBy implementedBy = clazz.getAnnotation(ImplementedBy.class);
+        if (implementedBy == null) {
+            return clazz;
+        }
+        if (!clazz.isAssignableFrom(implementedBy.value())) {
+            throw new IllegalStateException("@ImplementedBy у " + clazz.getName() + " указывает на "
+                    + implementedBy.value().getName() + ", который его не реализует");
+        }
+        return implementedBy.value();
     }
 
     /**
      * Поиск конструктора с аннотацией @Inject
      */
-    private Constructor<?> findInjectConstructor(Class<?> clazz) {
+    static Constructor<?> findInjectConstructor(Class<?> clazz) {
         for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
             if (constructor.isAnnotationPresent(Inject.class)) {
                 return constructor;
@@ -103,6 +399,21 @@ public class DIContainer {
         System.out.println("✅ Зарегистрирован синглтон: " + clazz.getSimpleName());
     }
 
+    /**
+     * Строит скомпилированный контейнер по текущим регистрациям: граф зависимостей и конструкторы
+     * готовятся один раз, без рефлексии при разрешении. Последующие регистрации на него не влияют.
+     * Бины с областью видимости, отличной от синглтона, не поддерживаются.
+     */
+    public CompiledContainer compile() {
+        for (Class<?> key : registrations.keySet()) {
+            if (!SINGLETON.equals(lifetimeOf(key))) {
+                throw new IllegalStateException("Скомпилированный контейнер поддерживает только синглтоны: "
+                        + key.getSimpleName() + " (" + lifetimeOf(key) + ")");
+            }
+        }
+        return new CompiledContainer(new HashMap<>(registrations), new HashMap<>(singletons));
+    }
+
     public boolean isRegistered(Class<?> clazz) {
         return registrations.containsKey(clazz) || singletons.containsKey(clazz);
     }
@@ -110,6 +421,10 @@ public class DIContainer {
     public void clear() {
         singletons.clear();
         registrations.clear();
+        creations.clear();
+        acyclic.clear();
+        lifetimes.clear();
+        injections.clear();
     }
 
     public void printBeans() {
@@ -119,4 +434,66 @@ public class DIContainer {
         );
         System.out.println("Всего: " + registrations.size() + " бинов\n");
     }
-}
\ No newline at end of file
+
+    /**
+     * Конструктор, через который создаётся класс, и его параметры.
+     */
+    private static final class Injection {
+        final Constructor<?> constructor;
+        final Class<?>[] parameterTypes;
+        final boolean[] lazy;
+
+        Injection(Class<?> clazz) throws NoSuchMethodException {
+            Constructor<?> injectConstructor = findInjectConstructor(clazz);
+            this.constructor = injectConstructor != null ? injectConstructor : clazz.getDeclaredConstructor();
+            this.parameterTypes = constructor.getParameterTypes();
+            this.lazy = new boolean[parameterTypes.length];
+            for (int i = 0; i < lazy.length; i++) {
+                lazy[i] = isLazy(constructor, i);
+            }
+        }
+    }
+
+    private static final class LazyHandler implements InvocationHandler {
+        private final Callable<Object> factory;
+        private volatile Object target;
+
+        LazyHandler(Callable<Object> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Сравнение и хеш прокси — по самому прокси, без создания объекта
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+            }
+            try {
+                return method.invoke(target(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object target() throws Exception {
+            Object current = target;
+            if (current == null) {
+                synchronized (this) {
+                    current = target;
+                    if (current == null) {
+                        current = factory.call();
+                        target = current;
+                    }
+                }
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.hsebank.finance.di;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Пул повторно используемых объектов с состоянием (экспортеры, парсеры): вместо создания нового объекта
+ * на каждый вызов берётся свободный, а после работы он сбрасывается через {@link Resettable#reset()}
+ * и возвращается в пул вместе с уже выделенными буферами.
+ *
+ * <p>Пул ограничен: если свободных нет, создаётся новый объект; если пул полон, возвращаемый объект
+ * просто отбрасывается. Объект нельзя использовать после возврата.
+ */
+public class InstancePool<T extends Resettable> {
+    private final Supplier<T> factory;
+    private final ArrayBlockingQueue<T> idle;
+
+    public InstancePool(Supplier<T> factory, int capacity) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Фабрика не задана");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Размер пула должен быть больше нуля");
+        }
+        this.factory = factory;
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Свободный объект из пула или новый, если свободных нет.
+     */
+    public T acquire() {
+        T instance = idle.poll();
+        return instance != null ? instance : factory.get();
+    }
+
+    /**
+     * Сбрасывает объект и возвращает его в пул.
+     */
+    public void release(T instance) {
+        if (instance == null) {
+            return;
+        }
+        // Объект, который не удалось сбросить, в пул не возвращаем
+        instance.reset();
+        idle.offer(instance);
+    }
+
+    /**
+     * Объект из пула для try-with-resources: при закрытии возвращается в пул.
+     */
+    public Lease<T> lease() {
+        return new Lease<>(this, acquire());
+    }
+
+    /**
+     * Количество свободных объектов.
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    public static final class Lease<T extends Resettable> implements AutoCloseable {
+        private final InstancePool<T> pool;
+        private T instance;
+
+        private Lease(InstancePool<T> pool, T instance) {
+            this.pool = pool;
+            this.instance = instance;
+        }
+
+        public T get() {
+            if (instance == null) {
+                throw new IllegalStateException("Объект уже возвращён в пул");
+            }
+            return instance;
+        }
+
+        @Override
+        public void close() {
+            T released = instance;
+            instance = null;
+            pool.release(released);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.hsebank.finance.di;
+
+/**
+ * Компонент с изменяемым состоянием, который можно вернуть в начальное состояние и использовать повторно
+ * (см. {@link InstancePool}).
+ */
+public interface Resettable {
+
+    /**
+     * Возвращает объект в состояние сразу после создания.
+     */
+    void reset();
+}
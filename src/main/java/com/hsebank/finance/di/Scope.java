@@ -0,0 +1,16 @@
+package com.hsebank.finance.di;
+
+import java.util.function.Supplier;
+
+/**
+ * Пользовательская область видимости бинов: решает, когда отдать уже созданный экземпляр,
+ * а когда создать новый. Регистрируется в контейнере под именем через
+ * {@link DIContainer#registerScope(String, Scope)}.
+ */
+public interface Scope {
+
+    /**
+     * Экземпляр бина в текущей области; factory создаёт новый экземпляр со всеми зависимостями.
+     */
+    Object get(Class<?> key, Supplier<Object> factory);
+}
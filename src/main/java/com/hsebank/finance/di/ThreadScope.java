@@ -0,0 +1,32 @@
+package com.hsebank.finance.di;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Область видимости «поток»: свой экземпляр бина на каждый поток, например на обработку одного запроса.
+ * {@link #clear()} завершает область текущего потока — следующий запрос получит новые экземпляры.
+ */
+public class ThreadScope implements Scope {
+    private final ThreadLocal<Map<Class<?>, Object>> instances = ThreadLocal.withInitial(HashMap::new);
+
+    @Override
+    public Object get(Class<?> key, Supplier<Object> factory) {
+        Map<Class<?>, Object> current = instances.get();
+        Object instance = current.get(key);
+        if (instance == null) {
+            // Не computeIfAbsent: factory может сама запросить бины этой же области
+            instance = factory.get();
+            current.put(key, instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Забывает экземпляры текущего потока.
+     */
+    public void clear() {
+        instances.remove();
+    }
+}
@@ -0,0 +1,16 @@
+package com.hsebank.finance.di.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Реализация интерфейса по умолчанию: контейнер берёт её, если интерфейс не зарегистрирован явно.
+ * Явная регистрация (в том числе из индекса компонентов) важнее аннотации.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ImplementedBy {
+    Class<?> value();
+}
@@ -0,0 +1,17 @@
+package com.hsebank.finance.di.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Откладывает создание бина до первого вызова его метода.
+ * На классе — бин, запрошенный через интерфейс, создаётся при первом обращении;
+ * на параметре конструктора — внедряется прокси, который разрешает зависимость при первом обращении
+ * (так можно разорвать циклическую зависимость). Работает только для интерфейсов.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.PARAMETER})
+public @interface Lazy {
+}
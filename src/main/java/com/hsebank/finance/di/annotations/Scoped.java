@@ -0,0 +1,17 @@
+package com.hsebank.finance.di.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Область видимости бина по умолчанию: {@code "singleton"}, {@code "prototype"} (новый экземпляр
+ * при каждом запросе), {@code "thread"} или имя области, зарегистрированной в контейнере.
+ * Явная область при регистрации важнее аннотации.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Scoped {
+    String value();
+}
@@ -0,0 +1,233 @@
+package com.hsebank.finance.di.processor;
+
+import com.hsebank.finance.di.DIContainer;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Процессор аннотаций, который при компиляции собирает классы с {@code @Component} в индекс
+ * {@link DIContainer#COMPONENT_INDEX}. Контейнер читает готовый индекс
+ * ({@link DIContainer#registerIndexedComponents()}) вместо сканирования classpath при старте.
+ *
+ * <p>Формат индекса — по строке на компонент: имя класса, а для каждого интерфейса, который реализует
+ * ровно один компонент, — строка {@code интерфейс=реализация}. Ошибки, которые рефлексивный контейнер
+ * нашёл бы только при resolve (абстрактный класс, непубличный конструктор, несколько {@code @Inject},
+ * {@code @ImplementedBy} с классом, который не реализует интерфейс), сообщаются как ошибки компиляции.
+ *
+ * <p>При инкрементальной сборке компилируются не все файлы, поэтому компоненты из прежнего индекса,
+ * которые по-прежнему помечены {@code @Component}, сохраняются.
+ */
+public class ComponentIndexProcessor extends AbstractProcessor {
+    static final String COMPONENT = "com.hsebank.finance.di.annotations.Component";
+    private static final String INJECT = "com.hsebank.finance.di.annotations.Inject";
+    private static final String IMPLEMENTED_BY = "com.hsebank.finance.di.annotations.ImplementedBy";
+
+    private final Set<TypeElement> components = new TreeSet<>((a, b) ->
+            a.getQualifiedName().toString().compareTo(b.getQualifiedName().toString()));
+    private boolean previousLoaded;
+
+    /**
+     * Все аннотации, которые читает процессор; он их и заявляет. Список задан методом, а не
+     * {@code @SupportedAnnotationTypes}: исходник процессора обрабатывается тем же проходом сборки,
+     * и эта аннотация на нём осталась бы никем не заявленной.
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(COMPONENT, INJECT, IMPLEMENTED_BY);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (!previousLoaded) {
+            previousLoaded = true;
+            loadPreviousIndex();
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return true;
+        }
+
+        TypeElement component = processingEnv.getElementUtils().getTypeElement(COMPONENT);
+        if (component != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(component)) {
+                if (element.getKind() == ElementKind.CLASS && isInstantiable((TypeElement) element)) {
+                    components.add((TypeElement) element);
+                }
+            }
+        }
+        TypeElement implementedBy = processingEnv.getElementUtils().getTypeElement(IMPLEMENTED_BY);
+        if (implementedBy != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(implementedBy)) {
+                checkDefaultImplementation(element);
+            }
+        }
+        // @Inject читается при проверке конструкторов компонентов
+        return true;
+    }
+
+    /**
+     * Реализация по умолчанию должна реализовывать интерфейс, иначе контейнер упадёт при resolve.
+     */
+    private void checkDefaultImplementation(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(IMPLEMENTED_BY)) {
+                continue;
+            }
+            for (AnnotationValue value : mirror.getElementValues().values()) {
+                TypeMirror implementation = processingEnv.getTypeUtils().erasure((TypeMirror) value.getValue());
+                TypeMirror contract = processingEnv.getTypeUtils().erasure(element.asType());
+                if (!processingEnv.getTypeUtils().isAssignable(implementation, contract)) {
+                    error(element, "@ImplementedBy указывает на " + implementation + ", который не реализует "
+                            + contract);
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что контейнер сможет создать класс, повторяя его правила выбора конструктора.
+     */
+    private boolean isInstantiable(TypeElement type) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT)) {
+            return error(type, "@Component не может быть абстрактным классом");
+        }
+        if (!modifiers.contains(Modifier.PUBLIC)
+                || type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+            return error(type, "@Component должен быть публичным классом верхнего уровня или статическим вложенным");
+        }
+
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        List<ExecutableElement> injected = new ArrayList<>();
+        for (ExecutableElement constructor : constructors) {
+            if (hasAnnotation(constructor, INJECT)) {
+                injected.add(constructor);
+            }
+        }
+        ExecutableElement chosen;
+        if (injected.size() > 1) {
+            return error(type, "У @Component несколько конструкторов с @Inject");
+        } else if (injected.size() == 1) {
+            chosen = injected.get(0);
+        } else if (constructors.size() == 1) {
+            chosen = constructors.get(0);
+        } else {
+            chosen = null;
+            for (ExecutableElement constructor : constructors) {
+                if (constructor.getParameters().isEmpty()) {
+                    chosen = constructor;
+                }
+            }
+            if (chosen == null) {
+                return error(type, "У @Component несколько конструкторов: пометьте нужный @Inject");
+            }
+        }
+        if (!chosen.getModifiers().contains(Modifier.PUBLIC)) {
+            return error(chosen, "Конструктор @Component должен быть публичным");
+        }
+        return true;
+    }
+
+    private void loadPreviousIndex() {
+        try {
+            FileObject previous = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", DIContainer.COMPONENT_INDEX);
+            try (Reader reader = previous.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#") || line.contains("=")) {
+                        continue;
+                    }
+                    TypeElement type = processingEnv.getElementUtils().getTypeElement(line.replace('$', '.'));
+                    if (type != null && hasAnnotation(type, COMPONENT)) {
+                        components.add(type);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Прежнего индекса нет — чистая сборка
+        }
+    }
+
+    private void writeIndex() {
+        if (components.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> implementations = new TreeMap<>();
+        for (TypeElement type : components) {
+            for (TypeMirror implemented : type.getInterfaces()) {
+                TypeElement contract = (TypeElement) ((DeclaredType) implemented).asElement();
+                implementations.computeIfAbsent(binaryName(contract), key -> new ArrayList<>()).add(binaryName(type));
+            }
+        }
+
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    DIContainer.COMPONENT_INDEX, components.toArray(new Element[0]));
+            try (Writer writer = index.openWriter()) {
+                writer.write("# Сгенерировано " + getClass().getSimpleName() + "\n");
+                for (TypeElement type : components) {
+                    writer.write(binaryName(type) + "\n");
+                }
+                for (Map.Entry<String, List<String>> binding : implementations.entrySet()) {
+                    if (binding.getValue().size() == 1) {
+                        writer.write(binding.getKey() + "=" + binding.getValue().get(0) + "\n");
+                    } else {
+                        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Интерфейс "
+                                + binding.getKey() + " реализуют несколько компонентов " + binding.getValue()
+                                + " — связь не индексируется, зарегистрируйте её явно");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Не удалось записать индекс компонентов: " + e.getMessage());
+        }
+    }
+
+    private String binaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private static boolean hasAnnotation(Element element, String annotation) {
+        return element.getAnnotationMirrors().stream().anyMatch(mirror ->
+                ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation));
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+}
@@ -1,22 +1,26 @@
 package com.hsebank.finance.domain.model;
 
 import com.hsebank.finance.exporter.DataExportVisitor;
+import com.hsebank.finance.exporter.Exportable;
 
 import java.math.BigDecimal;
 
 /**
  * Доменная модель банковского счёта
  */
-public class BankAccount {
+public class BankAccount implements Exportable {
     private String id;
     private String name;
-    private BigDecimal balance;
+    // Баланс хранится с фиксированной точкой: изменение на сумму операции не выделяет памяти
+    private final MoneyAccumulator balance = new MoneyAccumulator();
+    private boolean hasBalance;
+    private BigDecimal openingBalance;
 
     public BankAccount () {}
     public BankAccount (String id, String name, BigDecimal balance) {
         this.id = id;
         this.name = name;
-        this.balance = balance;
+        assignBalance(balance);
     }
 
     public void setId(String id) {
@@ -35,12 +39,61 @@ public class BankAccount {
         return this.name;
     }
 
-    public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+    /**
+     * Устанавливает баланс. Первая установка фиксирует и входящий остаток.
+     */
+    public synchronized void setBalance(BigDecimal balance) {
+        assignBalance(balance);
+    }
+
+    public synchronized BigDecimal getBalance() {
+        return hasBalance ? this.balance.toBigDecimal() : null;
+    }
+
+    /**
+     * Увеличивает баланс на сумму без выделения памяти. Счёт без баланса считается пустым.
+     */
+    public synchronized void deposit(Money amount) {
+        startFromZeroIfAbsent();
+        this.balance.add(amount);
+    }
+
+    /**
+     * Уменьшает баланс на сумму без выделения памяти. Счёт без баланса считается пустым.
+     */
+    public synchronized void withdraw(Money amount) {
+        startFromZeroIfAbsent();
+        this.balance.subtract(amount);
     }
 
-    public BigDecimal getBalance() {
-        return this.balance;
+    public void setOpeningBalance(BigDecimal openingBalance) {
+        this.openingBalance = openingBalance;
+    }
+
+    /**
+     * Входящий остаток — баланс до учёта операций. Текущий баланс должен быть равен
+     * входящему остатку плюс доходы минус расходы по счёту.
+     */
+    public BigDecimal getOpeningBalance() {
+        return this.openingBalance;
+    }
+
+    private void startFromZeroIfAbsent() {
+        if (!hasBalance) {
+            assignBalance(BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * Общая часть конструктора и {@link #setBalance}: не переопределяется, поэтому конструктор
+     * не отдаёт недостроенный объект в код наследника.
+     */
+    private void assignBalance(BigDecimal balance) {
+        if (this.openingBalance == null) {
+            this.openingBalance = balance;
+        }
+        this.balance.set(balance);
+        this.hasBalance = balance != null;
     }
 
     @Override
@@ -55,6 +108,7 @@ public class BankAccount {
     /**
      * Принимает visitor для экспорта данных (паттерн Visitor)
      */
+    @Override
     public void accept(DataExportVisitor visitor) {
         visitor.visit(this);
     }
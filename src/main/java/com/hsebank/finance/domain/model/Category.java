@@ -1,11 +1,12 @@
 package com.hsebank.finance.domain.model;
 
 import com.hsebank.finance.exporter.DataExportVisitor;
+import com.hsebank.finance.exporter.Exportable;
 
 /**
  * Доменная модель категории доходов/расходов
  */
-public class Category {
+public class Category implements Exportable {
     private String id;
     private OperationType type;
     private String name;
@@ -53,6 +54,7 @@ public class Category {
     /**
      * Принимает visitor для экспорта данных (паттерн Visitor)
      */
+    @Override
     public void accept(DataExportVisitor visitor) {
         visitor.visit(this);
     }
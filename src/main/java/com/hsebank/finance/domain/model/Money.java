@@ -0,0 +1,125 @@
+package com.hsebank.finance.domain.model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Денежная сумма с фиксированной точкой: целое число минимальных единиц и число знаков после запятой,
+ * то есть units × 10^-scale. Складывается так же, как BigDecimal (масштаб результата — наибольший
+ * из масштабов), но хранится в примитивных полях, без BigInteger.
+ *
+ * <p>Сумма переводится из BigDecimal один раз на границе (ввод, импорт) и дальше участвует
+ * в расчётах через {@link MoneyAccumulator} без выделения памяти. Преобразование в обе стороны точное:
+ * {@code Money.of(x).toBigDecimal().equals(x)}. Суммы, которые так не представить (больше 18 знаков
+ * после запятой, отрицательный масштаб, больше 63 бит), остаются в BigDecimal — см. {@link #tryOf(BigDecimal)}.
+ */
+public final class Money implements Comparable<Money> {
+    public static final int MAX_SCALE = 18;
+    public static final Money ZERO = new Money(0, 0);
+
+    static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final long units;
+    private final int scale;
+
+    private Money(long units, int scale) {
+        this.units = units;
+        this.scale = scale;
+    }
+
+    /**
+     * Точное преобразование из BigDecimal.
+     *
+     * @throws IllegalArgumentException если сумма не задана или не представима
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Сумма не задана");
+        }
+        Money money = tryOf(amount);
+        if (money == null) {
+            throw new IllegalArgumentException("Сумма " + amount + " не представима с фиксированной точкой");
+        }
+        return money;
+    }
+
+    /**
+     * Точное преобразование из BigDecimal или null, если сумма не задана или не представима.
+     */
+    public static Money tryOf(BigDecimal amount) {
+        if (amount == null || amount.scale() < 0 || amount.scale() > MAX_SCALE) {
+            return null;
+        }
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            return null;
+        }
+        return new Money(unscaled.longValue(), amount.scale());
+    }
+
+    public static Money ofUnits(long units, int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Масштаб должен быть от 0 до " + MAX_SCALE + ": " + scale);
+        }
+        return new Money(units, scale);
+    }
+
+    /**
+     * Количество минимальных единиц (например, копеек при масштабе 2).
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        if (scale == other.scale) {
+            return Long.compare(units, other.units);
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    /**
+     * Равенство с учётом масштаба, как у BigDecimal: 1.0 и 1.00 не равны, для сравнения величин есть compareTo.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money other = (Money) o;
+        return units == other.units && scale == other.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(units) + scale;
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+}
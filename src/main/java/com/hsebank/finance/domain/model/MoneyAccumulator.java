@@ -0,0 +1,115 @@
+package com.hsebank.finance.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Изменяемая денежная сумма для нарастающих итогов и балансов: прибавление {@link Money}
+ * меняет два примитивных поля и не выделяет памяти.
+ *
+ * <p>Результат совпадает с последовательным сложением BigDecimal, включая масштаб.
+ * Если сумма перестаёт помещаться в long (или прибавляется непредставимая сумма),
+ * аккумулятор один раз переходит на BigDecimal и дальше считает через него — точность не теряется.
+ *
+ * <p>Не потокобезопасен: синхронизацию обеспечивает владелец.
+ */
+public final class MoneyAccumulator {
+    private long units;
+    private int scale;
+    private BigDecimal overflow;
+
+    public MoneyAccumulator() {
+    }
+
+    public MoneyAccumulator(BigDecimal initial) {
+        set(initial);
+    }
+
+    /**
+     * Заменяет значение; null — ноль.
+     */
+    public void set(BigDecimal value) {
+        units = 0;
+        scale = 0;
+        overflow = null;
+        if (value == null) {
+            return;
+        }
+        Money money = Money.tryOf(value);
+        if (money == null) {
+            overflow = value;
+        } else {
+            units = money.getUnits();
+            scale = money.getScale();
+        }
+    }
+
+    public void add(Money money) {
+        add(money.getUnits(), money.getScale());
+    }
+
+    public void subtract(Money money) {
+        if (money.getUnits() == Long.MIN_VALUE) {
+            addSlow(money.toBigDecimal().negate());
+        } else {
+            add(-money.getUnits(), money.getScale());
+        }
+    }
+
+    /**
+     * Прибавляет сумму, заданную как BigDecimal (выделяет память на преобразование).
+     */
+    public void add(BigDecimal amount) {
+        Money money = Money.tryOf(amount);
+        if (money == null) {
+            addSlow(amount);
+        } else {
+            add(money);
+        }
+    }
+
+    public void add(MoneyAccumulator other) {
+        if (other.overflow != null) {
+            addSlow(other.overflow);
+        } else {
+            add(other.units, other.scale);
+        }
+    }
+
+    public int signum() {
+        return overflow != null ? overflow.signum() : Long.signum(units);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return overflow != null ? overflow : BigDecimal.valueOf(units, scale);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toString();
+    }
+
+    private void add(long otherUnits, int otherScale) {
+        if (overflow == null) {
+            try {
+                if (otherScale == scale) {
+                    units = Math.addExact(units, otherUnits);
+                } else if (otherScale > scale) {
+                    long aligned = Math.multiplyExact(units, Money.POWERS_OF_TEN[otherScale - scale]);
+                    units = Math.addExact(aligned, otherUnits);
+                    scale = otherScale;
+                } else {
+                    long aligned = Math.multiplyExact(otherUnits, Money.POWERS_OF_TEN[scale - otherScale]);
+                    units = Math.addExact(units, aligned);
+                }
+                return;
+            } catch (ArithmeticException e) {
+                // Не помещается в long — дальше считаем в BigDecimal
+            }
+        }
+        addSlow(BigDecimal.valueOf(otherUnits, otherScale));
+    }
+
+    private void addSlow(BigDecimal amount) {
+        overflow = toBigDecimal().add(amount);
+    }
+}
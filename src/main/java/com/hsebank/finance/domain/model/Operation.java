@@ -1,6 +1,7 @@
 package com.hsebank.finance.domain.model;
 
 import com.hsebank.finance.exporter.DataExportVisitor;
+import com.hsebank.finance.exporter.Exportable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -8,11 +9,12 @@ import java.time.LocalDate;
 /**
  * Доменная модель финансовой операции (дохода или расхода)
  */
-public class Operation {
+public class Operation implements Exportable {
     private String id;
     private OperationType type;
     private String bankAccountId;
     private BigDecimal amount;
+    private Money money;
     private LocalDate date;
     private String categoryId;
     private String description;
@@ -73,12 +75,26 @@ public class Operation {
 
     public void setAmount(BigDecimal amount) {
         this.amount = amount;
+        this.money = null;
     }
 
     public BigDecimal getAmount() {
         return this.amount;
     }
 
+    /**
+     * Сумма с фиксированной точкой для расчётов без выделения памяти; вычисляется один раз.
+     * null, если суммы нет или она не представима как {@link Money} — тогда считать через BigDecimal.
+     */
+    public Money getMoney() {
+        Money cached = this.money;
+        if (cached == null && this.amount != null) {
+            cached = Money.tryOf(this.amount);
+            this.money = cached;
+        }
+        return cached;
+    }
+
     public void setDate(LocalDate date) {
         this.date = date;
     }
@@ -119,6 +135,7 @@ public class Operation {
     /**
      * Принимает visitor для экспорта данных (паттерн Visitor)
      */
+    @Override
     public void accept(DataExportVisitor visitor) {
         visitor.visit(this);
     }
@@ -0,0 +1,98 @@
+package com.hsebank.finance.exporter;
+
+import com.hsebank.finance.di.Resettable;
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Category;
+import com.hsebank.finance.domain.model.Operation;
+
+/**
+ * Общая часть текстовых экспортёров (JSON, CSV): буфер документа и два режима работы.
+ * Без writer весь документ накапливается в памяти и забирается целиком.
+ * Потоковый режим: каждая запись сразу уходит в writer, в памяти держится только текущая запись.
+ * По окончании нужно вызвать {@link #finish()}.
+ */
+public abstract class StreamingTextExporter implements DataExportVisitor, Resettable {
+    protected final StringBuilder builder;
+    private final String opening;
+    private final ChannelExportWriter writer;
+    private boolean first = true;
+
+    /**
+     * @param opening начало документа (открывающая скобка массива, строка заголовка)
+     * @param writer  приёмник для потокового режима; null — накопление в памяти
+     */
+    protected StreamingTextExporter(String opening, ChannelExportWriter writer) {
+        this.builder = new StringBuilder(opening);
+        this.opening = opening;
+        this.writer = writer;
+    }
+
+    @Override public void visit(BankAccount account) {}
+    @Override public void visit(Category category) {}
+    @Override public void visit(Operation operation) {}
+
+    /**
+     * Завершает потоковый экспорт: дописывает окончание документа и остаток буфера, сбрасывает writer.
+     */
+    public void finish() {
+        requireStreaming();
+        builder.append(closing());
+        drain();
+        writer.flush();
+    }
+
+    /**
+     * Возвращает экспортер в начальное состояние, сохраняя выделенный буфер (для повторного использования из пула).
+     */
+    @Override
+    public void reset() {
+        builder.setLength(0);
+        builder.append(opening);
+        first = true;
+    }
+
+    /**
+     * Окончание документа, дописываемое после всех записей.
+     */
+    protected String closing() {
+        return "";
+    }
+
+    /**
+     * Документ, накопленный в памяти, вместе с окончанием.
+     */
+    protected String result() {
+        requireInMemory();
+        return builder.append(closing()).toString();
+    }
+
+    /**
+     * Дописывает разделитель перед каждой записью, кроме первой.
+     */
+    protected void separate(String separator) {
+        if (!first) builder.append(separator);
+        first = false;
+    }
+
+    /**
+     * В потоковом режиме отдаёт накопленный текст в writer и очищает буфер; вызывается после каждой записи.
+     */
+    protected void drain() {
+        if (writer != null) {
+            writer.write(builder);
+            builder.setLength(0);
+        }
+    }
+
+    private void requireInMemory() {
+        if (writer != null) {
+            throw new IllegalStateException("Экспортер работает в потоковом режиме");
+        }
+    }
+
+    private void requireStreaming() {
+        if (writer == null) {
+            throw new IllegalStateException("Экспортер работает в режиме накопления в памяти");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hsebank.finance.exporter.binary;
+
+import com.hsebank.finance.domain.model.BankAccount;
+
+import java.io.OutputStream;
+
+/**
+ * Экспортер банковских счетов в компактный двоичный формат
+ */
+public class BinaryBankAccountExporter extends BinaryExporter {
+
+    public BinaryBankAccountExporter(OutputStream out) {
+        super(out, BinaryFormat.KIND_ACCOUNTS);
+    }
+
+    @Override
+    public void visit(BankAccount account) {
+        writeRecord(out -> {
+            BinaryFormat.writeId(out, account.getId());
+            BinaryFormat.writeString(out, account.getName());
+            BinaryFormat.writeAmount(out, account.getBalance());
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.hsebank.finance.exporter.binary;
+
+import com.hsebank.finance.domain.model.Category;
+
+import java.io.OutputStream;
+
+/**
+ * Экспортер категорий в компактный двоичный формат
+ */
+public class BinaryCategoryExporter extends BinaryExporter {
+
+    public BinaryCategoryExporter(OutputStream out) {
+        super(out, BinaryFormat.KIND_CATEGORIES);
+    }
+
+    @Override
+    public void visit(Category category) {
+        writeRecord(out -> {
+            BinaryFormat.writeId(out, category.getId());
+            BinaryFormat.writeType(out, category.getType());
+            BinaryFormat.writeString(out, category.getName());
+        });
+    }
+}
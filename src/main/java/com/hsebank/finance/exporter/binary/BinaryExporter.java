@@ -0,0 +1,107 @@
+package com.hsebank.finance.exporter.binary;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Category;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.exporter.DataExportVisitor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Общая часть двоичных экспортёров: заголовок, словарь идентификаторов, завершающий блок с контрольной суммой.
+ * Записи пишутся в поток сразу при посещении; по окончании нужно вызвать {@link #finish()}.
+ * Поток не закрывается — им владеет вызывающий код.
+ */
+public abstract class BinaryExporter implements DataExportVisitor {
+    private final CRC32C crc = new CRC32C();
+    private final DataOutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private long records;
+    private boolean finished;
+
+    protected BinaryExporter(OutputStream target, byte kind) {
+        this.out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(target, 64 * 1024), crc));
+        try {
+            out.writeInt(BinaryFormat.MAGIC);
+            out.writeShort(BinaryFormat.VERSION);
+            out.writeByte(kind);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public void visit(BankAccount account) {}
+    @Override public void visit(Category category) {}
+    @Override public void visit(Operation operation) {}
+
+    /**
+     * Дописывает завершающий блок (число записей и CRC32C) и сбрасывает буфер.
+     */
+    public void finish() {
+        if (finished) {
+            throw new IllegalStateException("Экспорт уже завершён");
+        }
+        finished = true;
+
+        try {
+            out.writeByte(BinaryFormat.TAG_END);
+            BinaryFormat.writeVarInt(out, records);
+            out.writeInt((int) crc.getValue());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Номер идентификатора в словаре (0 — null). Новый идентификатор сначала пишется в поток
+     * отдельным элементом словаря, поэтому вызывать нужно до {@link #writeRecord(RecordWriter)}.
+     */
+    protected int reference(String id) {
+        if (id == null) {
+            return 0;
+        }
+
+        Integer index = dictionary.get(id);
+        if (index != null) {
+            return index;
+        }
+
+        int next = dictionary.size() + 1;
+        try {
+            out.writeByte(BinaryFormat.TAG_DICTIONARY);
+            BinaryFormat.writeId(out, id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        dictionary.put(id, next);
+        return next;
+    }
+
+    protected void writeRecord(RecordWriter writer) {
+        if (finished) {
+            throw new IllegalStateException("Экспорт уже завершён");
+        }
+
+        try {
+            out.writeByte(BinaryFormat.TAG_RECORD);
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        records++;
+    }
+
+    protected interface RecordWriter {
+        void write(DataOutput out) throws IOException;
+    }
+}
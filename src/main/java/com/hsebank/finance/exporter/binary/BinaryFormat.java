@@ -0,0 +1,223 @@
+package com.hsebank.finance.exporter.binary;
+
+import com.hsebank.finance.domain.model.OperationType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Компактный двоичный формат выгрузки (версия 1). Общие константы и кодирование полей
+ * для двоичных экспортёров и импортёров.
+ *
+ * <p>Файл: [magic "HSEB" : int][версия : short][вид записей : byte], затем поток элементов,
+ * каждый начинается с тега: {@link #TAG_DICTIONARY} — новое значение словаря идентификаторов,
+ * {@link #TAG_RECORD} — запись, {@link #TAG_END} — конец: [число записей : varint][CRC32 всего предыдущего : int].
+ *
+ * <p>Кодирование полей:
+ * <ul>
+ *   <li>идентификатор — тег + UUID как два long (16 байт вместо 36 символов) или строка;</li>
+ *   <li>счёт и категория в операциях — номер в словаре (varint), сам идентификатор пишется один раз
+ *       при первом появлении;</li>
+ *   <li>сумма — unscaled long (zigzag varint) + scale, BigInteger — только если не помещается в long;</li>
+ *   <li>дата — фиксированные 4 байта: номер дня от эпохи;</li>
+ *   <li>строка — varint (длина + 1, 0 — null) + UTF-8.</li>
+ * </ul>
+ */
+public final class BinaryFormat {
+    public static final int MAGIC = 0x48534542; // "HSEB"
+    public static final short VERSION = 1;
+
+    public static final byte KIND_ACCOUNTS = 1;
+    public static final byte KIND_CATEGORIES = 2;
+    public static final byte KIND_OPERATIONS = 3;
+
+    public static final byte TAG_END = 0;
+    public static final byte TAG_DICTIONARY = 1;
+    public static final byte TAG_RECORD = 2;
+
+    private static final byte ID_NULL = 0;
+    private static final byte ID_UUID = 1;
+    private static final byte ID_STRING = 2;
+
+    private static final byte AMOUNT_NULL = 0;
+    private static final byte AMOUNT_LONG = 1;
+    private static final byte AMOUNT_BIG = 2;
+
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private BinaryFormat() {
+    }
+
+    public static void writeId(DataOutput out, String id) throws IOException {
+        if (id == null) {
+            out.writeByte(ID_NULL);
+            return;
+        }
+
+        UUID uuid = asCanonicalUuid(id);
+        if (uuid != null) {
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(ID_STRING);
+            writeString(out, id);
+        }
+    }
+
+    public static String readId(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case ID_NULL:
+                return null;
+            case ID_UUID:
+                return new UUID(in.readLong(), in.readLong()).toString();
+            case ID_STRING:
+                return readString(in);
+            default:
+                throw corrupted("неизвестный тег идентификатора " + tag);
+        }
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        long length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        if (length - 1 > Integer.MAX_VALUE) {
+            throw corrupted("слишком длинная строка");
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeAmount(DataOutput out, BigDecimal amount) throws IOException {
+        if (amount == null) {
+            out.writeByte(AMOUNT_NULL);
+            return;
+        }
+
+        BigInteger unscaled = amount.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            out.writeByte(AMOUNT_LONG);
+            writeVarInt(out, zigzag(unscaled.longValue()));
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            out.writeByte(AMOUNT_BIG);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+        writeVarInt(out, zigzag(amount.scale()));
+    }
+
+    public static BigDecimal readAmount(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case AMOUNT_NULL:
+                return null;
+            case AMOUNT_LONG:
+                long unscaled = unzigzag(readVarInt(in));
+                return BigDecimal.valueOf(unscaled, (int) unzigzag(readVarInt(in)));
+            case AMOUNT_BIG:
+                byte[] bytes = new byte[(int) readVarInt(in)];
+                in.readFully(bytes);
+                return new BigDecimal(new BigInteger(bytes), (int) unzigzag(readVarInt(in)));
+            default:
+                throw corrupted("неизвестный тег суммы " + tag);
+        }
+    }
+
+    public static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeInt(date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay()));
+    }
+
+    public static LocalDate readDate(DataInput in) throws IOException {
+        int epochDay = in.readInt();
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    public static void writeType(DataOutput out, OperationType type) throws IOException {
+        out.writeByte(type == null ? 0 : type == OperationType.INCOME ? 1 : 2);
+    }
+
+    public static OperationType readType(DataInput in) throws IOException {
+        byte code = in.readByte();
+        switch (code) {
+            case 0:
+                return null;
+            case 1:
+                return OperationType.INCOME;
+            case 2:
+                return OperationType.EXPENSE;
+            default:
+                throw corrupted("неизвестный тип операции " + code);
+        }
+    }
+
+    /**
+     * Беззнаковый varint: 7 бит на байт, старший бит — признак продолжения.
+     */
+    public static void writeVarInt(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarInt(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw corrupted("слишком длинный varint");
+    }
+
+    public static IOException corrupted(String reason) {
+        return new IOException("Повреждённый двоичный файл: " + reason);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * UUID, если строка — его каноническая запись (иначе при чтении получилась бы другая строка).
+     */
+    private static UUID asCanonicalUuid(String id) {
+        if (id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-') {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.hsebank.finance.exporter.binary;
+
+import com.hsebank.finance.domain.model.Operation;
+
+import java.io.OutputStream;
+
+/**
+ * Экспортер операций в компактный двоичный формат
+ */
+public class BinaryOperationExporter extends BinaryExporter {
+
+    public BinaryOperationExporter(OutputStream out) {
+        super(out, BinaryFormat.KIND_OPERATIONS);
+    }
+
+    @Override
+    public void visit(Operation operation) {
+        int account = reference(operation.getBankAccountId());
+        int category = reference(operation.getCategoryId());
+
+        writeRecord(out -> {
+            BinaryFormat.writeId(out, operation.getId());
+            BinaryFormat.writeType(out, operation.getType());
+            BinaryFormat.writeVarInt(out, account);
+            BinaryFormat.writeVarInt(out, category);
+            BinaryFormat.writeAmount(out, operation.getAmount());
+            BinaryFormat.writeDate(out, operation.getDate());
+            BinaryFormat.writeString(out, operation.getDescription());
+        });
+    }
+}
@@ -1,28 +1,34 @@
 package com.hsebank.finance.exporter.csv;
 
 import com.hsebank.finance.domain.model.BankAccount;
-import com.hsebank.finance.domain.model.Category;
-import com.hsebank.finance.domain.model.Operation;
-import com.hsebank.finance.exporter.DataExportVisitor;
+import com.hsebank.finance.exporter.ChannelExportWriter;
+import com.hsebank.finance.exporter.StreamingTextExporter;
 
 /**
  * Экспортер банковских счетов в CSV формат
  */
-public class CsvBankAccountExporter implements DataExportVisitor {
-    private final StringBuilder builder = new StringBuilder("id,name,balance\n");
+public class CsvBankAccountExporter extends StreamingTextExporter {
+    private static final String HEADER = "id,name,balance\n";
+
+    public CsvBankAccountExporter() {
+        this(null);
+    }
+
+    public CsvBankAccountExporter(ChannelExportWriter writer) {
+        super(HEADER, writer);
+    }
 
     @Override
     public void visit(BankAccount account) {
         builder.append(account.getId()).append(",")
                 .append(escape(account.getName())).append(",")
                 .append(account.getBalance()).append("\n");
-    }
 
-    @Override public void visit(Category category) {}
-    @Override public void visit(Operation operation) {}
+        drain();
+    }
 
     public String getCsv() {
-        return builder.toString();
+        return result();
     }
 
     private String escape(String value) {
@@ -33,4 +39,4 @@ public class CsvBankAccountExporter implements DataExportVisitor {
         }
         return escaped;
     }
-}
\ No newline at end of file
+}
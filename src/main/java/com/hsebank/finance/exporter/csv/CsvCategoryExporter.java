@@ -1,28 +1,34 @@
 package com.hsebank.finance.exporter.csv;
 
-import com.hsebank.finance.domain.model.BankAccount;
 import com.hsebank.finance.domain.model.Category;
-import com.hsebank.finance.domain.model.Operation;
-import com.hsebank.finance.exporter.DataExportVisitor;
+import com.hsebank.finance.exporter.ChannelExportWriter;
+import com.hsebank.finance.exporter.StreamingTextExporter;
 
 /**
  * Экспортер категорий в CSV формат
  */
-public class CsvCategoryExporter implements DataExportVisitor {
-    private final StringBuilder builder = new StringBuilder("id,type,name\n");
+public class CsvCategoryExporter extends StreamingTextExporter {
+    private static final String HEADER = "id,type,name\n";
+
+    public CsvCategoryExporter() {
+        this(null);
+    }
+
+    public CsvCategoryExporter(ChannelExportWriter writer) {
+        super(HEADER, writer);
+    }
 
     @Override
     public void visit(Category category) {
         builder.append(category.getId()).append(",")
                 .append(escape(category.getType().toString())).append(",")
                 .append(escape(category.getName())).append("\n");
-    }
 
-    @Override public void visit(BankAccount account) {}
-    @Override public void visit(Operation operation) {}
+        drain();
+    }
 
     public String getCsv() {
-        return builder.toString();
+        return result();
     }
 
     private String escape(String value) {
@@ -33,4 +39,4 @@ public class CsvCategoryExporter implements DataExportVisitor {
         }
         return escaped;
     }
-}
\ No newline at end of file
+}
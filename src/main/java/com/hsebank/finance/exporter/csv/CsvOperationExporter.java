@@ -1,16 +1,22 @@
 package com.hsebank.finance.exporter.csv;
 
-
-import com.hsebank.finance.domain.model.BankAccount;
-import com.hsebank.finance.domain.model.Category;
 import com.hsebank.finance.domain.model.Operation;
-import com.hsebank.finance.exporter.DataExportVisitor;
+import com.hsebank.finance.exporter.ChannelExportWriter;
+import com.hsebank.finance.exporter.StreamingTextExporter;
 
 /**
  * Экспортер операций в CSV формат
  */
-public class CsvOperationExporter implements DataExportVisitor {
-    private final StringBuilder builder = new StringBuilder("id,type,bankAccountId,amount,date,description,categoryId\n");
+public class CsvOperationExporter extends StreamingTextExporter {
+    private static final String HEADER = "id,type,bankAccountId,amount,date,description,categoryId\n";
+
+    public CsvOperationExporter() {
+        this(null);
+    }
+
+    public CsvOperationExporter(ChannelExportWriter writer) {
+        super(HEADER, writer);
+    }
 
     @Override
     public void visit(Operation operation) {
@@ -21,13 +27,12 @@ public class CsvOperationExporter implements DataExportVisitor {
                 .append(escape(operation.getDate().toString())).append(",")
                 .append(escape(operation.getDescription() != null ? operation.getDescription() : "")).append(",")
                 .append(escape(operation.getCategoryId())).append("\n");
-    }
 
-    @Override public void visit(BankAccount account) {}
-    @Override public void visit(Category category) {}
+        drain();
+    }
 
     public String getCsv() {
-        return builder.toString();
+        return result();
     }
 
     private String escape(String value) {
@@ -1,39 +1,40 @@
 package com.hsebank.finance.exporter.json;
 
-import com.hsebank.finance.domain.model.BankAccount;
 import com.hsebank.finance.domain.model.Category;
-import com.hsebank.finance.domain.model.Operation;
-import com.hsebank.finance.exporter.DataExportVisitor;
+import com.hsebank.finance.exporter.ChannelExportWriter;
+import com.hsebank.finance.exporter.StreamingTextExporter;
 
 /**
  * Экспортер категорий в JSON формат
  */
-public class JsonCategoryExporter implements DataExportVisitor {
-    private final StringBuilder builder = new StringBuilder("[\n");
-    private boolean first = true;
+public class JsonCategoryExporter extends StreamingTextExporter {
+    public JsonCategoryExporter() {
+        this(null);
+    }
+
+    public JsonCategoryExporter(ChannelExportWriter writer) {
+        super("[\n", writer);
+    }
 
     @Override
     public void visit(Category category) {
-        if (!first) builder.append(",\n");
-        first = false;
+        separate(",\n");
 
         builder.append("  {\n")
                 .append("    \"id\": \"").append(category.getId()).append("\",\n")
-                .append("    \"type\": \"").append(escape(category.getType().toString())).append("\",\n")
-                .append("    \"name\": \"").append(escape(category.getName())).append("\"\n")
+                .append("    \"type\": \"").append(JsonEscaper.escape(category.getType().toString())).append("\",\n")
+                .append("    \"name\": \"").append(JsonEscaper.escape(category.getName())).append("\"\n")
                 .append("  }");
-    }
 
-    @Override public void visit(BankAccount account) {}
-    @Override public void visit(Operation operation) {}
+        drain();
+    }
 
     public String getJson() {
-        return builder.append("\n]").toString();
+        return result();
     }
 
-    private String escape(String value) {
-        if (value == null) return "";
-        return value.replace("\"", "\\\"");
+    @Override
+    protected String closing() {
+        return "\n]";
     }
 }
-
@@ -0,0 +1,36 @@
+package com.hsebank.finance.exporter.json;
+
+/**
+ * Экранирование строк для JSON-экспортеров: кавычки, обратная косая черта и управляющие символы.
+ * Результат читается {@link com.hsebank.finance.importer.json.JsonReader}.
+ */
+final class JsonEscaper {
+
+    private JsonEscaper() {
+    }
+
+    /**
+     * Строка с экранированными символами; null — пустая строка.
+     */
+    static String escape(String value) {
+        if (value == null) return "";
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': escaped.append("\\\""); break;
+                case '\\': escaped.append("\\\\"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -1,42 +1,44 @@
 package com.hsebank.finance.exporter.json;
 
-import com.hsebank.finance.domain.model.BankAccount;
-import com.hsebank.finance.domain.model.Category;
 import com.hsebank.finance.domain.model.Operation;
-import com.hsebank.finance.exporter.DataExportVisitor;
+import com.hsebank.finance.exporter.ChannelExportWriter;
+import com.hsebank.finance.exporter.StreamingTextExporter;
 
 /**
  * Экспортер операций в JSON формат
  */
-public class JsonOperationExporter implements DataExportVisitor {
-    private final StringBuilder builder = new StringBuilder("[\n");
-    private boolean first = true;
+public class JsonOperationExporter extends StreamingTextExporter {
+    public JsonOperationExporter() {
+        this(null);
+    }
+
+    public JsonOperationExporter(ChannelExportWriter writer) {
+        super("[\n", writer);
+    }
 
     @Override
     public void visit(Operation operation) {
-        if (!first) builder.append(",\n");
-        first = false;
+        separate(",\n");
 
         builder.append("  {\n")
                 .append("    \"id\": \"").append(operation.getId()).append("\",\n")
-                .append("    \"type\": \"").append(escape(operation.getType().toString())).append("\",\n")
+                .append("    \"type\": \"").append(JsonEscaper.escape(operation.getType().toString())).append("\",\n")
                 .append("    \"bankAccountId\": \"").append(operation.getBankAccountId()).append("\",\n")
                 .append("    \"amount\": ").append(operation.getAmount()).append(",\n")
-                .append("    \"date\": \"").append(escape(operation.getDate().toString())).append("\",\n")
-                .append("    \"description\": \"").append(escape(operation.getDescription())).append("\",\n")
+                .append("    \"date\": \"").append(JsonEscaper.escape(operation.getDate().toString())).append("\",\n")
+                .append("    \"description\": \"").append(JsonEscaper.escape(operation.getDescription())).append("\",\n")
                 .append("    \"categoryId\": \"").append(operation.getCategoryId()).append("\"\n")
                 .append("  }");
-    }
 
-    @Override public void visit(BankAccount account) {}
-    @Override public void visit(Category category) {}
+        drain();
+    }
 
     public String getJson() {
-        return builder.append("\n]").toString();
+        return result();
     }
 
-    private String escape(String value) {
-        if (value == null) return "";
-        return value.replace("\"", "\\\"");
+    @Override
+    protected String closing() {
+        return "\n]";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,187 @@
+package com.hsebank.finance.facade;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Money;
+import com.hsebank.finance.repository.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Атомарное изменение балансов счетов.
+ * Чтение → сложение → запись баланса выполняется под блокировкой полосы, выбранной по ID счёта:
+ * изменения разных счетов почти всегда идут параллельно, изменения одного счёта — строго по очереди.
+ */
+public class AccountBalanceUpdater {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final Repository<BankAccount, String> accountRepository;
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountBalanceUpdater(Repository<BankAccount, String> accountRepository) {
+        this(accountRepository, DEFAULT_STRIPES);
+    }
+
+    public AccountBalanceUpdater(Repository<BankAccount, String> accountRepository, int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Количество полос блокировок должно быть больше нуля");
+        }
+
+        // Округляем до степени двойки, чтобы полоса выбиралась маской
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+
+        this.accountRepository = accountRepository;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Атомарно добавляет delta к балансу счёта и возвращает новый баланс.
+     */
+    public BigDecimal apply(String accountId, BigDecimal delta) {
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            BankAccount account = accountRepository.findById(accountId)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Счёт с ID " + accountId + " не найден"
+                    ));
+
+            BigDecimal newBalance = account.getBalance().add(delta);
+            account.setBalance(newBalance);
+            accountRepository.save(account);
+
+            return newBalance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Атомарно увеличивает баланс счёта на сумму операции. В отличие от {@link #apply},
+     * баланс меняется на месте, без новых BigDecimal.
+     */
+    public void deposit(String accountId, Money amount) {
+        change(accountId, amount, false);
+    }
+
+    /**
+     * Атомарно уменьшает баланс счёта на сумму операции, без новых BigDecimal.
+     */
+    public void withdraw(String accountId, Money amount) {
+        change(accountId, amount, true);
+    }
+
+    private void change(String accountId, Money amount, boolean withdraw) {
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            // Без orElseThrow: лямбда с захватом accountId создавалась бы на каждый вызов
+            Optional<BankAccount> found = accountRepository.findById(accountId);
+            if (found.isEmpty()) {
+                throw new IllegalArgumentException("Счёт с ID " + accountId + " не найден");
+            }
+            BankAccount account = found.get();
+
+            if (withdraw) {
+                account.withdraw(amount);
+            } else {
+                account.deposit(amount);
+            }
+            accountRepository.save(account);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Как {@link #apply}, но для удалённого счёта ничего не делает и возвращает false.
+     */
+    public boolean applyIfPresent(String accountId, BigDecimal delta) {
+        ReentrantLock lock = lockFor(accountId);
+        lock.lock();
+        try {
+            if (accountRepository.findById(accountId).isEmpty()) {
+                return false;
+            }
+            apply(accountId, delta);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Применяет набор изменений по счетам — по одному чтению и записи на счёт. Всё или ничего:
+     * проверка счетов и изменения идут под блокировками полос всех затронутых счетов (захват по
+     * возрастанию номера полосы, поэтому пачки не блокируют друг друга), а если изменение всё же
+     * не прошло, уже применённые отменяются до выброса ошибки.
+     */
+    public void applyAll(Map<String, BigDecimal> deltas) {
+        List<ReentrantLock> locks = locksFor(deltas.keySet());
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+        try {
+            for (String accountId : deltas.keySet()) {
+                if (accountRepository.findById(accountId).isEmpty()) {
+                    throw new IllegalArgumentException("Счёт с ID " + accountId + " не найден");
+                }
+            }
+
+            Map<String, BigDecimal> applied = new HashMap<>();
+            try {
+                for (Map.Entry<String, BigDecimal> delta : deltas.entrySet()) {
+                    apply(delta.getKey(), delta.getValue());
+                    applied.put(delta.getKey(), delta.getValue());
+                }
+            } catch (RuntimeException e) {
+                // Удаление счёта идёт мимо полос, так что счёт мог пропасть и после проверки
+                for (Map.Entry<String, BigDecimal> delta : applied.entrySet()) {
+                    applyIfPresent(delta.getKey(), delta.getValue().negate());
+                }
+                throw e;
+            }
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Полосы набора счетов без повторов, по возрастанию номера.
+     */
+    private List<ReentrantLock> locksFor(Collection<String> accountIds) {
+        boolean[] used = new boolean[stripes.length];
+        for (String accountId : accountIds) {
+            used[stripeOf(accountId)] = true;
+        }
+        List<ReentrantLock> locks = new ArrayList<>();
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                locks.add(stripes[i]);
+            }
+        }
+        return locks;
+    }
+
+    private ReentrantLock lockFor(String accountId) {
+        return stripes[stripeOf(accountId)];
+    }
+
+    private int stripeOf(String accountId) {
+        int hash = accountId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
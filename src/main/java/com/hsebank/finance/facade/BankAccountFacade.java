@@ -5,6 +5,7 @@ import com.hsebank.finance.factory.BankAccountFactory;
 import com.hsebank.finance.repository.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +39,13 @@ public class BankAccountFacade {
         return accountRepository.findAll();
     }
 
+    /**
+     * Неизменяемое представление всех записей без копирования — для просмотра и экспорта
+     */
+    public Collection<BankAccount> getAllBankAccountsView() {
+        return accountRepository.findAllView();
+    }
+
     public void updateBankAccount(BankAccount bankAccount) {
         if (bankAccount.getName() == null || bankAccount.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Название счета не может быть пустым");
@@ -50,4 +58,21 @@ public class BankAccountFacade {
         accountRepository.delete(id);
     }
 
+    /**
+     * Сохраняет пачку счетов одним вызовом репозитория; при ошибке валидации не сохраняется ничего
+     */
+    public void saveBankAccounts(Collection<BankAccount> bankAccounts) {
+        for (BankAccount bankAccount : bankAccounts) {
+            if (bankAccount.getName() == null || bankAccount.getName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Название счета не может быть пустым");
+            }
+        }
+
+        accountRepository.saveAll(bankAccounts);
+    }
+
+    public void deleteBankAccounts(Collection<String> ids) {
+        accountRepository.deleteAll(ids);
+    }
+
 }
@@ -5,6 +5,7 @@ import com.hsebank.finance.domain.model.OperationType;
 import com.hsebank.finance.factory.CategoryFactory;
 import com.hsebank.finance.repository.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +39,13 @@ public class CategoryFacade {
         return categoryRepository.findAll();
     }
 
+    /**
+     * Неизменяемое представление всех записей без копирования — для просмотра и экспорта
+     */
+    public Collection<Category> getAllCategoriesView() {
+        return categoryRepository.findAllView();
+    }
+
     public void updateCategory(Category category) {
         if (category.getName() == null || category.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Название категории не может быть пустым");
@@ -49,4 +57,21 @@ public class CategoryFacade {
     public void deleteCategory(String id) {
         categoryRepository.delete(id);
     }
+
+    /**
+     * Сохраняет пачку категорий одним вызовом репозитория; при ошибке валидации не сохраняется ничего
+     */
+    public void saveCategories(Collection<Category> categories) {
+        for (Category category : categories) {
+            if (category.getName() == null || category.getName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Название категории не может быть пустым");
+            }
+        }
+
+        categoryRepository.saveAll(categories);
+    }
+
+    public void deleteCategories(Collection<String> ids) {
+        categoryRepository.deleteAll(ids);
+    }
 }
@@ -1,14 +1,26 @@
 package com.hsebank.finance.facade;
 
 import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Money;
 import com.hsebank.finance.domain.model.Operation;
 import com.hsebank.finance.domain.model.OperationType;
 import com.hsebank.finance.factory.OperationFactory;
+import com.hsebank.finance.repository.ColumnarOperationRepository;
+import com.hsebank.finance.repository.OperationRepository;
 import com.hsebank.finance.repository.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Фасад для управления финансовыми операциями
@@ -17,7 +29,8 @@ import java.util.Optional;
 public class OperationFacade {
     private final OperationFactory operationFactory;
     private final Repository<Operation, String> operationRepository;
-    private final Repository<BankAccount, String> accountRepository;
+    private final AccountBalanceUpdater balanceUpdater;
+    private final List<OperationListener> listeners = new CopyOnWriteArrayList<>();
 
     public OperationFacade(
             OperationFactory operationFactory,
@@ -26,7 +39,14 @@ public class OperationFacade {
     ) {
         this.operationFactory = operationFactory;
         this.operationRepository = operationRepository;
-        this.accountRepository = accountRepository;
+        this.balanceUpdater = new AccountBalanceUpdater(accountRepository);
+    }
+
+    /**
+     * Подписывает слушателя на создание, импорт и удаление операций через фасад.
+     */
+    public void addListener(OperationListener listener) {
+        listeners.add(listener);
     }
 
     /**
@@ -36,16 +56,8 @@ public class OperationFacade {
                                    BigDecimal amount,
                                    String categoryId,
                                    String description) {
-        Operation operation = operationFactory.create(
-                OperationType.EXPENSE,
-                bankAccountId,
-                amount,
-                categoryId
-        );
-
-        operation.setDescription(description);
-        operationRepository.save(operation);
-        updateAccountBalance(bankAccountId, amount.negate());
+        Operation operation = newOperation(OperationType.EXPENSE, bankAccountId, amount, categoryId, description);
+        add(operation);
 
         return operation;
     }
@@ -57,32 +69,80 @@ public class OperationFacade {
                                   BigDecimal amount,
                                   String categoryId,
                                   String description) {
-        Operation operation = operationFactory.create(
-                OperationType.INCOME,
-                bankAccountId,
-                amount,
-                categoryId
-        );
+        Operation operation = newOperation(OperationType.INCOME, bankAccountId, amount, categoryId, description);
+        add(operation);
 
-        operation.setDescription(description);
-        operationRepository.save(operation);
-        updateAccountBalance(bankAccountId, amount);
+        return operation;
+    }
 
+    /**
+     * Создаёт операцию через фабрику (с её проверками), но не сохраняет и не меняет баланс:
+     * так готовятся операции для пакетного сохранения через {@link #addOperations(Collection)}.
+     */
+    public Operation newOperation(OperationType type,
+                                  String bankAccountId,
+                                  BigDecimal amount,
+                                  String categoryId,
+                                  String description) {
+        Operation operation = operationFactory.create(type, bankAccountId, amount, categoryId);
+        operation.setDescription(description);
         return operation;
     }
 
     /**
-     * Обновляет баланс счёта на указанную дельту
+     * Сохраняет пачку готовых операций (например, импортированных) и обновляет балансы.
+     * Изменения суммируются по счетам заранее, поэтому каждый счёт читается и записывается
+     * один раз на пачку, а не на каждую операцию. Если пачка не сохранилась, балансы не меняются.
      */
-    private void updateAccountBalance(String accountId, BigDecimal delta) {
-        BankAccount account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Счёт с ID " + accountId + " не найден"
-                ));
+    public void addOperations(Collection<Operation> operations) {
+        Map<String, BigDecimal> deltas = new HashMap<>();
+        for (Operation operation : operations) {
+            deltas.merge(operation.getBankAccountId(), signedAmount(operation), BigDecimal::add);
+        }
 
-        BigDecimal newBalance = account.getBalance().add(delta);
-        account.setBalance(newBalance);
-        accountRepository.save(account);
+        balanceUpdater.applyAll(deltas);
+        try {
+            operationRepository.saveAll(operations);
+        } catch (RuntimeException e) {
+            // Пачка не сохранилась — балансы возвращаются, чтобы операции можно было повторить
+            for (Map.Entry<String, BigDecimal> delta : deltas.entrySet()) {
+                balanceUpdater.applyIfPresent(delta.getKey(), delta.getValue().negate());
+            }
+            throw e;
+        }
+        for (Operation operation : operations) {
+            notifyAdded(operation);
+        }
+    }
+
+    /**
+     * Применяет операцию к балансу и сохраняет её. Сначала баланс: для несуществующего счёта
+     * операция не должна остаться в репозитории; если не удалось сохранение, изменение баланса отменяется.
+     */
+    private void add(Operation operation) {
+        updateAccountBalance(operation);
+        try {
+            operationRepository.save(operation);
+        } catch (RuntimeException e) {
+            balanceUpdater.applyIfPresent(operation.getBankAccountId(), signedAmount(operation).negate());
+            throw e;
+        }
+        notifyAdded(operation);
+    }
+
+    /**
+     * Атомарно применяет операцию к балансу её счёта: доход увеличивает, расход уменьшает.
+     * Сумма берётся как {@link Money}, поэтому баланс меняется без новых BigDecimal.
+     */
+    private void updateAccountBalance(Operation operation) {
+        Money money = operation.getMoney();
+        if (money == null) {
+            balanceUpdater.apply(operation.getBankAccountId(), signedAmount(operation));
+        } else if (operation.getType() == OperationType.INCOME) {
+            balanceUpdater.deposit(operation.getBankAccountId(), money);
+        } else {
+            balanceUpdater.withdraw(operation.getBankAccountId(), money);
+        }
     }
 
     public Optional<Operation> getOperationById(String id) {
@@ -93,7 +153,155 @@ public class OperationFacade {
         return operationRepository.findAll();
     }
 
+    /**
+     * Неизменяемое представление всех записей без копирования — для просмотра и экспорта
+     */
+    public Collection<Operation> getAllOperationsView() {
+        return operationRepository.findAllView();
+    }
+
+    /**
+     * Операции по счёту. Для индексированного репозитория — выборка по индексу, иначе — полный просмотр.
+     */
+    public List<Operation> getOperationsByAccount(String bankAccountId) {
+        if (operationRepository instanceof OperationRepository) {
+            return ((OperationRepository) operationRepository).findByBankAccountId(bankAccountId);
+        }
+        return filter(op -> bankAccountId.equals(op.getBankAccountId()));
+    }
+
+    /**
+     * Операции по категории.
+     */
+    public List<Operation> getOperationsByCategory(String categoryId) {
+        if (operationRepository instanceof OperationRepository) {
+            return ((OperationRepository) operationRepository).findByCategoryId(categoryId);
+        }
+        return filter(op -> categoryId.equals(op.getCategoryId()));
+    }
+
+    /**
+     * Операции за период [from, to] включительно.
+     */
+    public List<Operation> getOperationsBetween(LocalDate from, LocalDate to) {
+        if (operationRepository instanceof OperationRepository) {
+            return ((OperationRepository) operationRepository).findByDateRange(from, to);
+        }
+        return filter(op -> isWithin(op.getDate(), from, to));
+    }
+
+    /**
+     * Выписка по счёту за период [from, to] включительно.
+     */
+    public List<Operation> getAccountStatement(String bankAccountId, LocalDate from, LocalDate to) {
+        if (operationRepository instanceof OperationRepository) {
+            return ((OperationRepository) operationRepository).findByBankAccountIdAndDateRange(bankAccountId, from, to);
+        }
+        return filter(op -> bankAccountId.equals(op.getBankAccountId()) && isWithin(op.getDate(), from, to));
+    }
+
+    /**
+     * Суммы операций типа type (null — любого) за период [from, to] по категориям; null-граница не ограничивает.
+     * Колоночный репозиторий считает по примитивным колонкам, остальные — полным просмотром.
+     */
+    public Map<String, BigDecimal> getTotalsByCategory(OperationType type, LocalDate from, LocalDate to) {
+        if (operationRepository instanceof ColumnarOperationRepository) {
+            return ((ColumnarOperationRepository) operationRepository).sumByCategory(type, from, to);
+        }
+        return totals(Operation::getCategoryId, type, from, to);
+    }
+
+    /**
+     * Суммы операций типа type (null — любого) за период [from, to] по счетам.
+     */
+    public Map<String, BigDecimal> getTotalsByAccount(OperationType type, LocalDate from, LocalDate to) {
+        if (operationRepository instanceof ColumnarOperationRepository) {
+            return ((ColumnarOperationRepository) operationRepository).sumByAccount(type, from, to);
+        }
+        return totals(Operation::getBankAccountId, type, from, to);
+    }
+
+    /**
+     * Удаляет операцию и отменяет её влияние на баланс счёта (если счёт ещё существует).
+     * Баланс отменяет только вызов, который действительно удалил операцию: одновременное удаление
+     * одной операции не вернёт её сумму дважды.
+     */
     public void deleteOperation(String id) {
-        operationRepository.delete(id);
+        operationRepository.remove(id).ifPresent(operation -> {
+            balanceUpdater.applyIfPresent(operation.getBankAccountId(), signedAmount(operation).negate());
+            notifyRemoved(operation);
+        });
+    }
+
+    /**
+     * Удаляет пачку операций и отменяет их влияние на балансы — по одному изменению на счёт.
+     */
+    public void deleteOperations(Collection<String> ids) {
+        List<Operation> removed = operationRepository.removeAll(ids);
+
+        Map<String, BigDecimal> deltas = new HashMap<>();
+        for (Operation operation : removed) {
+            deltas.merge(operation.getBankAccountId(), signedAmount(operation).negate(), BigDecimal::add);
+        }
+        for (Map.Entry<String, BigDecimal> delta : deltas.entrySet()) {
+            balanceUpdater.applyIfPresent(delta.getKey(), delta.getValue());
+        }
+        for (Operation operation : removed) {
+            notifyRemoved(operation);
+        }
+    }
+
+    /**
+     * Корректирует баланс счёта без создания операции (исправление расхождений при сверке).
+     * Изменение атомарно относительно операций фасада над тем же счётом.
+     */
+    public BigDecimal correctBalance(String bankAccountId, BigDecimal delta) {
+        return balanceUpdater.apply(bankAccountId, delta);
+    }
+
+    private static BigDecimal signedAmount(Operation operation) {
+        return operation.getType() == OperationType.INCOME ? operation.getAmount() : operation.getAmount().negate();
+    }
+
+    private void notifyAdded(Operation operation) {
+        for (OperationListener listener : listeners) {
+            listener.onOperationAdded(operation);
+        }
+    }
+
+    private void notifyRemoved(Operation operation) {
+        for (OperationListener listener : listeners) {
+            listener.onOperationRemoved(operation);
+        }
+    }
+
+    private List<Operation> filter(Predicate<Operation> condition) {
+        List<Operation> result = new ArrayList<>();
+        for (Operation operation : operationRepository.findAllView()) {
+            if (condition.test(operation)) {
+                result.add(operation);
+            }
+        }
+        result.sort(Comparator.comparing(Operation::getDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private Map<String, BigDecimal> totals(Function<Operation, String> groupBy,
+                                           OperationType type, LocalDate from, LocalDate to) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        for (Operation operation : operationRepository.findAllView()) {
+            LocalDate date = operation.getDate();
+            boolean inPeriod = (from == null || date != null && !date.isBefore(from))
+                    && (to == null || date != null && !date.isAfter(to));
+            if ((type == null || operation.getType() == type) && inPeriod) {
+                BigDecimal amount = operation.getAmount() == null ? BigDecimal.ZERO : operation.getAmount();
+                result.merge(groupBy.apply(operation), amount, BigDecimal::add);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isWithin(LocalDate date, LocalDate from, LocalDate to) {
+        return date != null && !date.isBefore(from) && !date.isAfter(to);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.hsebank.finance.facade;
+
+import com.hsebank.finance.domain.model.Operation;
+
+/**
+ * Подписчик на изменения операций через {@link OperationFacade}.
+ * Вызывается после того, как изменение сохранено в репозитории, в потоке вызывающего.
+ */
+public interface OperationListener {
+
+    /**
+     * Операция создана или импортирована.
+     */
+    void onOperationAdded(Operation operation);
+
+    /**
+     * Операция удалена.
+     */
+    void onOperationRemoved(Operation operation);
+}
@@ -1,15 +1,31 @@
 package com.hsebank.finance.factory;
 
+import com.hsebank.finance.di.annotations.Component;
+import com.hsebank.finance.di.annotations.Inject;
 import com.hsebank.finance.domain.model.BankAccount;
 
 import java.math.BigDecimal;
-import java.util.UUID;
 
 /**
  * Фабрика для создания банковских счетов с валидацией
  * Гарантирует корректность данных и автоматическую генерацию ID
  */
+@Component
 public class BankAccountFactory {
+    private final IdGenerator idGenerator;
+
+    /**
+     * Фабрика с упорядоченными по времени идентификаторами.
+     */
+    public BankAccountFactory() {
+        this(new TimeOrderedIdGenerator());
+    }
+
+    @Inject
+    public BankAccountFactory(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     public BankAccount create(String name, BigDecimal balance) {
         if (balance == null) {
             throw new IllegalArgumentException("Баланс не может быть null");
@@ -19,7 +35,7 @@ public class BankAccountFactory {
             throw new IllegalArgumentException("Имя банковского счёта не может быть пустым");
         }
 
-        String id = UUID.randomUUID().toString();
+        String id = idGenerator.nextId();
         BankAccount bankAccount = new BankAccount();
 
         bankAccount.setId(id);
@@ -1,15 +1,30 @@
 package com.hsebank.finance.factory;
 
+import com.hsebank.finance.di.annotations.Component;
+import com.hsebank.finance.di.annotations.Inject;
 import com.hsebank.finance.domain.model.Category;
 import com.hsebank.finance.domain.model.OperationType;
 
-import java.util.UUID;
-
 /**
  * Фабрика для создания категорий с валидацией
  * Гарантирует корректность данных и автоматическую генерацию ID
  */
+@Component
 public class CategoryFactory {
+    private final IdGenerator idGenerator;
+
+    /**
+     * Фабрика с упорядоченными по времени идентификаторами.
+     */
+    public CategoryFactory() {
+        this(new TimeOrderedIdGenerator());
+    }
+
+    @Inject
+    public CategoryFactory(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     public Category create(OperationType type, String name) {
         if (type == null) {
             throw new IllegalArgumentException("Тип категории не может быть null");
@@ -19,7 +34,7 @@ public class CategoryFactory {
             throw new IllegalArgumentException("Название категории не может быть пустым");
         }
 
-        String id = UUID.randomUUID().toString();
+        String id = idGenerator.nextId();
         Category category = new Category();
 
         category.setId(id);
@@ -0,0 +1,17 @@
+package com.hsebank.finance.factory;
+
+import com.hsebank.finance.di.annotations.ImplementedBy;
+
+/**
+ * Источник идентификаторов для создаваемых сущностей.
+ * Реализации должны быть потокобезопасны: фабрики вызываются из разных потоков.
+ * Без явной регистрации контейнер внедряет {@link TimeOrderedIdGenerator}.
+ */
+@ImplementedBy(TimeOrderedIdGenerator.class)
+public interface IdGenerator {
+
+    /**
+     * Новый уникальный идентификатор.
+     */
+    String nextId();
+}
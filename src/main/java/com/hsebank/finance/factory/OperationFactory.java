@@ -1,17 +1,33 @@
 package com.hsebank.finance.factory;
 
+import com.hsebank.finance.di.annotations.Component;
+import com.hsebank.finance.di.annotations.Inject;
 import com.hsebank.finance.domain.model.Operation;
 import com.hsebank.finance.domain.model.OperationType;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.UUID;
 
 /**
  * Фабрика для создания финансовых операций с валидацией
  * Критично: запрещает создание операций с отрицательной или нулевой суммой
  */
+@Component
 public class OperationFactory {
+    private final IdGenerator idGenerator;
+
+    /**
+     * Фабрика с упорядоченными по времени идентификаторами.
+     */
+    public OperationFactory() {
+        this(new TimeOrderedIdGenerator());
+    }
+
+    @Inject
+    public OperationFactory(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     public Operation create(OperationType type, String bankAccountId,
                             BigDecimal amount, String categoryId) {
         if (amount == null) {
@@ -34,7 +50,7 @@ public class OperationFactory {
             throw new IllegalArgumentException("Тип операции не может быть null");
         }
 
-        String id = UUID.randomUUID().toString();
+        String id = idGenerator.nextId();
         Operation operation = new Operation();
 
         operation.setId(id);
@@ -0,0 +1,15 @@
+package com.hsebank.finance.factory;
+
+import java.util.UUID;
+
+/**
+ * Случайные UUID (версия 4) через {@link UUID#randomUUID()}.
+ * Не раскрывают время создания, но идут через общий SecureRandom и не упорядочены.
+ */
+public class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.hsebank.finance.factory;
+
+import com.hsebank.finance.di.annotations.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Упорядоченные по времени UUID версии 7: 48 бит миллисекунд Unix-времени, затем 26-битный счётчик
+ * потока и 48 бит узла (номер потока и случайная соль потока).
+ *
+ * <p>Состояние у каждого потока своё, поэтому генерация не блокируется и не обращается к SecureRandom;
+ * общий счётчик трогается один раз при первом вызове из потока. Идентификаторы одного потока строго
+ * возрастают (при исчерпании счётчика или переводе часов назад время «занимается» вперёд), идентификаторы
+ * разных потоков упорядочены с точностью до миллисекунды. Новые ключи попадают в конец индексов, а не
+ * в случайные места. Строки — канонические UUID, поэтому двоичный формат по-прежнему хранит их в 16 байтах.
+ */
+@Component
+public class TimeOrderedIdGenerator implements IdGenerator {
+    private static final int COUNTER_BITS = 26;
+    private static final long COUNTER_LIMIT = 1L << COUNTER_BITS;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(
+            () -> new State(threads.getAndIncrement(), ThreadLocalRandom.current().nextInt()));
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    public UUID nextUuid() {
+        State current = state.get();
+        long now = System.currentTimeMillis();
+        if (now > current.millis) {
+            current.millis = now;
+            current.counter = 0;
+        } else if (++current.counter == COUNTER_LIMIT) {
+            current.millis++;
+            current.counter = 0;
+        }
+        return compose(current.millis, current.counter, current.node);
+    }
+
+    /**
+     * Время создания идентификатора, выданного этим генератором (в миллисекундах Unix-времени).
+     */
+    public static long timestampOf(UUID id) {
+        if (id.version() != 7) {
+            throw new IllegalArgumentException("Не UUID версии 7: " + id);
+        }
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    static UUID compose(long millis, long counter, long node) {
+        // 48 бит времени | версия 7 | старшие 12 бит счётчика
+        long most = (millis << 16) | (0x7L << 12) | (counter >>> 14);
+        // вариант 10 | младшие 14 бит счётчика | 48 бит узла
+        long least = (0b10L << 62) | ((counter & 0x3FFF) << 48) | (node & 0xFFFF_FFFF_FFFFL);
+        return new UUID(most, least);
+    }
+
+    private static final class State {
+        final long node;
+        long millis;
+        long counter;
+
+        State(int thread, int salt) {
+            this.node = ((long) (thread & 0xFFFF) << 32) | (salt & 0xFFFF_FFFFL);
+        }
+    }
+}
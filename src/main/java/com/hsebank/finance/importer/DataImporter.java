@@ -1,9 +1,13 @@
 package com.hsebank.finance.importer;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Абстрактный импортёр данных с реализацией паттерна "Шаблонный метод".
@@ -16,10 +20,7 @@ public abstract class DataImporter<T> {
      */
     public final List<T> importFromFile(String filePath) throws IOException {
         System.out.println("Чтение файла: " + filePath);
-        String content = readFile(filePath);
-
-        System.out.println("Парсинг данных...");
-        List<T> data = parseData(content);
+        List<T> data = readAndParse(filePath);
 
         System.out.println("Валидация данных...");
         validateData(data);
@@ -28,6 +29,53 @@ public abstract class DataImporter<T> {
         return data;
     }
 
+    /**
+     * Потоковый вариант шаблонного метода: файл читается построчно через буферизированный канал,
+     * каждая запись валидируется сразу после парсинга и передаётся потребителю пачками
+     * не больше batchSize. В памяти одновременно находится не больше одной пачки.
+     *
+     * @return количество импортированных записей
+     */
+    public final long importFromFile(String filePath, int batchSize, Consumer<List<T>> batchConsumer) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть больше нуля");
+        }
+
+        System.out.println("Потоковое чтение файла: " + filePath);
+        BatchSink<T> sink = new BatchSink<>(this, batchSize, batchConsumer);
+
+        readAndParseStream(filePath, sink);
+        sink.flush();
+
+        if (sink.count == 0) {
+            throw new IllegalArgumentException("Данные пусты или не валидны");
+        }
+
+        System.out.println("Импортировано записей: " + sink.count);
+        return sink.count;
+    }
+
+    /**
+     * Шаги чтения и парсинга. По умолчанию файл читается в строку целиком и передаётся в {@link #parseData(String)};
+     * наследники, которые умеют разбирать файл напрямую (например, через отображение в память), переопределяют этот шаг.
+     */
+    protected List<T> readAndParse(String filePath) throws IOException {
+        String content = readFile(filePath);
+
+        System.out.println("Парсинг данных...");
+        return parseData(content);
+    }
+
+    /**
+     * Шаги потокового чтения и парсинга. По умолчанию файл открывается как текст в UTF-8
+     * и передаётся в {@link #parseStream(BufferedReader, Consumer)}; двоичные форматы переопределяют этот шаг.
+     */
+    protected void readAndParseStream(String filePath, Consumer<T> sink) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(filePath), StandardCharsets.UTF_8)) {
+            parseStream(reader, sink);
+        }
+    }
+
     protected String readFile(String filePath) throws IOException {
         return Files.readString(Path.of(filePath));
     }
@@ -38,17 +86,81 @@ public abstract class DataImporter<T> {
     protected abstract List<T> parseData(String content);
 
     /**
-     * Базовая валидация: не допускаются пустые или null-списки.
+     * Шаг потокового парсинга: читает записи из reader и передаёт каждую в sink.
+     * По умолчанию читает текст целиком и разбирает его через {@link #parseData(String)};
+     * текстовые форматы переопределяют шаг, чтобы не держать весь файл в памяти.
+     */
+    protected void parseStream(BufferedReader reader, Consumer<T> sink) throws IOException {
+        StringBuilder content = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            content.append(buffer, 0, read);
+        }
+        parseData(content.toString()).forEach(sink);
+    }
+
+    /**
+     * Базовая валидация: не допускаются пустые или null-списки,
+     * каждая запись проверяется через {@link #validateRecord(Object)}.
      * Переопределяется при необходимости.
      */
     protected void validateData(List<T> data) {
         if (data == null || data.isEmpty()) {
             throw new IllegalArgumentException("Данные пусты или не валидны");
         }
+
+        for (T record : data) {
+            validateRecord(record);
+        }
     }
 
+    /**
+     * Валидация одной записи. Используется и в обычном, и в потоковом режиме.
+     * По умолчанию — без проверок.
+     */
+    protected void validateRecord(T record) {}
+
     /**
      * Хук, вызываемый после импорта. По умолчанию — без действий.
      */
     protected void afterImport(List<T> data) {}
+
+    /**
+     * Накапливает провалидированные записи и отдаёт их потребителю пачками.
+     */
+    private static final class BatchSink<T> implements Consumer<T> {
+        private final DataImporter<T> importer;
+        private final int batchSize;
+        private final Consumer<List<T>> batchConsumer;
+        private List<T> batch;
+        private long count;
+
+        BatchSink(DataImporter<T> importer, int batchSize, Consumer<List<T>> batchConsumer) {
+            this.importer = importer;
+            this.batchSize = batchSize;
+            this.batchConsumer = batchConsumer;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void accept(T record) {
+            importer.validateRecord(record);
+            batch.add(record);
+            count++;
+
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            // Потребитель может сохранить ссылку на пачку, поэтому каждая пачка — новый список
+            batchConsumer.accept(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.hsebank.finance.importer.binary;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.exporter.binary.BinaryFormat;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Импортёр банковских счетов из компактного двоичного формата
+ */
+public class BinaryBankAccountImporter extends BinaryDataImporter<BankAccount> {
+
+    public BinaryBankAccountImporter() {
+        super(BinaryFormat.KIND_ACCOUNTS);
+    }
+
+    @Override
+    protected BankAccount readRecord(DataInput in, List<String> dictionary) throws IOException {
+        String id = BinaryFormat.readId(in);
+        String name = BinaryFormat.readString(in);
+        return new BankAccount(id, name, BinaryFormat.readAmount(in));
+    }
+
+    @Override
+    protected void validateRecord(BankAccount account) {
+        if (account.getName() == null || account.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найден счёт с пустым названием");
+        }
+        if (account.getBalance() == null) {
+            throw new IllegalArgumentException("Найден счёт без баланса");
+        }
+    }
+}
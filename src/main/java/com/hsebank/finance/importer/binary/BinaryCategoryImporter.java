@@ -0,0 +1,36 @@
+package com.hsebank.finance.importer.binary;
+
+import com.hsebank.finance.domain.model.Category;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.exporter.binary.BinaryFormat;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Импортёр категорий из компактного двоичного формата
+ */
+public class BinaryCategoryImporter extends BinaryDataImporter<Category> {
+
+    public BinaryCategoryImporter() {
+        super(BinaryFormat.KIND_CATEGORIES);
+    }
+
+    @Override
+    protected Category readRecord(DataInput in, List<String> dictionary) throws IOException {
+        String id = BinaryFormat.readId(in);
+        OperationType type = BinaryFormat.readType(in);
+        return new Category(id, type, BinaryFormat.readString(in));
+    }
+
+    @Override
+    protected void validateRecord(Category category) {
+        if (category.getName() == null || category.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найдена категория с пустым названием");
+        }
+        if (category.getType() == null) {
+            throw new IllegalArgumentException("Найдена категория без типа");
+        }
+    }
+}
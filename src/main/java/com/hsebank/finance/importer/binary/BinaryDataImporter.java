@@ -0,0 +1,117 @@
+package com.hsebank.finance.importer.binary;
+
+import com.hsebank.finance.exporter.binary.BinaryFormat;
+import com.hsebank.finance.importer.DataImporter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Общая часть двоичных импортёров: проверка заголовка, словарь идентификаторов,
+ * сверка числа записей и контрольной суммы в конце файла.
+ * Файл читается потоком, поэтому работают и обычный, и пакетный импорт.
+ */
+public abstract class BinaryDataImporter<T> extends DataImporter<T> {
+    private final byte kind;
+
+    protected BinaryDataImporter(byte kind) {
+        this.kind = kind;
+    }
+
+    @Override
+    protected List<T> readAndParse(String filePath) throws IOException {
+        System.out.println("Парсинг данных...");
+        List<T> records = new ArrayList<>();
+        readAndParseStream(filePath, records::add);
+        return records;
+    }
+
+    @Override
+    protected void readAndParseStream(String filePath, Consumer<T> sink) throws IOException {
+        try (InputStream file = Files.newInputStream(Path.of(filePath))) {
+            read(file, sink);
+        }
+    }
+
+    /**
+     * Двоичный формат не представим строкой.
+     */
+    @Override
+    protected List<T> parseData(String content) {
+        throw new UnsupportedOperationException("Двоичный формат читается только из файла");
+    }
+
+    /**
+     * Читает одну запись. dictionary — идентификаторы, встреченные до неё, в порядке появления.
+     */
+    protected abstract T readRecord(DataInput in, List<String> dictionary) throws IOException;
+
+    /**
+     * Идентификатор по номеру в словаре (0 — null).
+     */
+    protected static String resolve(List<String> dictionary, long reference) throws IOException {
+        if (reference == 0) {
+            return null;
+        }
+        if (reference > dictionary.size()) {
+            throw BinaryFormat.corrupted("ссылка на отсутствующий элемент словаря " + reference);
+        }
+        return dictionary.get((int) reference - 1);
+    }
+
+    private void read(InputStream file, Consumer<T> sink) throws IOException {
+        CRC32C crc = new CRC32C();
+        DataInputStream in = new DataInputStream(
+                new CheckedInputStream(new BufferedInputStream(file, 64 * 1024), crc));
+
+        if (in.readInt() != BinaryFormat.MAGIC) {
+            throw new IllegalArgumentException("Файл не является двоичной выгрузкой");
+        }
+        short version = in.readShort();
+        if (version != BinaryFormat.VERSION) {
+            throw new IllegalArgumentException("Неподдерживаемая версия двоичного формата: " + version);
+        }
+        byte fileKind = in.readByte();
+        if (fileKind != kind) {
+            throw new IllegalArgumentException("Файл содержит записи другого вида (" + fileKind + ")");
+        }
+
+        List<String> dictionary = new ArrayList<>();
+        long records = 0;
+
+        while (true) {
+            byte tag = in.readByte();
+            switch (tag) {
+                case BinaryFormat.TAG_DICTIONARY:
+                    dictionary.add(BinaryFormat.readId(in));
+                    break;
+                case BinaryFormat.TAG_RECORD:
+                    sink.accept(readRecord(in, dictionary));
+                    records++;
+                    break;
+                case BinaryFormat.TAG_END:
+                    long expected = BinaryFormat.readVarInt(in);
+                    int checksum = (int) crc.getValue();
+                    if (in.readInt() != checksum) {
+                        throw BinaryFormat.corrupted("контрольная сумма не совпадает");
+                    }
+                    if (expected != records) {
+                        throw BinaryFormat.corrupted("ожидалось записей " + expected + ", прочитано " + records);
+                    }
+                    return;
+                default:
+                    throw BinaryFormat.corrupted("неизвестный тег " + tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.hsebank.finance.importer.binary;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.exporter.binary.BinaryFormat;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Импортёр операций из компактного двоичного формата
+ */
+public class BinaryOperationImporter extends BinaryDataImporter<Operation> {
+
+    public BinaryOperationImporter() {
+        super(BinaryFormat.KIND_OPERATIONS);
+    }
+
+    @Override
+    protected Operation readRecord(DataInput in, List<String> dictionary) throws IOException {
+        String id = BinaryFormat.readId(in);
+        OperationType type = BinaryFormat.readType(in);
+        String bankAccountId = resolve(dictionary, BinaryFormat.readVarInt(in));
+        String categoryId = resolve(dictionary, BinaryFormat.readVarInt(in));
+        BigDecimal amount = BinaryFormat.readAmount(in);
+        LocalDate date = BinaryFormat.readDate(in);
+        String description = BinaryFormat.readString(in);
+
+        return new Operation(id, type, bankAccountId, amount, date, categoryId, description);
+    }
+
+    @Override
+    protected void validateRecord(Operation operation) {
+        if (operation.getType() == null) {
+            throw new IllegalArgumentException("Найдена операция без типа");
+        }
+        if (operation.getAmount() == null || operation.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Найдена операция с некорректной суммой: " + operation.getAmount());
+        }
+        if (operation.getBankAccountId() == null || operation.getBankAccountId().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найдена операция без ID счёта");
+        }
+        if (operation.getCategoryId() == null || operation.getCategoryId().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найдена операция без ID категории");
+        }
+        if (operation.getDate() == null) {
+            throw new IllegalArgumentException("Найдена операция без даты");
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.hsebank.finance.importer.csv;
 import com.hsebank.finance.domain.model.BankAccount;
 import com.hsebank.finance.importer.DataImporter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Импорт банковских счетов из CSV-файла.
@@ -16,47 +19,65 @@ public class CsvBankAccountImporter extends DataImporter<BankAccount> {
     @Override
     protected List<BankAccount> parseData(String content) {
         List<BankAccount> accounts = new ArrayList<>();
-
         String[] lines = content.split("\n");
 
         // Пропуск заголовка
         for (int i = 1; i < lines.length; i++) {
-            String line = lines[i].trim();
-            if (line.isEmpty()) continue;
-
-            String[] parts = line.split(",");
-            if (parts.length < 3) {
-                System.out.println("Пропущена некорректная строка: " + line);
-                continue;
+            BankAccount account = parseLine(lines[i]);
+            if (account != null) {
+                accounts.add(account);
             }
-
-            String id = parts[0].replace("\"", "").trim();
-            String name = parts[1].replace("\"", "").trim();
-            String balanceStr = parts[2].replace("\"", "").trim();
-
-            BankAccount account = new BankAccount();
-            account.setId(id);
-            account.setName(name);
-            account.setBalance(new BigDecimal(balanceStr));
-
-            accounts.add(account);
         }
 
         return accounts;
     }
 
     @Override
-    protected void validateData(List<BankAccount> data) {
-        super.validateData(data);
+    protected void parseStream(BufferedReader reader, Consumer<BankAccount> sink) throws IOException {
+        // Пропуск заголовка
+        String line = reader.readLine();
 
-        // Проверка, что у всех счетов задано имя и баланс
-        for (BankAccount account : data) {
-            if (account.getName() == null || account.getName().trim().isEmpty()) {
-                throw new IllegalArgumentException("Найден счёт с пустым названием");
-            }
-            if (account.getBalance() == null) {
-                throw new IllegalArgumentException("Найден счёт без баланса");
+        while ((line = reader.readLine()) != null) {
+            BankAccount account = parseLine(line);
+            if (account != null) {
+                sink.accept(account);
             }
         }
     }
+
+    /**
+     * Разбирает одну строку CSV. Возвращает null для пустых и некорректных строк.
+     */
+    private BankAccount parseLine(String rawLine) {
+        String line = rawLine.trim();
+        if (line.isEmpty()) return null;
+
+        String[] parts = line.split(",");
+        if (parts.length < 3) {
+            System.out.println("Пропущена некорректная строка: " + line);
+            return null;
+        }
+
+        String id = parts[0].replace("\"", "").trim();
+        String name = parts[1].replace("\"", "").trim();
+        String balanceStr = parts[2].replace("\"", "").trim();
+
+        BankAccount account = new BankAccount();
+        account.setId(id);
+        account.setName(name);
+        account.setBalance(new BigDecimal(balanceStr));
+
+        return account;
+    }
+
+    @Override
+    protected void validateRecord(BankAccount account) {
+        // Проверка, что у счёта задано имя и баланс
+        if (account.getName() == null || account.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найден счёт с пустым названием");
+        }
+        if (account.getBalance() == null) {
+            throw new IllegalArgumentException("Найден счёт без баланса");
+        }
+    }
 }
@@ -4,8 +4,11 @@ import com.hsebank.finance.domain.model.Category;
 import com.hsebank.finance.domain.model.OperationType;
 import com.hsebank.finance.importer.DataImporter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Импорт категорий операций из CSV-файла.
@@ -15,46 +18,65 @@ public class CsvCategoryImporter extends DataImporter<Category> {
 
     @Override
     protected List<Category> parseData(String content) {
-        List<Category> categories = new ArrayList<>();
+        List<Category> categorys = new ArrayList<>();
         String[] lines = content.split("\n");
 
         // Пропуск заголовка
         for (int i = 1; i < lines.length; i++) {
-            String line = lines[i].trim();
-            if (line.isEmpty()) continue;
-
-            String[] parts = line.split(",");
-            if (parts.length < 3) {
-                System.out.println("Пропущена некорректная строка: " + line);
-                continue;
+            Category category = parseLine(lines[i]);
+            if (category != null) {
+                categorys.add(category);
             }
+        }
+
+        return categorys;
+    }
 
-            String id = parts[0].replace("\"", "").trim();
-            String type = parts[1].replace("\"", "").trim();
-            String name = parts[2].replace("\"", "").trim();
+    @Override
+    protected void parseStream(BufferedReader reader, Consumer<Category> sink) throws IOException {
+        // Пропуск заголовка
+        String line = reader.readLine();
+
+        while ((line = reader.readLine()) != null) {
+            Category category = parseLine(line);
+            if (category != null) {
+                sink.accept(category);
+            }
+        }
+    }
 
-            Category category = new Category();
-            category.setId(id);
-            category.setType(OperationType.valueOf(type));
-            category.setName(name);
+    /**
+     * Разбирает одну строку CSV. Возвращает null для пустых и некорректных строк.
+     */
+    private Category parseLine(String rawLine) {
+        String line = rawLine.trim();
+        if (line.isEmpty()) return null;
 
-            categories.add(category);
+        String[] parts = line.split(",");
+        if (parts.length < 3) {
+            System.out.println("Пропущена некорректная строка: " + line);
+            return null;
         }
 
-        return categories;
+        String id = parts[0].replace("\"", "").trim();
+        String type = parts[1].replace("\"", "").trim();
+        String name = parts[2].replace("\"", "").trim();
+
+        Category category = new Category();
+        category.setId(id);
+        category.setType(OperationType.valueOf(type));
+        category.setName(name);
+
+        return category;
     }
 
     @Override
-    protected void validateData(List<Category> data) {
-        super.validateData(data);
-
-        for (Category category : data) {
-            if (category.getName() == null || category.getName().trim().isEmpty()) {
-                throw new IllegalArgumentException("Найдена категория с пустым названием");
-            }
-            if (category.getType() == null) {
-                throw new IllegalArgumentException("Найдена категория без типа");
-            }
+    protected void validateRecord(Category category) {
+        if (category.getName() == null || category.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найдена категория с пустым названием");
+        }
+        if (category.getType() == null) {
+            throw new IllegalArgumentException("Найдена категория без типа");
         }
     }
 }
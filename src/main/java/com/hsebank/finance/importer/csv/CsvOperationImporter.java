@@ -4,10 +4,13 @@ import com.hsebank.finance.domain.model.Operation;
 import com.hsebank.finance.domain.model.OperationType;
 import com.hsebank.finance.importer.DataImporter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Импорт финансовых операций из CSV-файла.
@@ -22,37 +25,9 @@ public class CsvOperationImporter extends DataImporter<Operation> {
 
         // Пропуск заголовка
         for (int i = 1; i < lines.length; i++) {
-            String line = lines[i].trim();
-            if (line.isEmpty()) continue;
-
-            String[] parts = line.split(",");
-            if (parts.length < 7) {
-                System.out.println("Пропущена некорректная строка: " + line);
-                continue;
-            }
-
-            try {
-                String id = parts[0].replace("\"", "").trim();
-                String type = parts[1].replace("\"", "").trim();
-                String bankAccountId = parts[2].replace("\"", "").trim();
-                String amountStr = parts[3].replace("\"", "").trim();
-                String dateStr = parts[4].replace("\"", "").trim();
-                String categoryId = parts[5].replace("\"", "").trim();
-                String description = parts[6].replace("\"", "").trim();
-
-                Operation operation = new Operation();
-                operation.setId(id);
-                operation.setType(OperationType.valueOf(type));
-                operation.setBankAccountId(bankAccountId);
-                operation.setAmount(new BigDecimal(amountStr));
-                operation.setDate(LocalDate.parse(dateStr));
-                operation.setCategoryId(categoryId);
-                operation.setDescription(description);
-
+            Operation operation = parseLine(lines[i]);
+            if (operation != null) {
                 operations.add(operation);
-            } catch (Exception e) {
-                System.out.println("Ошибка парсинга строки: " + line);
-                System.out.println("   Причина: " + e.getMessage());
             }
         }
 
@@ -60,28 +35,76 @@ public class CsvOperationImporter extends DataImporter<Operation> {
     }
 
     @Override
-    protected void validateData(List<Operation> data) {
-        super.validateData(data);
+    protected void parseStream(BufferedReader reader, Consumer<Operation> sink) throws IOException {
+        // Пропуск заголовка
+        String line = reader.readLine();
 
-        for (Operation operation : data) {
-            if (operation.getType() == null) {
-                throw new IllegalArgumentException("Найдена операция без типа");
-            }
-            if (operation.getAmount() == null || operation.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
-                throw new IllegalArgumentException("Найдена операция с некорректной суммой: " + operation.getAmount());
-            }
-            if (operation.getBankAccountId() == null || operation.getBankAccountId().trim().isEmpty()) {
-                throw new IllegalArgumentException("Найдена операция без ID счёта");
-            }
-            if (operation.getCategoryId() == null || operation.getCategoryId().trim().isEmpty()) {
-                throw new IllegalArgumentException("Найдена операция без ID категории");
-            }
-            if (operation.getDate() == null) {
-                throw new IllegalArgumentException("Найдена операция без даты");
+        while ((line = reader.readLine()) != null) {
+            Operation operation = parseLine(line);
+            if (operation != null) {
+                sink.accept(operation);
             }
         }
     }
 
+    /**
+     * Разбирает одну строку CSV. Возвращает null для пустых и некорректных строк.
+     */
+    private Operation parseLine(String rawLine) {
+        String line = rawLine.trim();
+        if (line.isEmpty()) return null;
+
+        String[] parts = line.split(",");
+        if (parts.length < 7) {
+            System.out.println("Пропущена некорректная строка: " + line);
+            return null;
+        }
+
+        try {
+            String id = parts[0].replace("\"", "").trim();
+            String type = parts[1].replace("\"", "").trim();
+            String bankAccountId = parts[2].replace("\"", "").trim();
+            String amountStr = parts[3].replace("\"", "").trim();
+            String dateStr = parts[4].replace("\"", "").trim();
+            String categoryId = parts[5].replace("\"", "").trim();
+            String description = parts[6].replace("\"", "").trim();
+
+            Operation operation = new Operation();
+            operation.setId(id);
+            operation.setType(OperationType.valueOf(type));
+            operation.setBankAccountId(bankAccountId);
+            operation.setAmount(new BigDecimal(amountStr));
+            operation.setDate(LocalDate.parse(dateStr));
+            operation.setCategoryId(categoryId);
+            operation.setDescription(description);
+
+            return operation;
+        } catch (Exception e) {
+            System.out.println("Ошибка парсинга строки: " + line);
+            System.out.println("   Причина: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected void validateRecord(Operation operation) {
+        if (operation.getType() == null) {
+            throw new IllegalArgumentException("Найдена операция без типа");
+        }
+        if (operation.getAmount() == null || operation.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Найдена операция с некорректной суммой: " + operation.getAmount());
+        }
+        if (operation.getBankAccountId() == null || operation.getBankAccountId().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найдена операция без ID счёта");
+        }
+        if (operation.getCategoryId() == null || operation.getCategoryId().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найдена операция без ID категории");
+        }
+        if (operation.getDate() == null) {
+            throw new IllegalArgumentException("Найдена операция без даты");
+        }
+    }
+
     @Override
     protected void afterImport(List<Operation> data) {
         System.out.println("Импортировано операций:");
@@ -0,0 +1,340 @@
+package com.hsebank.finance.importer.csv;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Параллельный импорт операций из больших CSV-файлов.
+ * Файл отображается в память через {@link FileChannel#map}, делится на куски по границам строк,
+ * куски разбираются прямо из байтов в пуле fork-join, результаты склеиваются в порядке следования в файле.
+ * Формат и правила валидации совпадают с {@link CsvOperationImporter}.
+ */
+public class MappedCsvOperationImporter extends CsvOperationImporter {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 28;
+    private static final int FIELD_COUNT = 7;
+
+    private final ForkJoinPool pool;
+
+    public MappedCsvOperationImporter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MappedCsvOperationImporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    protected List<Operation> readAndParse(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long[] bounds = splitIntoChunks(channel);
+            System.out.println("Параллельный парсинг данных, кусков: " + (bounds.length - 1));
+
+            List<Future<ChunkResult>> futures = new ArrayList<>(bounds.length - 1);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                futures.add(pool.submit(() -> parseChunk(channel, start, end)));
+            }
+
+            List<ChunkResult> results = new ArrayList<>(futures.size());
+            int total = 0;
+            for (Future<ChunkResult> future : futures) {
+                ChunkResult result = await(future);
+                results.add(result);
+                total += result.operations.size();
+            }
+
+            List<Operation> operations = new ArrayList<>(total);
+            int skipped = 0;
+            for (ChunkResult result : results) {
+                operations.addAll(result.operations);
+                skipped += result.skipped;
+            }
+
+            if (skipped > 0) {
+                System.out.println("Пропущено некорректных строк: " + skipped);
+            }
+            return operations;
+        }
+    }
+
+    /**
+     * Делит файл на куски, выровненные по переводу строки. Первый кусок начинается после заголовка.
+     */
+    private long[] splitIntoChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long dataStart = nextLineStart(channel, 0, size);
+
+        long targetChunk = (size - dataStart) / (pool.getParallelism() * 4L);
+        long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, targetChunk));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(dataStart);
+        long position = dataStart;
+        while (position < size) {
+            position = position + chunkSize >= size ? size : nextLineStart(channel, position + chunkSize, size);
+            bounds.add(position);
+        }
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Позиция первого байта после ближайшего '\n', начиная с from (или конец файла).
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static ChunkResult parseChunk(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        ChunkParser parser = new ChunkParser(buffer);
+        return parser.parse();
+    }
+
+    private static ChunkResult await(Future<ChunkResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Импорт прерван", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Ошибка парсинга куска файла", e.getCause());
+        }
+    }
+
+    private static final class ChunkResult {
+        final List<Operation> operations;
+        final int skipped;
+
+        ChunkResult(List<Operation> operations, int skipped) {
+            this.operations = operations;
+            this.skipped = skipped;
+        }
+    }
+
+    /**
+     * Разбор одного куска: поля строки находятся по позициям запятых,
+     * сумма и дата собираются из цифр без промежуточных строк.
+     */
+    private static final class ChunkParser {
+        private static final byte[] INCOME = "INCOME".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] EXPENSE = "EXPENSE".getBytes(StandardCharsets.US_ASCII);
+
+        private final ByteBuffer buffer;
+        private final int[] fieldStart = new int[FIELD_COUNT];
+        private final int[] fieldEnd = new int[FIELD_COUNT];
+        private byte[] scratch = new byte[256];
+        private int scratchLength;
+
+        ChunkParser(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        ChunkResult parse() {
+            List<Operation> operations = new ArrayList<>();
+            int skipped = 0;
+            int limit = buffer.limit();
+            int lineStart = 0;
+
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+
+                if (!isBlank(lineStart, lineEnd)) {
+                    Operation operation = parseLine(lineStart, lineEnd);
+                    if (operation != null) {
+                        operations.add(operation);
+                    } else {
+                        skipped++;
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+
+            return new ChunkResult(operations, skipped);
+        }
+
+        private boolean isBlank(int from, int to) {
+            for (int i = from; i < to; i++) {
+                if ((buffer.get(i) & 0xFF) > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Operation parseLine(int from, int to) {
+            int field = 0;
+            fieldStart[0] = from;
+            for (int i = from; i < to && field < FIELD_COUNT; i++) {
+                if (buffer.get(i) == ',') {
+                    fieldEnd[field] = i;
+                    field++;
+                    if (field < FIELD_COUNT) {
+                        fieldStart[field] = i + 1;
+                    }
+                }
+            }
+            if (field < FIELD_COUNT - 1) {
+                return null;
+            }
+            if (field == FIELD_COUNT - 1) {
+                fieldEnd[field] = to;
+            }
+
+            try {
+                Operation operation = new Operation();
+                operation.setId(text(0));
+                operation.setType(type(1));
+                operation.setBankAccountId(text(2));
+                operation.setAmount(amount(3));
+                operation.setDate(date(4));
+                operation.setCategoryId(text(5));
+                operation.setDescription(text(6));
+                return operation;
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Копирует поле в scratch без кавычек и пробелов по краям — как trim()/replace("\"", "").
+         */
+        private void load(int field) {
+            int from = fieldStart[field];
+            int to = fieldEnd[field];
+
+            while (from < to && isTrimmed(buffer.get(from))) from++;
+            while (to > from && isTrimmed(buffer.get(to - 1))) to--;
+
+            if (scratch.length < to - from) {
+                scratch = new byte[Math.max(to - from, scratch.length * 2)];
+            }
+            scratchLength = 0;
+            for (int i = from; i < to; i++) {
+                byte b = buffer.get(i);
+                if (b != '"') {
+                    scratch[scratchLength++] = b;
+                }
+            }
+        }
+
+        private static boolean isTrimmed(byte b) {
+            return (b & 0xFF) <= ' ' || b == '"';
+        }
+
+        private String text(int field) {
+            load(field);
+            return new String(scratch, 0, scratchLength, StandardCharsets.UTF_8);
+        }
+
+        private OperationType type(int field) {
+            load(field);
+            if (scratchEquals(INCOME)) return OperationType.INCOME;
+            if (scratchEquals(EXPENSE)) return OperationType.EXPENSE;
+            throw new IllegalArgumentException("Неизвестный тип операции");
+        }
+
+        private boolean scratchEquals(byte[] expected) {
+            if (scratchLength != expected.length) return false;
+            for (int i = 0; i < scratchLength; i++) {
+                if (scratch[i] != expected[i]) return false;
+            }
+            return true;
+        }
+
+        private BigDecimal amount(int field) {
+            load(field);
+            long unscaled = 0;
+            int scale = -1;
+            int digits = 0;
+            boolean negative = false;
+
+            for (int i = 0; i < scratchLength; i++) {
+                byte b = scratch[i];
+                if (b >= '0' && b <= '9') {
+                    unscaled = unscaled * 10 + (b - '0');
+                    digits++;
+                    if (scale >= 0) scale++;
+                } else if (b == '.' && scale < 0) {
+                    scale = 0;
+                } else if (b == '-' && i == 0) {
+                    negative = true;
+                } else {
+                    // Экспонента и прочие редкие формы — через стандартный разбор
+                    return new BigDecimal(new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII));
+                }
+            }
+
+            if (digits == 0) {
+                throw new NumberFormatException("Пустая сумма");
+            }
+            if (digits > 18) {
+                return new BigDecimal(new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII));
+            }
+            return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+        }
+
+        private LocalDate date(int field) {
+            load(field);
+            if (scratchLength == 10 && scratch[4] == '-' && scratch[7] == '-') {
+                return LocalDate.of(digits(0, 4), digits(5, 7), digits(8, 10));
+            }
+            return LocalDate.parse(new String(scratch, 0, scratchLength, StandardCharsets.US_ASCII));
+        }
+
+        private int digits(int from, int to) {
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = scratch[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException("Некорректная дата");
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+    }
+}
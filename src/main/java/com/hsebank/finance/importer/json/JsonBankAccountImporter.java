@@ -1,60 +1,50 @@
 package com.hsebank.finance.importer.json;
 
 import com.hsebank.finance.domain.model.BankAccount;
-import com.hsebank.finance.importer.DataImporter;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
- * Импорт банковских счетов из JSON-строки.
- * Использует регулярное выражение для парсинга объектов в формате:
+ * Импорт банковских счетов из JSON.
+ * Разбирает массив объектов формата (порядок полей не важен, баланс — строкой или числом):
  * {"id":"...", "name":"...", "balance":"..."}
  */
-public class JsonBankAccountImporter extends DataImporter<BankAccount> {
+public class JsonBankAccountImporter extends JsonDataImporter<BankAccount> {
 
     @Override
-    protected List<BankAccount> parseData(String content) {
-        List<BankAccount> accounts = new ArrayList<>();
-
-        Pattern pattern = Pattern.compile(
-                "\\{\\s*\"id\"\\s*:\\s*\"([^\"]+)\"\\s*,\\s*" +
-                        "\"name\"\\s*:\\s*\"([^\"]+)\"\\s*,\\s*" +
-                        "\"balance\"\\s*:\\s*\"([^\"]+)\"\\s*\\}"
-        );
-
-        Matcher matcher = pattern.matcher(content);
-
-        while (matcher.find()) {
-            String id = matcher.group(1);
-            String name = matcher.group(2);
-            String balance = matcher.group(3);
-
-            BankAccount account = new BankAccount();
-            account.setId(id);
-            account.setName(name);
-            account.setBalance(new BigDecimal(balance));
-
-            accounts.add(account);
+    protected BankAccount readRecord(JsonReader reader) throws IOException {
+        BankAccount account = new BankAccount();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    account.setId(reader.nextString());
+                    break;
+                case "name":
+                    account.setName(reader.nextString());
+                    break;
+                case "balance":
+                    String balance = reader.nextString();
+                    account.setBalance(balance != null ? new BigDecimal(balance) : null);
+                    break;
+                default:
+                    reader.skipValue();
+            }
         }
+        reader.endObject();
 
-        return accounts;
+        return account;
     }
 
     @Override
-    protected void validateData(List<BankAccount> data) {
-        super.validateData(data);
-
-        for (BankAccount account : data) {
-            if (account.getName() == null || account.getName().trim().isEmpty()) {
-                throw new IllegalArgumentException("Найден счёт с пустым названием");
-            }
-            if (account.getBalance() == null) {
-                throw new IllegalArgumentException("Найден счёт без баланса");
-            }
+    protected void validateRecord(BankAccount account) {
+        if (account.getName() == null || account.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найден счёт с пустым названием");
+        }
+        if (account.getBalance() == null) {
+            throw new IllegalArgumentException("Найден счёт без баланса");
         }
     }
 }
@@ -2,59 +2,49 @@ package com.hsebank.finance.importer.json;
 
 import com.hsebank.finance.domain.model.Category;
 import com.hsebank.finance.domain.model.OperationType;
-import com.hsebank.finance.importer.DataImporter;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
 
 /**
- * Импорт категорий из JSON-строки.
- * Используется регулярное выражение для извлечения объектов формата:
+ * Импорт категорий из JSON.
+ * Разбирает массив объектов формата (порядок полей не важен):
  * {"id":"...", "type":"...", "name":"..."}
  */
-public class JsonCategoryImporter extends DataImporter<Category> {
+public class JsonCategoryImporter extends JsonDataImporter<Category> {
 
     @Override
-    protected List<Category> parseData(String content) {
-        List<Category> categories = new ArrayList<>();
-
-        Pattern pattern = Pattern.compile(
-                "\\{\\s*\"id\"\\s*:\\s*\"([^\"]+)\"\\s*,\\s*" +
-                        "\"type\"\\s*:\\s*\"([^\"]+)\"\\s*,\\s*" +
-                        "\"name\"\\s*:\\s*\"([^\"]+)\"\\s*\\}"
-        );
-
-        Matcher matcher = pattern.matcher(content);
-
-        while (matcher.find()) {
-            String id = matcher.group(1);
-            String type = matcher.group(2);
-            String name = matcher.group(3);
-
-            Category category = new Category();
-            category.setId(id);
-            category.setType(OperationType.valueOf(type));
-            category.setName(name);
-
-            categories.add(category);
+    protected Category readRecord(JsonReader reader) throws IOException {
+        Category category = new Category();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    category.setId(reader.nextString());
+                    break;
+                case "type":
+                    String type = reader.nextString();
+                    category.setType(type != null ? OperationType.valueOf(type) : null);
+                    break;
+                case "name":
+                    category.setName(reader.nextString());
+                    break;
+                default:
+                    reader.skipValue();
+            }
         }
+        reader.endObject();
 
-        return categories;
+        return category;
     }
 
     @Override
-    protected void validateData(List<Category> data) {
-        super.validateData(data);
-
-        for (Category category : data) {
-            if (category.getName() == null || category.getName().trim().isEmpty()) {
-                throw new IllegalArgumentException("Найдена категория с пустым названием");
-            }
-            if (category.getType() == null) {
-                throw new IllegalArgumentException("Найдена категория без типа");
-            }
+    protected void validateRecord(Category category) {
+        if (category.getName() == null || category.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Найдена категория с пустым названием");
+        }
+        if (category.getType() == null) {
+            throw new IllegalArgumentException("Найдена категория без типа");
         }
     }
 }
@@ -0,0 +1,54 @@
+package com.hsebank.finance.importer.json;
+
+import com.hsebank.finance.importer.DataImporter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Общая часть JSON-импортёров: разбор массива объектов (или одного объекта) через {@link JsonReader}.
+ * Наследники описывают только чтение одного объекта.
+ */
+public abstract class JsonDataImporter<T> extends DataImporter<T> {
+
+    @Override
+    protected List<T> parseData(String content) {
+        List<T> records = new ArrayList<>();
+
+        try (JsonReader reader = new JsonReader(new StringReader(content))) {
+            readRecords(reader, records::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return records;
+    }
+
+    @Override
+    protected void parseStream(BufferedReader in, Consumer<T> sink) throws IOException {
+        readRecords(new JsonReader(in), sink);
+    }
+
+    /**
+     * Читает один объект. Неизвестные поля следует пропускать через {@link JsonReader#skipValue()}.
+     */
+    protected abstract T readRecord(JsonReader reader) throws IOException;
+
+    private void readRecords(JsonReader reader, Consumer<T> sink) throws IOException {
+        if (reader.peek() == JsonReader.Token.BEGIN_OBJECT) {
+            sink.accept(readRecord(reader));
+            return;
+        }
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            sink.accept(readRecord(reader));
+        }
+        reader.endArray();
+    }
+}
@@ -0,0 +1,404 @@
+package com.hsebank.finance.repository;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.repository.columnar.ColumnDictionary;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Колоночное in-memory хранилище операций для аналитики.
+ *
+ * <p>Каждое поле операции хранится в отдельном массиве, строка таблицы — индекс в массивах:
+ * <ul>
+ *   <li>сумма — long[] в единицах общей шкалы колонки (по умолчанию копейки) и byte[] исходной шкалы,
+ *       чтобы вернуть BigDecimal в точности как сохранили;</li>
+ *   <li>дата — int[] дней от эпохи;</li>
+ *   <li>тип — byte[];</li>
+ *   <li>счёт и категория — int[] номеров в {@link ColumnDictionary}.</li>
+ * </ul>
+ * Суммы и группировки ({@link #sum}, {@link #sumByCategory}, {@link #sumByAccount}) — простые циклы по
+ * примитивным массивам без разыменования объектов. Операции отдаются наружу копиями, собранными из колонок:
+ * изменения объекта после save нужно сохранять повторно.
+ *
+ * <p>Если приходит сумма точнее шкалы колонки, вся колонка пересчитывается в более мелкие единицы.
+ * Суммы, не помещающиеся в long в этих единицах, отклоняются.
+ * Удаление переносит последнюю строку на место удалённой, поэтому порядок строк не сохраняется.
+ * Не потокобезопасен, как и {@link InMemoryOperationRepository}.
+ */
+public class ColumnarOperationRepository implements OperationRepository {
+    private static final int DEFAULT_SCALE = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+    private final Map<String, Integer> rows = new HashMap<>();
+    private final ColumnDictionary accounts = new ColumnDictionary();
+    private final ColumnDictionary categories = new ColumnDictionary();
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private byte[] scales = new byte[INITIAL_CAPACITY];
+    private int[] days = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] accountCodes = new int[INITIAL_CAPACITY];
+    private int[] categoryCodes = new int[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private int size;
+
+    private int amountScale = DEFAULT_SCALE;
+    // Верхняя оценка модуля сумм: пока size * maxAbsAmount помещается в long, суммы считаются без проверок
+    private long maxAbsAmount;
+
+    private final Collection<Operation> view = new AbstractCollection<>() {
+        @Override
+        public Iterator<Operation> iterator() {
+            return new Iterator<>() {
+                private int row;
+
+                @Override
+                public boolean hasNext() {
+                    return row < size;
+                }
+
+                @Override
+                public Operation next() {
+                    if (row >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return materialize(row++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    @Override
+    public void save(Operation entity) {
+        if (entity.getId() == null) {
+            throw new IllegalArgumentException("ID операции не может быть пустым");
+        }
+        long amount = toUnscaled(entity.getAmount());
+        int day = toDay(entity.getDate());
+
+        Integer row = rows.get(entity.getId());
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rows.put(entity.getId(), row);
+            ids[row] = entity.getId();
+        }
+
+        amounts[row] = amount;
+        scales[row] = entity.getAmount() == null ? NULL_SCALE : (byte) entity.getAmount().scale();
+        days[row] = day;
+        types[row] = typeCode(entity.getType());
+        accountCodes[row] = accounts.encode(entity.getBankAccountId());
+        categoryCodes[row] = categories.encode(entity.getCategoryId());
+        descriptions[row] = entity.getDescription();
+        maxAbsAmount = Math.max(maxAbsAmount, Math.abs(amount));
+    }
+
+    @Override
+    public Optional<Operation> findById(String id) {
+        Integer row = rows.get(id);
+        return row == null ? Optional.empty() : Optional.of(materialize(row));
+    }
+
+    @Override
+    public List<Operation> findAll() {
+        List<Operation> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            result.add(materialize(row));
+        }
+        return result;
+    }
+
+    /**
+     * Представление, собирающее операции из колонок по мере обхода.
+     */
+    @Override
+    public Collection<Operation> findAllView() {
+        return view;
+    }
+
+    @Override
+    public int count() {
+        return size;
+    }
+
+    @Override
+    public void delete(String id) {
+        Integer row = rows.remove(id);
+        if (row == null) {
+            return;
+        }
+
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            amounts[row] = amounts[last];
+            scales[row] = scales[last];
+            days[row] = days[last];
+            types[row] = types[last];
+            accountCodes[row] = accountCodes[last];
+            categoryCodes[row] = categoryCodes[last];
+            descriptions[row] = descriptions[last];
+            rows.put(ids[row], row);
+        }
+        ids[last] = null;
+        descriptions[last] = null;
+    }
+
+    @Override
+    public List<Operation> findByBankAccountId(String bankAccountId) {
+        int code = accounts.find(bankAccountId);
+        return code == ColumnDictionary.ABSENT ? new ArrayList<>() : select(accountCodes, code, lowerDay(null), upperDay(null));
+    }
+
+    @Override
+    public List<Operation> findByCategoryId(String categoryId) {
+        int code = categories.find(categoryId);
+        return code == ColumnDictionary.ABSENT ? new ArrayList<>() : select(categoryCodes, code, lowerDay(null), upperDay(null));
+    }
+
+    @Override
+    public List<Operation> findByDateRange(LocalDate from, LocalDate to) {
+        return select(null, 0, lowerDay(from), upperDay(to));
+    }
+
+    @Override
+    public List<Operation> findByBankAccountIdAndDateRange(String bankAccountId, LocalDate from, LocalDate to) {
+        int code = accounts.find(bankAccountId);
+        return code == ColumnDictionary.ABSENT ? new ArrayList<>() : select(accountCodes, code, lowerDay(from), upperDay(to));
+    }
+
+    /**
+     * Сумма операций типа type (null — любого) с датой в [from, to]; null-граница не ограничивает.
+     */
+    public BigDecimal sum(OperationType type, LocalDate from, LocalDate to) {
+        byte code = typeCode(type);
+        int lo = lowerDay(from);
+        int hi = upperDay(to);
+
+        if (!fitsInLong()) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < size; i++) {
+                if ((code == 0 || types[i] == code) && days[i] >= lo && days[i] <= hi) {
+                    total = total.add(BigDecimal.valueOf(amounts[i], amountScale));
+                }
+            }
+            return total;
+        }
+
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            int day = days[i];
+            boolean match = (code == 0 || types[i] == code) && day >= lo && day <= hi;
+            total += match ? amounts[i] : 0;
+        }
+        return BigDecimal.valueOf(total, amountScale);
+    }
+
+    /**
+     * Суммы операций типа type (null — любого) с датой в [from, to] по категориям.
+     */
+    public Map<String, BigDecimal> sumByCategory(OperationType type, LocalDate from, LocalDate to) {
+        return sumBy(categoryCodes, categories, type, from, to);
+    }
+
+    /**
+     * Суммы операций типа type (null — любого) с датой в [from, to] по счетам.
+     */
+    public Map<String, BigDecimal> sumByAccount(OperationType type, LocalDate from, LocalDate to) {
+        return sumBy(accountCodes, accounts, type, from, to);
+    }
+
+    private Map<String, BigDecimal> sumBy(int[] groups, ColumnDictionary dictionary,
+                                          OperationType type, LocalDate from, LocalDate to) {
+        byte code = typeCode(type);
+        int lo = lowerDay(from);
+        int hi = upperDay(to);
+        int groupCount = dictionary.size();
+        int[] counts = new int[groupCount];
+        Map<String, BigDecimal> result = new HashMap<>();
+
+        if (!fitsInLong()) {
+            BigInteger[] sums = new BigInteger[groupCount];
+            Arrays.fill(sums, BigInteger.ZERO);
+            for (int i = 0; i < size; i++) {
+                if ((code == 0 || types[i] == code) && days[i] >= lo && days[i] <= hi) {
+                    sums[groups[i]] = sums[groups[i]].add(BigInteger.valueOf(amounts[i]));
+                    counts[groups[i]]++;
+                }
+            }
+            for (int group = 0; group < groupCount; group++) {
+                if (counts[group] > 0) {
+                    result.put(dictionary.decode(group), new BigDecimal(sums[group], amountScale));
+                }
+            }
+            return result;
+        }
+
+        long[] sums = new long[groupCount];
+        for (int i = 0; i < size; i++) {
+            int day = days[i];
+            if ((code == 0 || types[i] == code) && day >= lo && day <= hi) {
+                int group = groups[i];
+                sums[group] += amounts[i];
+                counts[group]++;
+            }
+        }
+        for (int group = 0; group < groupCount; group++) {
+            if (counts[group] > 0) {
+                result.put(dictionary.decode(group), BigDecimal.valueOf(sums[group], amountScale));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Строки с кодом code в колонке column (null — без условия) и датой в [lo, hi], упорядоченные по дате.
+     */
+    private List<Operation> select(int[] column, int code, int lo, int hi) {
+        long[] keys = new long[16];
+        int found = 0;
+        for (int i = 0; i < size; i++) {
+            int day = days[i];
+            if ((column == null || column[i] == code) && day >= lo && day <= hi) {
+                if (found == keys.length) {
+                    keys = Arrays.copyOf(keys, found * 2);
+                }
+                // Дата в старших битах, строка в младших: сортировка long даёт порядок по дате
+                keys[found++] = ((long) day << 32) | i;
+            }
+        }
+        Arrays.sort(keys, 0, found);
+
+        List<Operation> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            result.add(materialize((int) keys[i]));
+        }
+        return result;
+    }
+
+    private Operation materialize(int row) {
+        BigDecimal amount = scales[row] == NULL_SCALE
+                ? null
+                : BigDecimal.valueOf(amounts[row], amountScale).setScale(scales[row]);
+        LocalDate date = days[row] == NULL_DATE ? null : LocalDate.ofEpochDay(days[row]);
+        return new Operation(ids[row], typeOf(types[row]), accounts.decode(accountCodes[row]), amount, date,
+                categories.decode(categoryCodes[row]), descriptions[row]);
+    }
+
+    /**
+     * Переводит сумму в единицы колонки, при необходимости измельчая шкалу всей колонки.
+     */
+    private long toUnscaled(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        if (amount.scale() <= NULL_SCALE || amount.scale() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Недопустимая шкала суммы: " + amount);
+        }
+        if (amount.scale() > amountScale) {
+            rescale(amount.scale());
+        }
+        BigInteger unscaled = amount.setScale(amountScale).unscaledValue();
+        if (unscaled.bitLength() >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Сумма слишком велика для колоночного хранилища: " + amount);
+        }
+        return unscaled.longValue();
+    }
+
+    private void rescale(int scale) {
+        long factor = BigInteger.TEN.pow(scale - amountScale).longValueExact();
+        long[] rescaled = new long[amounts.length];
+        try {
+            for (int i = 0; i < size; i++) {
+                rescaled[i] = Math.multiplyExact(amounts[i], factor);
+            }
+            maxAbsAmount = Math.multiplyExact(maxAbsAmount, factor);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Сумма точнее " + amountScale
+                    + " знаков не помещается в колонку вместе с уже сохранёнными", e);
+        }
+        amounts = rescaled;
+        amountScale = scale;
+    }
+
+    private boolean fitsInLong() {
+        return size == 0 || maxAbsAmount <= Long.MAX_VALUE / size;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        amounts = Arrays.copyOf(amounts, grown);
+        scales = Arrays.copyOf(scales, grown);
+        days = Arrays.copyOf(days, grown);
+        types = Arrays.copyOf(types, grown);
+        accountCodes = Arrays.copyOf(accountCodes, grown);
+        categoryCodes = Arrays.copyOf(categoryCodes, grown);
+        descriptions = Arrays.copyOf(descriptions, grown);
+    }
+
+    private static int toDay(LocalDate date) {
+        return date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    /**
+     * Нижняя граница в днях; без границы в диапазон попадают и операции без даты.
+     */
+    private static int lowerDay(LocalDate from) {
+        return from == null ? NULL_DATE : (int) Math.max(NULL_DATE + 1L, from.toEpochDay());
+    }
+
+    private static int upperDay(LocalDate to) {
+        return to == null ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, to.toEpochDay());
+    }
+
+    private static byte typeCode(OperationType type) {
+        if (type == null) {
+            return 0;
+        }
+        switch (type) {
+            case INCOME:
+                return 1;
+            case EXPENSE:
+                return 2;
+            default:
+                throw new IllegalArgumentException("Неизвестный тип операции: " + type);
+        }
+    }
+
+    private static OperationType typeOf(byte code) {
+        switch (code) {
+            case 1:
+                return OperationType.INCOME;
+            case 2:
+                return OperationType.EXPENSE;
+            default:
+                return null;
+        }
+    }
+}
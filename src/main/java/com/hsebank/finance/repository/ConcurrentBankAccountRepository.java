@@ -0,0 +1,58 @@
+package com.hsebank.finance.repository;
+
+import com.hsebank.finance.domain.model.BankAccount;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Потокобезопасная in-memory реализация репозитория банковских счетов.
+ * save/findById/delete/remove линеаризуемы (операции ConcurrentHashMap над одним ключом),
+ * findAll возвращает слабо согласованный снимок без блокировки пишущих потоков,
+ * findAllView/stream/forEach — слабо согласованный обход без копирования.
+ */
+public class ConcurrentBankAccountRepository implements Repository<BankAccount, String> {
+
+    private final ConcurrentMap<String, BankAccount> storage = new ConcurrentHashMap<>();
+    private final Collection<BankAccount> view = Collections.unmodifiableCollection(storage.values());
+
+    @Override
+    public void save(BankAccount entity) {
+        storage.put(entity.getId(), entity);
+    }
+
+    @Override
+    public Optional<BankAccount> findById(String id) {
+        return Optional.ofNullable(storage.get(id));
+    }
+
+    @Override
+    public List<BankAccount> findAll() {
+        return new ArrayList<>(storage.values());
+    }
+
+    @Override
+    public Collection<BankAccount> findAllView() {
+        return view;
+    }
+
+    @Override
+    public int count() {
+        return storage.size();
+    }
+
+    @Override
+    public void delete(String id) {
+        storage.remove(id);
+    }
+
+    @Override
+    public Optional<BankAccount> remove(String id) {
+        return Optional.ofNullable(storage.remove(id));
+    }
+}
@@ -11,6 +11,7 @@ import java.util.*;
 public class InMemoryBankAccountRepository implements Repository<BankAccount, String> {
 
     private final Map<String, BankAccount> storage = new HashMap<>();
+    private final Collection<BankAccount> view = Collections.unmodifiableCollection(storage.values());
 
     @Override
     public void save(BankAccount entity) {
@@ -27,6 +28,16 @@ public class InMemoryBankAccountRepository implements Repository<BankAccount, St
         return new ArrayList<>(storage.values());
     }
 
+    @Override
+    public Collection<BankAccount> findAllView() {
+        return view;
+    }
+
+    @Override
+    public int count() {
+        return storage.size();
+    }
+
     @Override
     public void delete(String id) {
         storage.remove(id);
@@ -11,6 +11,7 @@ import java.util.*;
 public class InMemoryCategoryRepository implements Repository<Category, String> {
 
     private final Map<String, Category> storage = new HashMap<>();
+    private final Collection<Category> view = Collections.unmodifiableCollection(storage.values());
 
     @Override
     public void save(Category entity) {
@@ -27,6 +28,16 @@ public class InMemoryCategoryRepository implements Repository<Category, String>
         return new ArrayList<>(storage.values());
     }
 
+    @Override
+    public Collection<Category> findAllView() {
+        return view;
+    }
+
+    @Override
+    public int count() {
+        return storage.size();
+    }
+
     @Override
     public void delete(String id) {
         storage.remove(id);
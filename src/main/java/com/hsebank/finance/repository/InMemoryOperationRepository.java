@@ -2,19 +2,31 @@ package com.hsebank.finance.repository;
 
 import com.hsebank.finance.domain.model.Operation;
 
+import java.time.LocalDate;
 import java.util.*;
 
 /**
  * In-memory реализация репозитория для операций.
  * Используется без подключения к внешним хранилищам.
+ * Поддерживает вторичные индексы по счёту, категории и дате, которые обновляются при save/delete,
+ * поэтому выборки стоят O(размер результата), а не O(все операции).
  */
-public class InMemoryOperationRepository implements Repository<Operation, String> {
+public class InMemoryOperationRepository implements OperationRepository {
 
     private final Map<String, Operation> storage = new HashMap<>();
+    private final Collection<Operation> view = Collections.unmodifiableCollection(storage.values());
+
+    // Ключи, под которыми операция лежит в индексах: сущность изменяема, поэтому старые значения храним отдельно
+    private final Map<String, IndexKeys> indexedKeys = new HashMap<>();
+    private final Map<String, NavigableMap<LocalDate, Map<String, Operation>>> byAccount = new HashMap<>();
+    private final Map<String, NavigableMap<LocalDate, Map<String, Operation>>> byCategory = new HashMap<>();
+    private final NavigableMap<LocalDate, Map<String, Operation>> byDate = new TreeMap<>();
 
     @Override
     public void save(Operation entity) {
+        unindex(entity.getId());
         storage.put(entity.getId(), entity);
+        index(entity);
     }
 
     @Override
@@ -27,8 +39,120 @@ public class InMemoryOperationRepository implements Repository<Operation, String
         return new ArrayList<>(storage.values());
     }
 
+    @Override
+    public Collection<Operation> findAllView() {
+        return view;
+    }
+
+    @Override
+    public int count() {
+        return storage.size();
+    }
+
     @Override
     public void delete(String id) {
+        unindex(id);
         storage.remove(id);
     }
+
+    @Override
+    public List<Operation> findByBankAccountId(String bankAccountId) {
+        NavigableMap<LocalDate, Map<String, Operation>> accountIndex = byAccount.get(bankAccountId);
+        return accountIndex == null ? new ArrayList<>() : flatten(accountIndex);
+    }
+
+    @Override
+    public List<Operation> findByCategoryId(String categoryId) {
+        NavigableMap<LocalDate, Map<String, Operation>> categoryIndex = byCategory.get(categoryId);
+        return categoryIndex == null ? new ArrayList<>() : flatten(categoryIndex);
+    }
+
+    @Override
+    public List<Operation> findByDateRange(LocalDate from, LocalDate to) {
+        return flatten(byDate.subMap(from, true, to, true));
+    }
+
+    @Override
+    public List<Operation> findByBankAccountIdAndDateRange(String bankAccountId, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Map<String, Operation>> accountIndex = byAccount.get(bankAccountId);
+        return accountIndex == null ? new ArrayList<>() : flatten(accountIndex.subMap(from, true, to, true));
+    }
+
+    private void index(Operation operation) {
+        IndexKeys keys = new IndexKeys(operation.getBankAccountId(), operation.getCategoryId(), operation.getDate());
+        indexedKeys.put(operation.getId(), keys);
+
+        LocalDate dateKey = dateKey(keys.date);
+        if (keys.bankAccountId != null) {
+            addTo(byAccount.computeIfAbsent(keys.bankAccountId, k -> new TreeMap<>()), dateKey, operation);
+        }
+        if (keys.categoryId != null) {
+            addTo(byCategory.computeIfAbsent(keys.categoryId, k -> new TreeMap<>()), dateKey, operation);
+        }
+        addTo(byDate, dateKey, operation);
+    }
+
+    private void unindex(String id) {
+        IndexKeys keys = indexedKeys.remove(id);
+        if (keys == null) {
+            return;
+        }
+
+        LocalDate dateKey = dateKey(keys.date);
+        if (keys.bankAccountId != null) {
+            removeFrom(byAccount, keys.bankAccountId, dateKey, id);
+        }
+        if (keys.categoryId != null) {
+            removeFrom(byCategory, keys.categoryId, dateKey, id);
+        }
+        removeFrom(byDate, dateKey, id);
+    }
+
+    private static void addTo(NavigableMap<LocalDate, Map<String, Operation>> index, LocalDate date, Operation operation) {
+        index.computeIfAbsent(date, k -> new LinkedHashMap<>()).put(operation.getId(), operation);
+    }
+
+    private static void removeFrom(Map<String, NavigableMap<LocalDate, Map<String, Operation>>> indexes,
+                                   String key, LocalDate date, String id) {
+        NavigableMap<LocalDate, Map<String, Operation>> index = indexes.get(key);
+        removeFrom(index, date, id);
+        if (index.isEmpty()) {
+            indexes.remove(key);
+        }
+    }
+
+    private static void removeFrom(NavigableMap<LocalDate, Map<String, Operation>> index, LocalDate date, String id) {
+        Map<String, Operation> day = index.get(date);
+        day.remove(id);
+        if (day.isEmpty()) {
+            index.remove(date);
+        }
+    }
+
+    private static List<Operation> flatten(NavigableMap<LocalDate, Map<String, Operation>> index) {
+        List<Operation> result = new ArrayList<>();
+        for (Map<String, Operation> day : index.values()) {
+            result.addAll(day.values());
+        }
+        return result;
+    }
+
+    /**
+     * Операции без даты индексируются под LocalDate.MIN и не попадают в выборки по диапазону.
+     */
+    private static LocalDate dateKey(LocalDate date) {
+        return date != null ? date : LocalDate.MIN;
+    }
+
+    private static final class IndexKeys {
+        final String bankAccountId;
+        final String categoryId;
+        final LocalDate date;
+
+        IndexKeys(String bankAccountId, String categoryId, LocalDate date) {
+            this.bankAccountId = bankAccountId;
+            this.categoryId = categoryId;
+            this.date = date;
+        }
+    }
 }
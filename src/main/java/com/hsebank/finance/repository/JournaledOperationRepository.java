@@ -0,0 +1,228 @@
+package com.hsebank.finance.repository;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.repository.journal.OperationJournal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Долговечный репозиторий операций: данные живут в индексированном in-memory репозитории,
+ * каждое изменение пишется в журнал на дозапись ({@link OperationJournal}).
+ * При открытии журнал проигрывается и восстанавливает состояние на момент последней зафиксированной записи.
+ *
+ * <p>save/saveAll/delete/deleteAll возвращают управление только после fsync.
+ * Ожидание идёт вне блокировки, поэтому параллельные вызовы попадают в одну групповую фиксацию.
+ * Память меняется только после того, как журнал подтвердил запись: при ошибке записи изменение не видно.
+ * Потокобезопасен.
+ */
+public class JournaledOperationRepository implements OperationRepository, Closeable {
+
+    private final InMemoryOperationRepository memory = new InMemoryOperationRepository();
+    private final OperationJournal journal;
+    // Позиция журнала, до которой изменения уже применены к памяти; защищена блокировкой memory
+    private long appliedPosition;
+
+    public JournaledOperationRepository(Path journalPath) throws IOException {
+        this(journalPath, true);
+    }
+
+    /**
+     * @param sync false отключает fsync — только для тестов и замеров
+     */
+    public JournaledOperationRepository(Path journalPath, boolean sync) throws IOException {
+        this(journalPath, List.of(), sync);
+    }
+
+    /**
+     * Открывает журнал поверх состояния из снимка: сначала в память загружается снимок,
+     * затем проигрывается журнал. Записи журнала, уже учтённые в снимке, применяются повторно —
+     * это безопасно, так как каждая запись содержит полное состояние операции, и побеждает последняя.
+     */
+    public JournaledOperationRepository(Path journalPath, Collection<Operation> snapshot, boolean sync) throws IOException {
+        memory.saveAll(snapshot);
+        this.journal = new OperationJournal(journalPath, new OperationJournal.ReplayHandler() {
+            @Override
+            public void put(Operation operation) {
+                memory.save(operation);
+            }
+
+            @Override
+            public void delete(String id) {
+                memory.delete(id);
+            }
+        }, sync);
+        this.appliedPosition = journal.getAppendedPosition();
+    }
+
+    @Override
+    public void save(Operation entity) {
+        // Кодируем до блокировки: некорректная сущность не должна оставить следов ни в памяти, ни в журнале
+        ByteBuffer record = OperationJournal.put(entity);
+
+        write(List.of(record), () -> memory.save(entity));
+    }
+
+    @Override
+    public void saveAll(Collection<? extends Operation> entities) {
+        List<ByteBuffer> records = new ArrayList<>(entities.size());
+        for (Operation entity : entities) {
+            records.add(OperationJournal.put(entity));
+        }
+
+        write(records, () -> memory.saveAll(entities));
+    }
+
+    @Override
+    public void delete(String id) {
+        ByteBuffer record = OperationJournal.delete(id);
+
+        write(List.of(record), () -> memory.delete(id));
+    }
+
+    @Override
+    public void deleteAll(Collection<? extends String> ids) {
+        List<ByteBuffer> records = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            records.add(OperationJournal.delete(id));
+        }
+
+        write(records, () -> memory.deleteAll(ids));
+    }
+
+    /**
+     * Удаление решается при применении к памяти, в порядке журнала: из одновременных вызовов
+     * операцию получает тот, чья запись в журнале первая, остальные — пустой результат.
+     */
+    @Override
+    public Optional<Operation> remove(String id) {
+        ByteBuffer record = OperationJournal.delete(id);
+
+        return commit(List.of(record), () -> memory.remove(id));
+    }
+
+    @Override
+    public List<Operation> removeAll(Collection<? extends String> ids) {
+        List<ByteBuffer> records = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            records.add(OperationJournal.delete(id));
+        }
+
+        return commit(records, () -> memory.removeAll(ids));
+    }
+
+    @Override
+    public Optional<Operation> findById(String id) {
+        synchronized (memory) {
+            return memory.findById(id);
+        }
+    }
+
+    @Override
+    public List<Operation> findAll() {
+        synchronized (memory) {
+            return memory.findAll();
+        }
+    }
+
+    @Override
+    public int count() {
+        synchronized (memory) {
+            return memory.count();
+        }
+    }
+
+    @Override
+    public List<Operation> findByBankAccountId(String bankAccountId) {
+        synchronized (memory) {
+            return memory.findByBankAccountId(bankAccountId);
+        }
+    }
+
+    @Override
+    public List<Operation> findByCategoryId(String categoryId) {
+        synchronized (memory) {
+            return memory.findByCategoryId(categoryId);
+        }
+    }
+
+    @Override
+    public List<Operation> findByDateRange(LocalDate from, LocalDate to) {
+        synchronized (memory) {
+            return memory.findByDateRange(from, to);
+        }
+    }
+
+    @Override
+    public List<Operation> findByBankAccountIdAndDateRange(String bankAccountId, LocalDate from, LocalDate to) {
+        synchronized (memory) {
+            return memory.findByBankAccountIdAndDateRange(bankAccountId, from, to);
+        }
+    }
+
+    /**
+     * Копирует ссылки на все операции в target и возвращает позицию журнала, которой соответствует копия.
+     * Под блокировкой выполняется только копирование ссылок; сериализация снимка идёт уже без неё.
+     */
+    public long capture(Collection<Operation> target) {
+        synchronized (memory) {
+            target.addAll(memory.findAllView());
+            return appliedPosition;
+        }
+    }
+
+    /**
+     * Отбрасывает из журнала записи, уже сохранённые в снимке на позиции position.
+     */
+    public void compactJournal(long position) {
+        OperationJournal.await(journal.compact(position));
+    }
+
+    /**
+     * Сколько байт повреждённого хвоста журнала было отброшено при восстановлении.
+     */
+    public long getRecoveredTruncatedBytes() {
+        return journal.getTruncatedBytes();
+    }
+
+    /**
+     * Ставит записи в журнал и применяет изменение к памяти после их фиксации, в порядке журнала:
+     * обработчик регистрируется под той же блокировкой, что и запись, а журнал подтверждает записи по порядку.
+     */
+    private <R> R commit(List<ByteBuffer> records, Supplier<R> change) {
+        CompletableFuture<R> applied;
+        synchronized (memory) {
+            CompletableFuture<Void> written = journal.append(records);
+            long position = journal.getAppendedPosition();
+            applied = written.thenApply(ignored -> {
+                synchronized (memory) {
+                    R result = change.get();
+                    appliedPosition = position;
+                    return result;
+                }
+            });
+        }
+        return OperationJournal.await(applied);
+    }
+
+    private void write(List<ByteBuffer> records, Runnable change) {
+        commit(records, () -> {
+            change.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+}
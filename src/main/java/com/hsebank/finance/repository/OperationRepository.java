@@ -0,0 +1,33 @@
+package com.hsebank.finance.repository;
+
+import com.hsebank.finance.domain.model.Operation;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий операций с запросами по вторичным ключам.
+ * Результаты упорядочены по дате операции.
+ */
+public interface OperationRepository extends Repository<Operation, String> {
+
+    /**
+     * Возвращает операции по счёту.
+     */
+    List<Operation> findByBankAccountId(String bankAccountId);
+
+    /**
+     * Возвращает операции по категории.
+     */
+    List<Operation> findByCategoryId(String categoryId);
+
+    /**
+     * Возвращает операции с датой в диапазоне [from, to] включительно.
+     */
+    List<Operation> findByDateRange(LocalDate from, LocalDate to);
+
+    /**
+     * Возвращает операции по счёту с датой в диапазоне [from, to] включительно (выписка по счёту).
+     */
+    List<Operation> findByBankAccountIdAndDateRange(String bankAccountId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,409 @@
+package com.hsebank.finance.repository;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.repository.codec.EntityCodec;
+import com.hsebank.finance.repository.paged.BPlusTree;
+import com.hsebank.finance.repository.paged.MappedFile;
+import com.hsebank.finance.repository.paged.PageStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Репозиторий операций на диске для объёмов, которые не помещаются в кучу.
+ *
+ * <p>Две части в каталоге хранилища:
+ * <ul>
+ *   <li>operations.dat — записи операций подряд ([длина : int][{@link EntityCodec}]); новая версия
+ *       операции дописывается в конец, старая остаётся мусором;</li>
+ *   <li>operations.idx — страницы двух B+-деревьев: по id и по (дата, id). Значение в обоих —
+ *       смещение записи в operations.dat.</li>
+ * </ul>
+ * Оба файла отображены в память, поэтому поиск по id и выборка по датам читают только нужные
+ * страницы. В куче живут лишь узлы из LRU-кэша размером cachedPages.
+ *
+ * <p>Операции хранятся копиями: изменения объекта после save нужно сохранять повторно.
+ * Выборки по счёту и категории проходят по дереву дат целиком — вторичных индексов для них нет.
+ *
+ * <p>Изменения попадают на диск при {@link #flush()} и {@link #close()}; после аварийного завершения
+ * без них хранилище может оказаться несогласованным. Для долговечности каждой записи —
+ * {@link JournaledOperationRepository}. Потокобезопасен: все обращения сериализуются.
+ */
+public class PagedOperationRepository implements OperationRepository, Closeable {
+    private static final int PRIMARY_ROOT = 0;
+    private static final int DATE_ROOT = 1;
+    private static final int COUNT = 2;
+    private static final int DATA_END = 3;
+
+    private static final int ITERATION_BATCH = 1024;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private final PageStore pages;
+    private final MappedFile data;
+    private final BPlusTree primary;
+    private final BPlusTree byDate;
+    private final Collection<Operation> view = new AbstractCollection<>() {
+        @Override
+        public Iterator<Operation> iterator() {
+            return new OperationIterator();
+        }
+
+        @Override
+        public int size() {
+            return count();
+        }
+    };
+
+    private final byte[] lengthBuffer = new byte[Integer.BYTES];
+    private long dataEnd;
+    private int count;
+
+    /**
+     * Открывает хранилище в каталоге directory, создавая файлы при первом открытии.
+     *
+     * @param cachedPages сколько страниц индекса держать раскодированными в куче
+     */
+    public PagedOperationRepository(Path directory, int cachedPages) throws IOException {
+        this.pages = new PageStore(directory.resolve("operations.idx"), cachedPages);
+        this.data = new MappedFile(directory.resolve("operations.dat"));
+
+        if (pages.isCreated()) {
+            this.primary = new BPlusTree(pages);
+            this.byDate = new BPlusTree(pages);
+        } else {
+            this.primary = new BPlusTree(pages, pages.getMeta(PRIMARY_ROOT));
+            this.byDate = new BPlusTree(pages, pages.getMeta(DATE_ROOT));
+            this.count = (int) pages.getMeta(COUNT);
+            this.dataEnd = pages.getMeta(DATA_END);
+        }
+    }
+
+    @Override
+    public synchronized void save(Operation entity) {
+        put(entity);
+        pages.trim();
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<? extends Operation> entities) {
+        for (Operation entity : entities) {
+            put(entity);
+            pages.trim();
+        }
+    }
+
+    @Override
+    public synchronized Optional<Operation> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        long offset = primary.get(idKey(id));
+        Optional<Operation> result = offset == BPlusTree.NOT_FOUND ? Optional.empty() : Optional.of(read(offset));
+        pages.trim();
+        return result;
+    }
+
+    /**
+     * Читает всё хранилище в память. Для больших объёмов — {@link #stream()} и {@link #forEach(Consumer)}.
+     */
+    @Override
+    public List<Operation> findAll() {
+        List<Operation> result = new ArrayList<>(count());
+        forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Ленивое представление: операции читаются с диска порциями по мере обхода (в порядке id).
+     */
+    @Override
+    public Collection<Operation> findAllView() {
+        return view;
+    }
+
+    @Override
+    public Stream<Operation> stream() {
+        Spliterator<Operation> spliterator = Spliterators.spliterator(new OperationIterator(), count(),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Operation> action) {
+        Iterator<Operation> iterator = new OperationIterator();
+        while (iterator.hasNext()) {
+            action.accept(iterator.next());
+        }
+    }
+
+    @Override
+    public synchronized int count() {
+        return count;
+    }
+
+    @Override
+    public synchronized void delete(String id) {
+        removeRecord(id);
+        pages.trim();
+    }
+
+    @Override
+    public synchronized void deleteAll(Collection<? extends String> ids) {
+        for (String id : ids) {
+            removeRecord(id);
+            pages.trim();
+        }
+    }
+
+    @Override
+    public synchronized Optional<Operation> remove(String id) {
+        Operation removed = removeRecord(id);
+        pages.trim();
+        return Optional.ofNullable(removed);
+    }
+
+    @Override
+    public synchronized List<Operation> removeAll(Collection<? extends String> ids) {
+        List<Operation> removed = new ArrayList<>();
+        for (String id : ids) {
+            Operation operation = removeRecord(id);
+            if (operation != null) {
+                removed.add(operation);
+            }
+            pages.trim();
+        }
+        return removed;
+    }
+
+    @Override
+    public List<Operation> findByBankAccountId(String bankAccountId) {
+        List<Operation> result = new ArrayList<>();
+        scanDates(null, null, operation -> {
+            if (bankAccountId.equals(operation.getBankAccountId())) {
+                result.add(operation);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public List<Operation> findByCategoryId(String categoryId) {
+        List<Operation> result = new ArrayList<>();
+        scanDates(null, null, operation -> {
+            if (categoryId.equals(operation.getCategoryId())) {
+                result.add(operation);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public List<Operation> findByDateRange(LocalDate from, LocalDate to) {
+        List<Operation> result = new ArrayList<>();
+        scanDates(from, to, result::add);
+        return result;
+    }
+
+    @Override
+    public List<Operation> findByBankAccountIdAndDateRange(String bankAccountId, LocalDate from, LocalDate to) {
+        List<Operation> result = new ArrayList<>();
+        scanDates(from, to, operation -> {
+            if (bankAccountId.equals(operation.getBankAccountId())) {
+                result.add(operation);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Записывает изменённые страницы индекса и сбрасывает оба файла на диск.
+     */
+    public synchronized void flush() {
+        pages.setMeta(PRIMARY_ROOT, primary.getRoot());
+        pages.setMeta(DATE_ROOT, byDate.getRoot());
+        pages.setMeta(COUNT, count);
+        pages.setMeta(DATA_END, dataEnd);
+        data.force();
+        pages.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        data.close();
+        pages.close();
+    }
+
+    private void put(Operation entity) {
+        if (entity.getId() == null) {
+            throw new IllegalArgumentException("ID операции не может быть пустым");
+        }
+        byte[] key = idKey(entity.getId());
+        if (key.length > BPlusTree.MAX_KEY_LENGTH - Integer.BYTES) {
+            throw new IllegalArgumentException("ID операции длиннее "
+                    + (BPlusTree.MAX_KEY_LENGTH - Integer.BYTES) + " байт");
+        }
+
+        long previous = primary.get(key);
+        if (previous != BPlusTree.NOT_FOUND) {
+            byDate.remove(dateKey(read(previous).getDate(), entity.getId()));
+        } else {
+            count++;
+        }
+
+        long offset = append(entity);
+        primary.put(key, offset);
+        byDate.put(dateKey(entity.getDate(), entity.getId()), offset);
+    }
+
+    /**
+     * Убирает операцию из индексов и возвращает её; null — операции не было.
+     */
+    private Operation removeRecord(String id) {
+        if (id == null) {
+            return null;
+        }
+        long offset = primary.remove(idKey(id));
+        if (offset == BPlusTree.NOT_FOUND) {
+            return null;
+        }
+        Operation removed = read(offset);
+        byDate.remove(dateKey(removed.getDate(), id));
+        count--;
+        return removed;
+    }
+
+    /**
+     * Обходит операции с датой в [from, to] по возрастанию даты; null — граница не задана.
+     * Операции без даты идут первыми и попадают только в обход без нижней границы.
+     */
+    private synchronized void scanDates(LocalDate from, LocalDate to, Consumer<Operation> action) {
+        byte[] lower = from == null ? null : datePrefix(from.toEpochDay());
+        byte[] upper = to == null ? null : datePrefix(to.toEpochDay() + 1);
+        byDate.scan(lower, upper, (key, offset) -> {
+            action.accept(read(offset));
+            return true;
+        });
+        pages.trim();
+    }
+
+    private long append(Operation operation) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            EntityCodec.writeOperation(out, operation);
+            out.flush();
+
+            byte[] record = bytes.toByteArray();
+            ByteBuffer.wrap(record).putInt(0, record.length - Integer.BYTES);
+
+            long offset = dataEnd;
+            data.write(offset, record, 0, record.length);
+            dataEnd += record.length;
+            return offset;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Operation read(long offset) {
+        try {
+            data.read(offset, lengthBuffer, 0, Integer.BYTES);
+            byte[] record = new byte[ByteBuffer.wrap(lengthBuffer).getInt()];
+            data.read(offset + Integer.BYTES, record, 0, record.length);
+            return EntityCodec.readOperation(new DataInputStream(new ByteArrayInputStream(record)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] idKey(String id) {
+        return id.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Ключ дерева дат: день от эпохи со сменой знакового бита (чтобы беззнаковое сравнение
+     * упорядочивало отрицательные дни раньше положительных), затем id.
+     */
+    private static byte[] dateKey(LocalDate date, String id) {
+        byte[] idBytes = idKey(id);
+        return ByteBuffer.allocate(Integer.BYTES + idBytes.length)
+                .putInt(epochDay(date) ^ Integer.MIN_VALUE)
+                .put(idBytes)
+                .array();
+    }
+
+    /**
+     * Граница диапазона дат; дни за пределами int (LocalDate.MIN/MAX) прижимаются к краям.
+     */
+    private static byte[] datePrefix(long epochDay) {
+        int day = (int) Math.max(NULL_DATE + 1L, Math.min(Integer.MAX_VALUE, epochDay));
+        return ByteBuffer.allocate(Integer.BYTES).putInt(day ^ Integer.MIN_VALUE).array();
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NULL_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    /**
+     * Обходит дерево по id порциями: каждая порция читается под блокировкой, между порциями
+     * репозиторий доступен другим потокам. Изменения во время обхода видны не всегда.
+     */
+    private final class OperationIterator implements Iterator<Operation> {
+        private final ArrayDeque<Operation> batch = new ArrayDeque<>();
+        private byte[] lastKey;
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            if (batch.isEmpty() && !exhausted) {
+                fetch();
+            }
+            return !batch.isEmpty();
+        }
+
+        @Override
+        public Operation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.poll();
+        }
+
+        private void fetch() {
+            synchronized (PagedOperationRepository.this) {
+                byte[] from = lastKey == null ? null : BPlusTree.successor(lastKey);
+                primary.scan(from, null, (key, offset) -> {
+                    batch.add(read(offset));
+                    lastKey = key;
+                    return batch.size() < ITERATION_BATCH;
+                });
+                pages.trim();
+            }
+            exhausted = batch.size() < ITERATION_BATCH;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.hsebank.finance.repository;
 
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Обобщённый интерфейс репозитория для хранения и доступа к сущностям.
@@ -30,4 +35,75 @@ public interface Repository<T, ID> {
      * Удаляет сущность по идентификатору.
      */
     void delete(ID id);
+
+    /**
+     * Сохраняет пачку сущностей. Реализации с накладными расходами на каждый вызов
+     * (журнал, файл) переопределяют метод, чтобы платить их один раз на пачку.
+     */
+    default void saveAll(Collection<? extends T> entities) {
+        for (T entity : entities) {
+            save(entity);
+        }
+    }
+
+    /**
+     * Удаляет пачку сущностей по идентификаторам.
+     */
+    default void deleteAll(Collection<? extends ID> ids) {
+        for (ID id : ids) {
+            delete(id);
+        }
+    }
+
+    /**
+     * Удаляет сущность и возвращает её, если она была. Из одновременных вызовов с одним идентификатором
+     * сущность получает только один — по этому результату вызывающий решает, отменять ли её последствия.
+     * По умолчанию — findById и delete без атомарности; потокобезопасные реализации переопределяют метод.
+     */
+    default Optional<T> remove(ID id) {
+        Optional<T> removed = findById(id);
+        delete(id);
+        return removed;
+    }
+
+    /**
+     * Удаляет пачку сущностей и возвращает те, что были удалены этим вызовом (см. {@link #remove}).
+     */
+    default List<T> removeAll(Collection<? extends ID> ids) {
+        List<T> removed = new ArrayList<>();
+        for (ID id : ids) {
+            remove(id).ifPresent(removed::add);
+        }
+        return removed;
+    }
+
+    /**
+     * Возвращает неизменяемое представление всех сущностей для чтения без копирования.
+     * Реализации поверх собственного хранилища отдают «живое» представление: изменения репозитория
+     * в нём видны сразу. По умолчанию — неизменяемая обёртка над findAll().
+     */
+    default Collection<T> findAllView() {
+        return Collections.unmodifiableList(findAll());
+    }
+
+    /**
+     * Поток по всем сущностям без промежуточной копии.
+     */
+    default Stream<T> stream() {
+        return findAllView().stream();
+    }
+
+    /**
+     * Выполняет действие для каждой сущности без промежуточной копии.
+     */
+    default void forEach(Consumer<? super T> action) {
+        findAllView().forEach(action);
+    }
+
+    /**
+     * Количество сохранённых сущностей.
+     */
+    default int count() {
+        return findAllView().size();
+    }
 }
@@ -0,0 +1,165 @@
+package com.hsebank.finance.repository.codec;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Category;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Двоичное представление сущностей для журнала и снимков. Все поля допускают null;
+ * строки пишутся как длина + UTF-8 без ограничения writeUTF в 64 КБ.
+ */
+public final class EntityCodec {
+    private static final int NULL_LENGTH = -1;
+
+    private EntityCodec() {
+    }
+
+    public static void writeOperation(DataOutput out, Operation operation) throws IOException {
+        writeString(out, operation.getId());
+        out.writeByte(typeCode(operation.getType()));
+        writeString(out, operation.getBankAccountId());
+        writeDecimal(out, operation.getAmount());
+        writeDate(out, operation.getDate());
+        writeString(out, operation.getCategoryId());
+        writeString(out, operation.getDescription());
+    }
+
+    public static Operation readOperation(DataInput in) throws IOException {
+        String id = readString(in);
+        OperationType type = typeOf(in.readByte());
+        String bankAccountId = readString(in);
+        BigDecimal amount = readDecimal(in);
+        LocalDate date = readDate(in);
+        String categoryId = readString(in);
+        String description = readString(in);
+
+        return new Operation(id, type, bankAccountId, amount, date, categoryId, description);
+    }
+
+    public static void writeAccount(DataOutput out, BankAccount account) throws IOException {
+        writeString(out, account.getId());
+        writeString(out, account.getName());
+        writeDecimal(out, account.getBalance());
+        writeDecimal(out, account.getOpeningBalance());
+    }
+
+    public static BankAccount readAccount(DataInput in) throws IOException {
+        BankAccount account = readAccountWithoutOpeningBalance(in);
+        account.setOpeningBalance(readDecimal(in));
+        return account;
+    }
+
+    /**
+     * Счёт в формате до появления входящего остатка (снимки версии 1): остаток принимается равным балансу.
+     */
+    public static BankAccount readAccountWithoutOpeningBalance(DataInput in) throws IOException {
+        return new BankAccount(readString(in), readString(in), readDecimal(in));
+    }
+
+    public static void writeCategory(DataOutput out, Category category) throws IOException {
+        writeString(out, category.getId());
+        out.writeByte(typeCode(category.getType()));
+        writeString(out, category.getName());
+    }
+
+    public static Category readCategory(DataInput in) throws IOException {
+        String id = readString(in);
+        OperationType type = typeOf(in.readByte());
+        return new Category(id, type, readString(in));
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Некорректная длина строки: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    public static BigDecimal readDecimal(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length <= 0) {
+            throw new IOException("Некорректная длина суммы: " + length);
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+
+    // Коды типов фиксированы явно, чтобы перестановка констант в enum не ломала старые файлы
+    private static int typeCode(OperationType type) {
+        if (type == null) {
+            return 0;
+        }
+        switch (type) {
+            case INCOME:
+                return 1;
+            case EXPENSE:
+                return 2;
+            default:
+                throw new IllegalArgumentException("Неизвестный тип операции: " + type);
+        }
+    }
+
+    private static OperationType typeOf(byte code) throws IOException {
+        switch (code) {
+            case 0:
+                return null;
+            case 1:
+                return OperationType.INCOME;
+            case 2:
+                return OperationType.EXPENSE;
+            default:
+                throw new IOException("Неизвестный код типа операции: " + code);
+        }
+    }
+}
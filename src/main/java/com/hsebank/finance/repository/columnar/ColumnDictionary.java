@@ -0,0 +1,46 @@
+package com.hsebank.finance.repository.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Словарь для кодирования повторяющихся строк (счёт, категория) номерами.
+ * Номера выдаются подряд с нуля и не переиспользуются; null — обычное значение со своим номером.
+ */
+public class ColumnDictionary {
+    public static final int ABSENT = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Номер значения; новое значение получает следующий номер.
+     */
+    public int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Номер значения или {@link #ABSENT}, если оно ни разу не встречалось.
+     */
+    public int find(String value) {
+        Integer code = codes.get(value);
+        return code == null ? ABSENT : code;
+    }
+
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,460 @@
+package com.hsebank.finance.repository.journal;
+
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.repository.codec.EntityCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * Журнал операций только на дозапись (write-ahead log).
+ *
+ * <p>Формат: заголовок (magic, версия, логическая позиция первой записи файла), затем записи вида
+ * [длина payload : int][CRC32C payload : int][payload], где payload — тип записи и её данные.
+ * Логическая позиция растёт монотонно и не сбрасывается при сжатии журнала,
+ * поэтому ею можно отмечать, до какого места состояние уже сохранено в снимке.
+ *
+ * <p>Запись ведёт отдельный поток с групповой фиксацией: всё, что накопилось в очереди,
+ * пишется одним gather-вызовом и фиксируется одним fsync. Чем больше параллельных писателей,
+ * тем больше записей приходится на один fsync.
+ *
+ * <p>При открытии журнал проигрывается с начала. Недописанная или повреждённая запись
+ * (обрыв при сбое питания) считается концом журнала: файл усекается до последней целой записи.
+ */
+public class OperationJournal implements Closeable {
+    private static final int MAGIC = 0x48534A4C; // "HSJL"
+    private static final int VERSION = 2;
+    private static final int V1_HEADER_SIZE = 8;
+    private static final int FILE_HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    /**
+     * Получатель записей при проигрывании журнала.
+     */
+    public interface ReplayHandler {
+        void put(Operation operation);
+
+        void delete(String id);
+    }
+
+    private final Path path;
+    private final boolean sync;
+    private final LinkedBlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final Object appendLock = new Object();
+
+    // После открытия канал, базовая позиция и размер заголовка меняются только потоком записи (при сжатии)
+    private FileChannel channel;
+    private long base;
+    private int headerSize;
+
+    private boolean closed;
+    private long appendedPosition;
+    private volatile IOException failure;
+    private long truncatedBytes;
+
+    public OperationJournal(Path path, ReplayHandler handler) throws IOException {
+        this(path, handler, true);
+    }
+
+    /**
+     * @param sync false отключает fsync — только для тестов и замеров, долговечность не гарантируется
+     */
+    public OperationJournal(Path path, ReplayHandler handler, boolean sync) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.sync = sync;
+
+        try {
+            recover(handler);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.appendedPosition = base + channel.position() - headerSize;
+
+        this.writer = new Thread(this::writeLoop, "operation-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Кодирует запись о сохранении операции.
+     */
+    public static ByteBuffer put(Operation operation) {
+        return record(PUT, operation, null);
+    }
+
+    /**
+     * Кодирует запись об удалении операции.
+     */
+    public static ByteBuffer delete(String id) {
+        return record(DELETE, null, id);
+    }
+
+    /**
+     * Ставит записи в очередь на запись. Future завершается, когда записи зафиксированы на диске;
+     * записи одного вызова фиксируются вместе, порядок вызовов сохраняется.
+     */
+    public CompletableFuture<Void> append(List<ByteBuffer> records) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        IOException error = failure;
+        if (error != null) {
+            done.completeExceptionally(error);
+            return done;
+        }
+
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Журнал операций закрыт");
+            }
+            for (ByteBuffer record : records) {
+                appendedPosition += record.remaining();
+            }
+            queue.add(new PendingWrite(records, done));
+        }
+        return done;
+    }
+
+    /**
+     * Логическая позиция конца журнала с учётом записей, ещё стоящих в очереди.
+     * Всё, что передано в append до этого вызова, лежит левее возвращённой позиции.
+     */
+    public long getAppendedPosition() {
+        synchronized (appendLock) {
+            return appendedPosition;
+        }
+    }
+
+    /**
+     * Отбрасывает записи левее логической позиции (обычно — позиции сохранённого снимка).
+     * Хвост переписывается в новый файл, который атомарно подменяет старый; записи в очереди не теряются.
+     */
+    public CompletableFuture<Void> compact(long upToPosition) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("Журнал операций закрыт");
+            }
+            if (upToPosition > appendedPosition) {
+                throw new IllegalArgumentException("Позиция сжатия " + upToPosition
+                        + " за концом журнала " + appendedPosition);
+            }
+            queue.add(new PendingWrite(upToPosition, done));
+        }
+        return done;
+    }
+
+    /**
+     * Дожидается фиксации записей и возвращает результат future, пробрасывая ошибку записи как UncheckedIOException.
+     */
+    public static <T> T await(CompletableFuture<T> written) {
+        try {
+            return written.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Сколько байт повреждённого хвоста было отброшено при открытии.
+     */
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+
+    /**
+     * Дописывает всё, что уже в очереди, и закрывает файл.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(PendingWrite.CLOSE);
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        List<PendingWrite> waiting = new ArrayList<>();
+        List<ByteBuffer> buffers = new ArrayList<>();
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch);
+
+            for (PendingWrite pending : batch) {
+                if (pending == PendingWrite.CLOSE) {
+                    running = false;
+                } else if (pending.records != null) {
+                    buffers.addAll(pending.records);
+                    waiting.add(pending);
+                } else {
+                    // Сжатие видит ровно те записи, что поставлены до него
+                    flush(waiting, buffers);
+                    waiting.add(pending);
+                    run(waiting, () -> compactTo(pending.compactTo));
+                }
+            }
+            flush(waiting, buffers);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingWrite> waiting, List<ByteBuffer> buffers) {
+        ByteBuffer[] toWrite = buffers.toArray(new ByteBuffer[0]);
+        buffers.clear();
+        run(waiting, () -> {
+            writeFully(toWrite);
+            if (sync && toWrite.length > 0) {
+                channel.force(false);
+            }
+        });
+    }
+
+    private void run(List<PendingWrite> waiting, IoAction action) {
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            action.run();
+            for (PendingWrite pending : waiting) {
+                pending.done.complete(null);
+            }
+        } catch (IOException e) {
+            // После ошибки записи хвост файла не определён: дальнейшие записи отклоняются
+            failure = e;
+            for (PendingWrite pending : waiting) {
+                pending.done.completeExceptionally(e);
+            }
+        }
+        waiting.clear();
+    }
+
+    private void writeFully(ByteBuffer[] buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    private void compactTo(long position) throws IOException {
+        if (position <= base) {
+            return;
+        }
+
+        long from = headerSize + (position - base);
+        long to = channel.position();
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+
+        try (FileChannel out = FileChannel.open(compacted,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            out.write(header(position));
+            while (from < to) {
+                from += channel.transferTo(from, to - from, out);
+            }
+            out.force(true);
+        }
+
+        Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        base = position;
+        headerSize = FILE_HEADER_SIZE;
+    }
+
+    private void recover(ReplayHandler handler) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            channel.write(header(0), 0);
+            channel.force(true);
+            channel.position(FILE_HEADER_SIZE);
+            headerSize = FILE_HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        readAt(header, 0);
+        if (header.position() < V1_HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Файл не является журналом операций");
+        }
+        int version = header.getInt(4);
+        if (version == 1) {
+            headerSize = V1_HEADER_SIZE;
+            base = 0;
+        } else if (version == VERSION && header.position() == FILE_HEADER_SIZE) {
+            headerSize = FILE_HEADER_SIZE;
+            base = header.getLong(8);
+        } else {
+            throw new IllegalStateException("Неподдерживаемая версия журнала операций: " + version);
+        }
+
+        long position = headerSize;
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        ByteBuffer payload = ByteBuffer.allocate(4096);
+        CRC32C crc = new CRC32C();
+
+        while (position < size) {
+            recordHeader.clear();
+            readAt(recordHeader, position);
+            if (recordHeader.hasRemaining()) {
+                break;
+            }
+            int length = recordHeader.getInt(0);
+            if (length <= 0 || length > MAX_RECORD_SIZE || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+
+            if (payload.capacity() < length) {
+                payload = ByteBuffer.allocate(Math.max(length, payload.capacity() * 2));
+            }
+            payload.clear().limit(length);
+            readAt(payload, position + RECORD_HEADER_SIZE);
+            payload.flip();
+
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != recordHeader.getInt(4)) {
+                break;
+            }
+
+            apply(payload, handler);
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            truncatedBytes = size - position;
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+    }
+
+    private void apply(ByteBuffer payload, ReplayHandler handler) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array(), 0, payload.limit()));
+        byte kind = in.readByte();
+        switch (kind) {
+            case PUT:
+                handler.put(EntityCodec.readOperation(in));
+                break;
+            case DELETE:
+                handler.delete(EntityCodec.readString(in));
+                break;
+            default:
+                throw new IllegalStateException("Неизвестный тип записи журнала: " + kind);
+        }
+    }
+
+    private void readAt(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            int read = channel.read(target, position + target.position());
+            if (read < 0) {
+                return;
+            }
+        }
+    }
+
+    private static ByteBuffer header(long basePosition) {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(basePosition);
+        header.flip();
+        return header;
+    }
+
+    private static ByteBuffer record(byte kind, Operation operation, String id) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeByte(kind);
+            if (kind == PUT) {
+                EntityCodec.writeOperation(out, operation);
+            } else {
+                EntityCodec.writeString(out, id);
+            }
+
+            ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+            int length = record.capacity() - RECORD_HEADER_SIZE;
+            CRC32C crc = new CRC32C();
+            crc.update(record.array(), RECORD_HEADER_SIZE, length);
+            record.putInt(0, length);
+            record.putInt(4, (int) crc.getValue());
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private static final class PendingWrite {
+        static final PendingWrite CLOSE = new PendingWrite(List.of(), null);
+
+        final List<ByteBuffer> records;
+        final long compactTo;
+        final CompletableFuture<Void> done;
+
+        PendingWrite(List<ByteBuffer> records, CompletableFuture<Void> done) {
+            this.records = records;
+            this.compactTo = -1;
+            this.done = done;
+        }
+
+        PendingWrite(long compactTo, CompletableFuture<Void> done) {
+            this.records = null;
+            this.compactTo = compactTo;
+            this.done = done;
+        }
+    }
+}
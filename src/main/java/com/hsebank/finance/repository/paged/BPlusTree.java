@@ -0,0 +1,234 @@
+package com.hsebank.finance.repository.paged;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * B+-дерево в страницах {@link PageStore}: ключи — байтовые строки в беззнаковом
+ * лексикографическом порядке, значения — неотрицательные long.
+ *
+ * <p>Узлы делятся пополам по объёму, когда перестают помещаться в страницу. При удалении
+ * узлы не сливаются: опустевшие листы остаются в цепочке и пропускаются при обходе.
+ * Для хранилища, куда в основном добавляют, это дешевле перебалансировки.
+ *
+ * <p>Не потокобезопасно: синхронизацию обеспечивает владелец.
+ */
+public class BPlusTree {
+    public static final long NOT_FOUND = -1;
+
+    /**
+     * Максимальная длина ключа: в страницу должно помещаться не меньше четырёх ключей.
+     */
+    public static final int MAX_KEY_LENGTH = (PageStore.PAGE_SIZE - Node.HEADER_SIZE) / 4 - Node.ENTRY_OVERHEAD;
+
+    private final PageStore store;
+    private long root;
+
+    /**
+     * Создаёт новое пустое дерево.
+     */
+    public BPlusTree(PageStore store) {
+        this.store = store;
+        this.root = store.allocate(true).pageId;
+    }
+
+    /**
+     * Открывает существующее дерево с корнем на странице root.
+     */
+    public BPlusTree(PageStore store, long root) {
+        this.store = store;
+        this.root = root;
+    }
+
+    /**
+     * Страница корня; меняется при расщеплении корня, владелец сохраняет её в служебной странице.
+     */
+    public long getRoot() {
+        return root;
+    }
+
+    public long get(byte[] key) {
+        Node leaf = findLeaf(key);
+        int index = leaf.search(key);
+        return index >= 0 ? leaf.pointers[index] : NOT_FOUND;
+    }
+
+    /**
+     * Вставляет или заменяет значение, возвращает прежнее или {@link #NOT_FOUND}.
+     */
+    public long put(byte[] key, long value) {
+        if (key.length > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Ключ длиннее " + MAX_KEY_LENGTH + " байт");
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("Значение должно быть неотрицательным");
+        }
+
+        long[] previous = {NOT_FOUND};
+        Split split = insert(store.node(root), key, value, previous);
+        if (split != null) {
+            Node newRoot = store.allocate(false);
+            newRoot.pointers[0] = root;
+            newRoot.keys.add(split.key);
+            newRoot.pointers[1] = split.right;
+            root = newRoot.pageId;
+        }
+        return previous[0];
+    }
+
+    /**
+     * Удаляет ключ, возвращает его значение или {@link #NOT_FOUND}.
+     */
+    public long remove(byte[] key) {
+        Node leaf = findLeaf(key);
+        int index = leaf.search(key);
+        if (index < 0) {
+            return NOT_FOUND;
+        }
+        long value = leaf.pointers[index];
+        leaf.keys.remove(index);
+        leaf.removePointer(index);
+        leaf.dirty = true;
+        return value;
+    }
+
+    /**
+     * Обходит ключи из [from, to) по возрастанию; null — граница не задана.
+     * Обход прекращается, когда visitor возвращает false. Кэш страниц подрезается
+     * по мере перехода между листами, так что обход всего дерева не держит его в памяти.
+     */
+    public void scan(byte[] from, byte[] to, EntryVisitor visitor) {
+        Node leaf = findLeaf(from);
+        int index = from == null ? 0 : lowerBound(leaf, from);
+
+        while (true) {
+            for (; index < leaf.keys.size(); index++) {
+                byte[] key = leaf.keys.get(index);
+                if (to != null && Arrays.compareUnsigned(key, to) >= 0) {
+                    return;
+                }
+                if (!visitor.visit(key, leaf.pointers[index])) {
+                    return;
+                }
+            }
+            if (leaf.next == 0) {
+                return;
+            }
+            leaf = store.node(leaf.next);
+            index = 0;
+            store.trim();
+        }
+    }
+
+    /**
+     * Наименьший ключ, строго больший key: key с дописанным нулевым байтом.
+     */
+    public static byte[] successor(byte[] key) {
+        return Arrays.copyOf(key, key.length + 1);
+    }
+
+    private Node findLeaf(byte[] key) {
+        Node node = store.node(root);
+        while (!node.leaf) {
+            node = store.node(node.pointers[node.childIndex(key)]);
+        }
+        return node;
+    }
+
+    private static int lowerBound(Node leaf, byte[] key) {
+        int index = leaf.search(key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private Split insert(Node node, byte[] key, long value, long[] previous) {
+        if (node.leaf) {
+            int index = node.search(key);
+            if (index >= 0) {
+                previous[0] = node.pointers[index];
+                node.pointers[index] = value;
+                node.dirty = true;
+                return null;
+            }
+            index = -index - 1;
+            node.insertPointer(index, value);
+            node.keys.add(index, key);
+            node.dirty = true;
+            return node.serializedSize() > PageStore.PAGE_SIZE ? splitLeaf(node) : null;
+        }
+
+        int child = node.childIndex(key);
+        Split split = insert(store.node(node.pointers[child]), key, value, previous);
+        if (split == null) {
+            return null;
+        }
+        node.insertPointer(child + 1, split.right);
+        node.keys.add(child, split.key);
+        node.dirty = true;
+        return node.serializedSize() > PageStore.PAGE_SIZE ? splitInner(node) : null;
+    }
+
+    private Split splitLeaf(Node node) {
+        int mid = middle(node);
+        Node right = store.allocate(true);
+        moveTail(node, right, mid, mid);
+
+        right.next = node.next;
+        node.next = right.pageId;
+        return new Split(right.keys.get(0), right.pageId);
+    }
+
+    private Split splitInner(Node node) {
+        int mid = middle(node);
+        byte[] separator = node.keys.get(mid);
+        Node right = store.allocate(false);
+        moveTail(node, right, mid + 1, mid + 1);
+        node.keys.remove(mid);
+        return new Split(separator, right.pageId);
+    }
+
+    /**
+     * Переносит ключи начиная с fromKey и указатели начиная с fromPointer в пустой узел right.
+     */
+    private static void moveTail(Node node, Node right, int fromKey, int fromPointer) {
+        int pointerCount = node.pointerCount();
+        right.pointers = Arrays.copyOfRange(node.pointers, fromPointer, fromPointer + Math.max(8, pointerCount - fromPointer));
+        right.keys.addAll(node.keys.subList(fromKey, node.keys.size()));
+
+        ArrayList<byte[]> head = new ArrayList<>(node.keys.subList(0, fromKey));
+        node.keys.clear();
+        node.keys.addAll(head);
+        node.dirty = true;
+        right.dirty = true;
+    }
+
+    /**
+     * Точка деления узла пополам по объёму (не по числу ключей: ключи разной длины).
+     */
+    private static int middle(Node node) {
+        int half = node.serializedSize() / 2;
+        int size = Node.HEADER_SIZE;
+        int mid = 0;
+        while (mid < node.keys.size() - 1 && size < half) {
+            size += Node.ENTRY_OVERHEAD + node.keys.get(mid).length;
+            mid++;
+        }
+        return Math.max(1, mid);
+    }
+
+    /**
+     * Посетитель записей при обходе дерева.
+     */
+    public interface EntryVisitor {
+        boolean visit(byte[] key, long value);
+    }
+
+    private static final class Split {
+        final byte[] key;
+        final long right;
+
+        Split(byte[] key, long right) {
+            this.key = key;
+            this.right = right;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.hsebank.finance.repository.paged;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Файл, отображённый в память сегментами фиксированного размера.
+ * Сегменты отображаются по мере обращения; данные живут в страничном кэше ОС, а не в куче,
+ * поэтому файл может быть во много раз больше доступной памяти.
+ *
+ * <p>Отображение за концом файла увеличивает его до границы сегмента; логический размер
+ * хранит владелец файла.
+ */
+public class MappedFile implements Closeable {
+    public static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    public MappedFile(Path path) throws IOException {
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Размер файла на диске (кратен размеру сегмента, если файл уже отображался).
+     */
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    public void read(long position, byte[] target, int offset, int length) throws IOException {
+        while (length > 0) {
+            MappedByteBuffer segment = segment(position);
+            int inSegment = (int) (position % SEGMENT_SIZE);
+            int chunk = Math.min(length, SEGMENT_SIZE - inSegment);
+            segment.get(inSegment, target, offset, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    public void write(long position, byte[] source, int offset, int length) throws IOException {
+        while (length > 0) {
+            MappedByteBuffer segment = segment(position);
+            int inSegment = (int) (position % SEGMENT_SIZE);
+            int chunk = Math.min(length, SEGMENT_SIZE - inSegment);
+            segment.put(inSegment, source, offset, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    /**
+     * Сбрасывает изменённые страницы всех отображённых сегментов на диск.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        segments.clear();
+        channel.close();
+    }
+
+    private MappedByteBuffer segment(long position) throws IOException {
+        int index = (int) (position / SEGMENT_SIZE);
+        while (segments.size() <= index) {
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * SEGMENT_SIZE, SEGMENT_SIZE));
+        }
+        return segments.get(index);
+    }
+}
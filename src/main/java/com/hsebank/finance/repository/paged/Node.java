@@ -0,0 +1,140 @@
+package com.hsebank.finance.repository.paged;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Узел B+-дерева, раскодированный из страницы.
+ *
+ * <p>В листе pointers[i] — значение ключа keys[i], next — следующий лист (0 — нет).
+ * Во внутреннем узле pointers[i] — поддерево с ключами меньше keys[i],
+ * pointers[keys.size()] — поддерево с остальными ключами.
+ *
+ * <p>Страница: [лист : byte][число ключей : int][next или pointers[0] : long],
+ * затем для каждого ключа [длина : short][ключ][значение или pointers[i + 1] : long].
+ */
+final class Node {
+    static final int HEADER_SIZE = 13;
+    static final int ENTRY_OVERHEAD = 10;
+
+    final long pageId;
+    final boolean leaf;
+    final List<byte[]> keys;
+    long[] pointers;
+    long next;
+    boolean dirty;
+
+    Node(long pageId, boolean leaf) {
+        this.pageId = pageId;
+        this.leaf = leaf;
+        this.keys = new ArrayList<>();
+        this.pointers = new long[8];
+    }
+
+    int pointerCount() {
+        return leaf ? keys.size() : keys.size() + 1;
+    }
+
+    void insertPointer(int index, long pointer) {
+        int count = pointerCount();
+        if (count == pointers.length) {
+            pointers = Arrays.copyOf(pointers, count * 2);
+        }
+        System.arraycopy(pointers, index, pointers, index + 1, count - index);
+        pointers[index] = pointer;
+    }
+
+    /**
+     * Удаляет указатель; вызывается после удаления ключа, поэтому сдвигает count + 1 элементов.
+     */
+    void removePointer(int index) {
+        int count = pointerCount() + 1;
+        System.arraycopy(pointers, index + 1, pointers, index, count - index - 1);
+    }
+
+    int serializedSize() {
+        int size = HEADER_SIZE;
+        for (byte[] key : keys) {
+            size += ENTRY_OVERHEAD + key.length;
+        }
+        return size;
+    }
+
+    /**
+     * Индекс ключа в листе или (-(точка вставки) - 1), как в {@link java.util.Arrays#binarySearch}.
+     */
+    int search(byte[] key) {
+        int low = 0;
+        int high = keys.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Arrays.compareUnsigned(keys.get(mid), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Номер поддерева внутреннего узла, в котором лежит key: число ключей, не больших key.
+     * null означает «меньше любого ключа».
+     */
+    int childIndex(byte[] key) {
+        if (key == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = keys.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Arrays.compareUnsigned(keys.get(mid), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    void writeTo(ByteBuffer page) {
+        page.clear();
+        page.put((byte) (leaf ? 1 : 0));
+        page.putInt(keys.size());
+        page.putLong(leaf ? next : pointers[0]);
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] key = keys.get(i);
+            page.putShort((short) key.length);
+            page.put(key);
+            page.putLong(leaf ? pointers[i] : pointers[i + 1]);
+        }
+    }
+
+    static Node readFrom(long pageId, ByteBuffer page) {
+        page.clear();
+        boolean leaf = page.get() == 1;
+        Node node = new Node(pageId, leaf);
+        int count = page.getInt();
+        node.pointers = new long[Math.max(8, count + 1)];
+
+        long first = page.getLong();
+        if (leaf) {
+            node.next = first;
+        } else {
+            node.pointers[0] = first;
+        }
+        for (int i = 0; i < count; i++) {
+            byte[] key = new byte[page.getShort() & 0xFFFF];
+            page.get(key);
+            node.keys.add(key);
+            node.pointers[leaf ? i : i + 1] = page.getLong();
+        }
+        return node;
+    }
+}
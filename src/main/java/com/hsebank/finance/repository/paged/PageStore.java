@@ -0,0 +1,173 @@
+package com.hsebank.finance.repository.paged;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Страничное хранилище узлов B+-деревьев поверх отображённого в память файла.
+ *
+ * <p>Страница 0 — служебная: [magic : int][версия : int][число страниц : long] и
+ * {@link #META_SLOTS} ячеек long для владельца (корни деревьев, счётчики).
+ *
+ * <p>Раскодированные узлы держатся в LRU-кэше ограниченного размера; изменённые узлы
+ * записываются в страницы при вытеснении и в {@link #flush()}. Вытеснение выполняется только
+ * в {@link #trim()} — между операциями, — поэтому узлы, которые меняет текущая вставка,
+ * не могут быть вытеснены посреди неё.
+ */
+public class PageStore implements Closeable {
+    public static final int PAGE_SIZE = 4096;
+    public static final int META_SLOTS = 8;
+
+    private static final int MAGIC = 0x48534258; // "HSBX"
+    private static final int VERSION = 1;
+
+    private final MappedFile file;
+    private final int cachedPages;
+    private final Map<Long, Node> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private final ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+    private final long[] meta = new long[META_SLOTS];
+    private long pageCount;
+    private final boolean created;
+
+    /**
+     * @param cachedPages сколько раскодированных узлов держать в куче
+     */
+    public PageStore(Path path, int cachedPages) throws IOException {
+        if (cachedPages < 16) {
+            throw new IllegalArgumentException("Кэш страниц должен вмещать хотя бы 16 страниц");
+        }
+        this.file = new MappedFile(path);
+        this.cachedPages = cachedPages;
+        this.created = file.size() == 0;
+
+        if (created) {
+            pageCount = 1;
+            writeMeta();
+        } else {
+            readPage(0);
+            if (page.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Файл не является страничным хранилищем: " + path);
+            }
+            if (page.getInt(4) != VERSION) {
+                throw new IllegalStateException("Неподдерживаемая версия хранилища: " + page.getInt(4));
+            }
+            pageCount = page.getLong(8);
+            for (int i = 0; i < META_SLOTS; i++) {
+                meta[i] = page.getLong(16 + i * Long.BYTES);
+            }
+        }
+    }
+
+    /**
+     * true, если файл был создан при открытии и ячейки владельца ещё не заполнены.
+     */
+    public boolean isCreated() {
+        return created;
+    }
+
+    public long getMeta(int slot) {
+        return meta[slot];
+    }
+
+    public void setMeta(int slot, long value) {
+        meta[slot] = value;
+    }
+
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    Node node(long pageId) {
+        Node node = cache.get(pageId);
+        if (node == null) {
+            readPage(pageId);
+            node = Node.readFrom(pageId, page);
+            cache.put(pageId, node);
+        }
+        return node;
+    }
+
+    Node allocate(boolean leaf) {
+        Node node = new Node(pageCount++, leaf);
+        node.dirty = true;
+        cache.put(node.pageId, node);
+        return node;
+    }
+
+    /**
+     * Вытесняет давно не использованные узлы сверх размера кэша, записывая изменённые.
+     */
+    public void trim() {
+        Iterator<Node> eldest = cache.values().iterator();
+        while (cache.size() > cachedPages && eldest.hasNext()) {
+            Node node = eldest.next();
+            if (node.dirty) {
+                writeNode(node);
+            }
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Записывает все изменённые узлы и служебную страницу и сбрасывает файл на диск.
+     */
+    public void flush() {
+        for (Node node : cache.values()) {
+            if (node.dirty) {
+                writeNode(node);
+            }
+        }
+        writeMeta();
+        file.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        cache.clear();
+        file.close();
+    }
+
+    private void writeNode(Node node) {
+        if (node.serializedSize() > PAGE_SIZE) {
+            throw new IllegalStateException("Узел " + node.pageId + " не помещается в страницу");
+        }
+        node.writeTo(page);
+        writePage(node.pageId);
+        node.dirty = false;
+    }
+
+    private void writeMeta() {
+        page.clear();
+        page.putInt(MAGIC).putInt(VERSION).putLong(pageCount);
+        for (long value : meta) {
+            page.putLong(value);
+        }
+        while (page.hasRemaining()) {
+            page.put((byte) 0);
+        }
+        writePage(0);
+    }
+
+    private void readPage(long pageId) {
+        try {
+            file.read(pageId * PAGE_SIZE, page.array(), 0, PAGE_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writePage(long pageId) {
+        try {
+            file.write(pageId * PAGE_SIZE, page.array(), 0, PAGE_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
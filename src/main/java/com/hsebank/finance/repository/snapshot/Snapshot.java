@@ -0,0 +1,44 @@
+package com.hsebank.finance.repository.snapshot;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Category;
+import com.hsebank.finance.domain.model.Operation;
+
+import java.util.List;
+
+/**
+ * Содержимое снимка: все счета, категории и операции плюс позиция журнала операций,
+ * до которой изменения уже учтены в снимке (0, если журнал не используется).
+ */
+public class Snapshot {
+    private final List<BankAccount> accounts;
+    private final List<Category> categories;
+    private final List<Operation> operations;
+    private final long journalPosition;
+
+    public Snapshot(List<BankAccount> accounts,
+                    List<Category> categories,
+                    List<Operation> operations,
+                    long journalPosition) {
+        this.accounts = accounts;
+        this.categories = categories;
+        this.operations = operations;
+        this.journalPosition = journalPosition;
+    }
+
+    public List<BankAccount> getAccounts() {
+        return accounts;
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public long getJournalPosition() {
+        return journalPosition;
+    }
+}
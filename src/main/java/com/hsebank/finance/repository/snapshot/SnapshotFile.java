@@ -0,0 +1,221 @@
+package com.hsebank.finance.repository.snapshot;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Category;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.repository.codec.EntityCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32C;
+
+/**
+ * Двоичный формат снимка.
+ *
+ * <p>Заголовок: magic, версия, позиция журнала. Версия 2 добавила входящий остаток счёта;
+ * снимки версии 1 читаются. Затем три секции (счета, категории, операции),
+ * каждая — [код секции : byte][число блоков : int] и блоки вида
+ * [число записей : int][длина : int][CRC32C : int][записи].
+ * Блоки независимы, поэтому при загрузке декодируются параллельно.
+ *
+ * <p>Снимок пишется во временный файл, фиксируется fsync и атомарно подменяет предыдущий:
+ * на диске всегда лежит либо старый, либо новый целый снимок.
+ */
+public final class SnapshotFile {
+    private static final int MAGIC = 0x4853534E; // "HSSN"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int BLOCK_HEADER_SIZE = 12;
+    private static final int SECTION_HEADER_SIZE = 5;
+    private static final int RECORDS_PER_BLOCK = 16 * 1024;
+
+    private static final byte ACCOUNTS = 1;
+    private static final byte CATEGORIES = 2;
+    private static final byte OPERATIONS = 3;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Записывает снимок на диск атомарно.
+     */
+    public static void write(Path path, Snapshot snapshot) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(VERSION).putLong(snapshot.getJournalPosition());
+            header.flip();
+            writeFully(channel, header);
+
+            writeSection(channel, ACCOUNTS, snapshot.getAccounts(), EntityCodec::writeAccount);
+            writeSection(channel, CATEGORIES, snapshot.getCategories(), EntityCodec::writeCategory);
+            writeSection(channel, OPERATIONS, snapshot.getOperations(), EntityCodec::writeOperation);
+
+            channel.force(true);
+        }
+
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Читает снимок, декодируя блоки параллельно в указанном пуле.
+     */
+    public static Snapshot read(Path path, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Файл не является снимком: " + path);
+            }
+            int version = header.getInt(4);
+            if (version != 1 && version != VERSION) {
+                throw new IllegalStateException("Неподдерживаемая версия снимка: " + version);
+            }
+            long journalPosition = header.getLong(8);
+
+            long[] position = {HEADER_SIZE};
+            List<ForkJoinTask<List<BankAccount>>> accounts = readSection(channel, pool, position, ACCOUNTS,
+                    version == 1 ? EntityCodec::readAccountWithoutOpeningBalance : EntityCodec::readAccount);
+            List<ForkJoinTask<List<Category>>> categories =
+                    readSection(channel, pool, position, CATEGORIES, EntityCodec::readCategory);
+            List<ForkJoinTask<List<Operation>>> operations =
+                    readSection(channel, pool, position, OPERATIONS, EntityCodec::readOperation);
+
+            return new Snapshot(join(accounts), join(categories), join(operations), journalPosition);
+        }
+    }
+
+    private static <T> void writeSection(FileChannel channel, byte kind, List<T> records,
+                                         RecordWriter<T> writer) throws IOException {
+        int blocks = (records.size() + RECORDS_PER_BLOCK - 1) / RECORDS_PER_BLOCK;
+        ByteBuffer sectionHeader = ByteBuffer.allocate(SECTION_HEADER_SIZE).put(kind).putInt(blocks);
+        sectionHeader.flip();
+        writeFully(channel, sectionHeader);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        CRC32C crc = new CRC32C();
+
+        for (int from = 0; from < records.size(); from += RECORDS_PER_BLOCK) {
+            int to = Math.min(from + RECORDS_PER_BLOCK, records.size());
+            bytes.reset();
+            for (int i = from; i < to; i++) {
+                writer.write(out, records.get(i));
+            }
+            out.flush();
+
+            byte[] payload = bytes.toByteArray();
+            crc.reset();
+            crc.update(payload);
+
+            ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE)
+                    .putInt(to - from).putInt(payload.length).putInt((int) crc.getValue());
+            blockHeader.flip();
+            writeFully(channel, blockHeader);
+            writeFully(channel, ByteBuffer.wrap(payload));
+        }
+    }
+
+    /**
+     * Проходит по заголовкам блоков секции (это дёшево — данные блоков не читаются)
+     * и ставит декодирование каждого блока отдельной задачей.
+     */
+    private static <T> List<ForkJoinTask<List<T>>> readSection(FileChannel channel, ForkJoinPool pool,
+                                                              long[] position, byte kind,
+                                                              RecordReader<T> reader) throws IOException {
+        ByteBuffer sectionHeader = ByteBuffer.allocate(SECTION_HEADER_SIZE);
+        readFully(channel, sectionHeader, position[0]);
+        if (sectionHeader.get(0) != kind) {
+            throw new IllegalStateException("Снимок повреждён: ожидалась секция " + kind
+                    + ", найдена " + sectionHeader.get(0));
+        }
+        int blocks = sectionHeader.getInt(1);
+        position[0] += SECTION_HEADER_SIZE;
+
+        List<ForkJoinTask<List<T>>> tasks = new ArrayList<>(blocks);
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        for (int i = 0; i < blocks; i++) {
+            blockHeader.clear();
+            readFully(channel, blockHeader, position[0]);
+            int count = blockHeader.getInt(0);
+            int length = blockHeader.getInt(4);
+            int checksum = blockHeader.getInt(8);
+            long dataPosition = position[0] + BLOCK_HEADER_SIZE;
+
+            tasks.add(pool.submit(() -> decodeBlock(channel, dataPosition, count, length, checksum, reader)));
+            position[0] = dataPosition + length;
+        }
+        return tasks;
+    }
+
+    private static <T> List<T> decodeBlock(FileChannel channel, long position, int count, int length,
+                                           int checksum, RecordReader<T> reader) {
+        try {
+            ByteBuffer data = ByteBuffer.allocate(length);
+            readFully(channel, data, position);
+
+            CRC32C crc = new CRC32C();
+            crc.update(data.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                throw new IllegalStateException("Снимок повреждён: неверная контрольная сумма блока на позиции " + position);
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data.array(), 0, length));
+            List<T> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                records.add(reader.read(in));
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> List<T> join(List<ForkJoinTask<List<T>>> tasks) {
+        List<T> result = new ArrayList<>();
+        for (ForkJoinTask<List<T>> task : tasks) {
+            result.addAll(task.join());
+        }
+        return result;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalStateException("Снимок повреждён: неожиданный конец файла");
+            }
+        }
+    }
+
+    private interface RecordWriter<T> {
+        void write(DataOutput out, T record) throws IOException;
+    }
+
+    private interface RecordReader<T> {
+        T read(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,177 @@
+package com.hsebank.finance.repository.snapshot;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Category;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.repository.JournaledOperationRepository;
+import com.hsebank.finance.repository.Repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Снимки состояния репозиториев.
+ *
+ * <p>Снятие снимка делится на две части. Захват — копирование ссылок на сущности (и копий счетов
+ * и категорий, которых немного и которые изменяются на месте) — быстрый и идёт в вызывающем потоке.
+ * Сериализация и запись на диск идут в фоновом потоке и писателей не блокируют.
+ *
+ * <p>Если операции хранятся в {@link JournaledOperationRepository}, вместе с захватом запоминается
+ * позиция журнала, а после записи снимка журнал сжимается до неё. Операции сериализуются уже после
+ * захвата и могут оказаться новее позиции — это безопасно: при загрузке журнал проигрывается поверх снимка,
+ * и последняя запись каждой операции всё равно побеждает.
+ *
+ * <p>Периодические снимки захватывают состояние из фонового потока, поэтому для них
+ * репозитории должны быть потокобезопасными (Concurrent* или JournaledOperationRepository).
+ */
+public class SnapshotManager implements Closeable {
+    private final Path snapshotPath;
+    private final Repository<BankAccount, String> accountRepository;
+    private final Repository<Category, String> categoryRepository;
+    private final Repository<Operation, String> operationRepository;
+    private final ScheduledExecutorService executor;
+
+    private long persistedPosition = -1;
+
+    public SnapshotManager(Path snapshotPath,
+                           Repository<BankAccount, String> accountRepository,
+                           Repository<Category, String> categoryRepository,
+                           Repository<Operation, String> operationRepository) {
+        this.snapshotPath = snapshotPath;
+        this.accountRepository = accountRepository;
+        this.categoryRepository = categoryRepository;
+        this.operationRepository = operationRepository;
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = scheduler;
+    }
+
+    /**
+     * Читает снимок, если он есть. Блоки декодируются параллельно в общем пуле ForkJoin.
+     * Операции из снимка для {@link JournaledOperationRepository} передаются в его конструктор,
+     * остальное — через {@link #restore(Snapshot)}.
+     */
+    public static Optional<Snapshot> load(Path snapshotPath) throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return Optional.empty();
+        }
+        return Optional.of(SnapshotFile.read(snapshotPath, ForkJoinPool.commonPool()));
+    }
+
+    /**
+     * Загружает содержимое снимка в репозитории менеджера пачками.
+     * Операции в журналируемый репозиторий не загружаются: он получает их при открытии.
+     */
+    public void restore(Snapshot snapshot) {
+        accountRepository.saveAll(snapshot.getAccounts());
+        categoryRepository.saveAll(snapshot.getCategories());
+        if (!(operationRepository instanceof JournaledOperationRepository)) {
+            operationRepository.saveAll(snapshot.getOperations());
+        }
+    }
+
+    /**
+     * Захватывает текущее состояние. Счета и категории копируются, операции — по ссылкам.
+     */
+    public Snapshot capture() {
+        List<BankAccount> accounts = new ArrayList<>();
+        for (BankAccount account : accountRepository.findAllView()) {
+            BankAccount copy = new BankAccount(account.getId(), account.getName(), account.getBalance());
+            copy.setOpeningBalance(account.getOpeningBalance());
+            accounts.add(copy);
+        }
+
+        List<Category> categories = new ArrayList<>();
+        for (Category category : categoryRepository.findAllView()) {
+            categories.add(new Category(category.getId(), category.getType(), category.getName()));
+        }
+
+        List<Operation> operations = new ArrayList<>(operationRepository.count());
+        long journalPosition = 0;
+        if (operationRepository instanceof JournaledOperationRepository) {
+            journalPosition = ((JournaledOperationRepository) operationRepository).capture(operations);
+        } else {
+            operations.addAll(operationRepository.findAllView());
+        }
+
+        return new Snapshot(accounts, categories, operations, journalPosition);
+    }
+
+    /**
+     * Снимает снимок синхронно: захват, запись, сжатие журнала.
+     */
+    public void snapshot() throws IOException {
+        persist(capture());
+    }
+
+    /**
+     * Захватывает состояние в вызывающем потоке и пишет снимок в фоне.
+     */
+    public CompletableFuture<Void> snapshotAsync() {
+        Snapshot snapshot = capture();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                persist(snapshot);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Запускает периодические снимки в фоновом потоке.
+     */
+    public void scheduleEvery(long period, TimeUnit unit) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Ошибка сохранения снимка: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Останавливает периодические снимки, дожидаясь уже начатой записи.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void persist(Snapshot snapshot) throws IOException {
+        // Снимок, захваченный раньше уже записанного, не должен его затереть: журнал мог быть сжат
+        if (snapshot.getJournalPosition() < persistedPosition) {
+            return;
+        }
+
+        SnapshotFile.write(snapshotPath, snapshot);
+        persistedPosition = snapshot.getJournalPosition();
+
+        // Журнал сжимается только после того, как снимок целиком на диске
+        if (operationRepository instanceof JournaledOperationRepository) {
+            ((JournaledOperationRepository) operationRepository).compactJournal(snapshot.getJournalPosition());
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package finance;
+
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Category;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.facade.BankAccountFacade;
+import com.hsebank.finance.facade.OperationFacade;
+import com.hsebank.finance.factory.BankAccountFactory;
+import com.hsebank.finance.factory.OperationFactory;
+import com.hsebank.finance.repository.ConcurrentBankAccountRepository;
+import com.hsebank.finance.repository.ConcurrentCategoryRepository;
+import com.hsebank.finance.repository.ConcurrentOperationRepository;
+import com.hsebank.finance.repository.JournaledOperationRepository;
+import com.hsebank.finance.repository.Repository;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Нагрузочное тестирование потокобезопасных репозиториев:
+ * много потоков одновременно сохраняют, читают, удаляют и перечисляют сущности.
+ */
+public class ConcurrentRepositoryStressTest {
+
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║   ТЕСТ ПОТОКОБЕЗОПАСНЫХ РЕПОЗИТОРИЕВ           ║");
+        System.out.println("╚════════════════════════════════════════════════╝\n");
+
+        stress("ConcurrentOperationRepository", new ConcurrentOperationRepository(),
+                id -> new Operation(id, OperationType.EXPENSE, "acc", BigDecimal.ONE, LocalDate.now(), "cat"),
+                Operation::getId);
+        stress("ConcurrentBankAccountRepository", new ConcurrentBankAccountRepository(),
+                id -> new BankAccount(id, "Счёт " + id, BigDecimal.TEN),
+                BankAccount::getId);
+        stress("ConcurrentCategoryRepository", new ConcurrentCategoryRepository(),
+                id -> new Category(id, OperationType.INCOME, "Категория " + id),
+                Category::getId);
+
+        Path journal = Files.createTempFile("stress-operations", ".journal");
+        Files.delete(journal);
+        try (JournaledOperationRepository repository = new JournaledOperationRepository(journal)) {
+            stress("JournaledOperationRepository", repository,
+                    id -> new Operation(id, OperationType.EXPENSE, "acc", BigDecimal.ONE, LocalDate.now(), "cat"),
+                    Operation::getId);
+        }
+        try (JournaledOperationRepository reopened = new JournaledOperationRepository(journal)) {
+            int expected = THREADS * (ITERATIONS - (ITERATIONS + 2) / 3);
+            if (reopened.count() != expected) {
+                throw new AssertionError("После восстановления журнала " + reopened.count() + " записей вместо " + expected);
+            }
+            System.out.println("  PASS: после перезапуска восстановлено записей: " + reopened.count());
+        } finally {
+            Files.deleteIfExists(journal);
+        }
+
+        balanceStress();
+        deleteStress("ConcurrentOperationRepository", new ConcurrentOperationRepository());
+        Path deleteJournal = Files.createTempFile("stress-deletes", ".journal");
+        Files.delete(deleteJournal);
+        try (JournaledOperationRepository repository = new JournaledOperationRepository(deleteJournal, false)) {
+            deleteStress("JournaledOperationRepository", repository);
+        } finally {
+            Files.deleteIfExists(deleteJournal);
+        }
+
+        System.out.println("\nВСЕ НАГРУЗОЧНЫЕ ТЕСТЫ ПРОЙДЕНЫ!");
+    }
+
+    /**
+     * Потоки одновременно проводят доходы и расходы через OperationFacade:
+     * половина нагрузки приходится на один «горячий» счёт, остальная распределена по нескольким счетам.
+     * Итоговые балансы должны совпасть точно — ни одно обновление не должно потеряться.
+     */
+    private static void balanceStress() throws Exception {
+        System.out.println("Тест: конкурентное изменение балансов через OperationFacade");
+
+        ConcurrentBankAccountRepository accountRepository = new ConcurrentBankAccountRepository();
+        OperationFacade operationFacade = new OperationFacade(
+                new OperationFactory(), new ConcurrentOperationRepository(), accountRepository);
+        BankAccountFacade accountFacade = new BankAccountFacade(new BankAccountFactory(), accountRepository);
+
+        BankAccount hot = accountFacade.createBankAccount("Горячий счёт", BigDecimal.ZERO);
+        BankAccount[] cold = new BankAccount[8];
+        for (int i = 0; i < cold.length; i++) {
+            cold[i] = accountFacade.createBankAccount("Счёт " + i, BigDecimal.ZERO);
+        }
+
+        int perThread = ITERATIONS / 5;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] futures = new Future<?>[THREADS];
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures[t] = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    BankAccount account = i % 2 == 0 ? hot : cold[(thread + i) % cold.length];
+                    // На каждые два дохода по 3 приходится один расход на 1: +5 за три операции
+                    if (i % 3 == 2) {
+                        operationFacade.createExpense(account.getId(), BigDecimal.ONE, "cat", "Расход");
+                    } else {
+                        operationFacade.createIncome(account.getId(), new BigDecimal("3"), "cat", "Доход");
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        BigDecimal expectedHot = BigDecimal.ZERO;
+        BigDecimal expectedColdTotal = BigDecimal.ZERO;
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 0; i < perThread; i++) {
+                BigDecimal delta = i % 3 == 2 ? BigDecimal.ONE.negate() : new BigDecimal("3");
+                if (i % 2 == 0) {
+                    expectedHot = expectedHot.add(delta);
+                } else {
+                    expectedColdTotal = expectedColdTotal.add(delta);
+                }
+            }
+        }
+
+        BigDecimal actualColdTotal = BigDecimal.ZERO;
+        for (BankAccount account : cold) {
+            actualColdTotal = actualColdTotal.add(accountRepository.findById(account.getId()).get().getBalance());
+        }
+        BigDecimal actualHot = accountRepository.findById(hot.getId()).get().getBalance();
+
+        if (actualHot.compareTo(expectedHot) != 0 || actualColdTotal.compareTo(expectedColdTotal) != 0) {
+            throw new AssertionError("Потеряны обновления баланса: горячий счёт " + actualHot + " вместо " + expectedHot
+                    + ", остальные " + actualColdTotal + " вместо " + expectedColdTotal);
+        }
+
+        System.out.println("  PASS: балансы точны после " + THREADS * perThread + " конкурентных операций");
+    }
+
+    /**
+     * Все потоки одновременно удаляют одни и те же операции — поштучно и пачками.
+     * Каждая операция должна отменить своё влияние на баланс ровно один раз.
+     */
+    private static void deleteStress(String name, Repository<Operation, String> operations) throws Exception {
+        System.out.println("Тест: конкурентное удаление операций через OperationFacade (" + name + ")");
+
+        ConcurrentBankAccountRepository accountRepository = new ConcurrentBankAccountRepository();
+        OperationFacade operationFacade = new OperationFacade(new OperationFactory(), operations, accountRepository);
+        BankAccount account = new BankAccountFacade(new BankAccountFactory(), accountRepository)
+                .createBankAccount("Счёт", BigDecimal.ZERO);
+
+        int count = ITERATIONS / 5;
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(operationFacade.createIncome(account.getId(), BigDecimal.ONE, "cat", "Доход").getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] futures = new Future<?>[THREADS];
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures[t] = executor.submit(() -> {
+                start.await();
+                if (thread % 2 == 0) {
+                    for (String id : ids) {
+                        operationFacade.deleteOperation(id);
+                    }
+                } else {
+                    for (int from = 0; from < count; from += 50) {
+                        operationFacade.deleteOperations(ids.subList(from, Math.min(from + 50, count)));
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        BigDecimal balance = accountRepository.findById(account.getId()).get().getBalance();
+        if (balance.compareTo(BigDecimal.ZERO) != 0 || operations.count() != 0) {
+            throw new AssertionError("После удаления баланс " + balance + " вместо 0, осталось операций: "
+                    + operations.count());
+        }
+
+        System.out.println("  PASS: " + count + " операций удалены " + THREADS + " потоками, баланс отменён ровно один раз");
+    }
+
+    /**
+     * Каждый поток пишет свой диапазон ключей, удаляет каждый третий и проверяет собственные записи;
+     * параллельно идут findAll по общему хранилищу. В конце проверяется точное итоговое содержимое.
+     */
+    private static <T> void stress(String name,
+                                   Repository<T, String> repository,
+                                   Function<String, T> factory,
+                                   Function<T, String> idOf) throws Exception {
+        System.out.println("Тест: " + name);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] futures = new Future<?>[THREADS];
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures[t] = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    String id = thread + "-" + i;
+                    repository.save(factory.apply(id));
+
+                    T found = repository.findById(id)
+                            .orElseThrow(() -> new AssertionError("Сохранённая запись не найдена: " + id));
+                    if (!idOf.apply(found).equals(id)) {
+                        throw new AssertionError("Найдена чужая запись по ключу " + id);
+                    }
+
+                    if (i % 3 == 0) {
+                        repository.delete(id);
+                        if (repository.findById(id).isPresent()) {
+                            throw new AssertionError("Удалённая запись всё ещё видна: " + id);
+                        }
+                    }
+
+                    if (i % 1000 == 0) {
+                        List<T> snapshot = repository.findAll();
+                        for (T entity : snapshot) {
+                            if (entity == null) {
+                                throw new AssertionError("Снимок содержит null");
+                            }
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        executor.shutdown();
+
+        int expected = THREADS * (ITERATIONS - (ITERATIONS + 2) / 3);
+        int actual = repository.findAll().size();
+        if (actual != expected) {
+            throw new AssertionError(name + ": ожидалось " + expected + " записей, найдено " + actual);
+        }
+
+        System.out.println("  PASS: " + THREADS + " потоков × " + ITERATIONS + " итераций за " + elapsedMs + " мс, записей: " + actual);
+    }
+}
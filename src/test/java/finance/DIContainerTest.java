@@ -1,10 +1,33 @@
 package finance;
 
+import com.hsebank.finance.di.CompiledContainer;
 import com.hsebank.finance.di.DIContainer;
+import com.hsebank.finance.di.InstancePool;
+import com.hsebank.finance.di.Scope;
 import com.hsebank.finance.di.annotations.Inject;
+import com.hsebank.finance.di.annotations.Lazy;
+import com.hsebank.finance.di.annotations.Scoped;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.exporter.json.JsonOperationExporter;
 import com.hsebank.finance.factory.CategoryFactory;
 import com.hsebank.finance.repository.InMemoryCategoryRepository;
 
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Простое тестирование работы DI-контейнера:
  * - создание объектов
@@ -21,6 +44,15 @@ public class DIContainerTest {
         testBasicDI();
         testSingletonBehavior();
         testDependencyInjection();
+        testCompiledContainer();
+        testCompiledCycleDetection();
+        testConcurrentResolve();
+        testCycleDetection();
+        testLazyBean();
+        testLazyParameter();
+        testScopes();
+        testInstancePool();
+        testComponentIndex();
 
         System.out.println("\nВСЕ ТЕСТЫ DI-КОНТЕЙНЕРА ПРОЙДЕНЫ!");
     }
@@ -78,6 +110,348 @@ public class DIContainerTest {
         System.out.println("  Зависимости внедряются автоматически\n");
     }
 
+    /**
+     * Проверяет скомпилированный контейнер: граф, параллельный старт и общие синглтоны.
+     */
+    private static void testCompiledContainer() {
+        System.out.println("Тест 4: Скомпилированный контейнер");
+
+        DIContainer container = new DIContainer();
+        container.register(ServiceC.class);
+        InMemoryCategoryRepository repository = new InMemoryCategoryRepository();
+        container.registerSingleton(InMemoryCategoryRepository.class, repository);
+
+        CompiledContainer compiled = container.compile();
+        assert compiled.size() == 4 : "Неявные зависимости ServiceA и ServiceB входят в граф";
+        assert compiled.depth() == 2 : "Два уровня: сервисы A, B и репозиторий, затем C";
+        assert !compiled.isStarted() : "Компиляция не создаёт бины";
+
+        compiled.start(4);
+        ServiceC serviceC = compiled.resolve(ServiceC.class);
+        assert serviceC.getServiceA() == compiled.resolve(ServiceA.class) : "Зависимость — тот же синглтон";
+        assert compiled.resolve(InMemoryCategoryRepository.class) == repository : "Готовый синглтон";
+
+        try {
+            compiled.resolve(CategoryFactory.class);
+            assert false : "Незарегистрированный бин";
+        } catch (IllegalArgumentException expected) {
+            // ожидаемо
+        }
+
+        CompiledContainer fresh = compiled.fresh();
+        assert fresh.resolve(ServiceC.class) != serviceC : "Новый контейнер на том же графе создаёт свои бины";
+        assert fresh.resolve(InMemoryCategoryRepository.class) == repository : "Готовые синглтоны общие";
+
+        // Первый resolve из нескольких потоков создаёт бины один раз
+        CompiledContainer lazy = container.compile();
+        Object[] seen = new Object[8];
+        Thread[] threads = new Thread[seen.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> seen[index] = lazy.resolve(ServiceC.class));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Object instance : seen) {
+            assert instance == seen[0] : "Все потоки получили один экземпляр";
+        }
+
+        System.out.println("  Скомпилированный контейнер создаёт граф заранее\n");
+    }
+
+    /**
+     * Проверяет, что цикл обнаруживается при компиляции, а не переполнением стека.
+     */
+    private static void testCompiledCycleDetection() {
+        System.out.println("Тест 5: Обнаружение циклов при компиляции");
+
+        DIContainer container = new DIContainer();
+        container.register(CycleA.class);
+        try {
+            container.compile();
+            assert false : "Цикл должен быть обнаружен";
+        } catch (IllegalStateException expected) {
+            assert expected.getMessage().contains("CycleA") && expected.getMessage().contains("CycleB")
+                    : "Сообщение называет бины цикла";
+        }
+
+        System.out.println("  Цикл обнаружен при компиляции\n");
+    }
+
+    /**
+     * Проверяет, что бин, одновременно запрошенный из нескольких потоков, создаётся один раз.
+     */
+    private static void testConcurrentResolve() {
+        System.out.println("Тест 6: Параллельное разрешение синглтона");
+
+        DIContainer container = new DIContainer();
+        container.register(SlowService.class);
+        SlowService.created.set(0);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Object> resolved = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                Object instance = container.resolve(SlowService.class);
+                synchronized (resolved) {
+                    resolved.add(instance);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        assert resolved.size() == 8 : "Каждый поток получил бин";
+        for (Object instance : resolved) {
+            assert instance == resolved.get(0) : "Все потоки получили один экземпляр";
+        }
+        assert SlowService.created.get() == 1 : "Конструктор вызван один раз";
+
+        System.out.println("  8 потоков получили один экземпляр, создан один раз\n");
+    }
+
+    /**
+     * Проверяет, что цикл при обычном resolve даёт понятную ошибку, а не переполнение стека.
+     */
+    private static void testCycleDetection() {
+        System.out.println("Тест 7: Обнаружение циклов при разрешении");
+
+        DIContainer container = new DIContainer();
+        try {
+            container.resolve(CycleA.class);
+            assert false : "Цикл должен быть обнаружен";
+        } catch (IllegalStateException expected) {
+            assert expected.getMessage().contains("CycleA → CycleB → CycleA") : expected.getMessage();
+        }
+
+        System.out.println("  Цикл обнаружен: CycleA → CycleB → CycleA\n");
+    }
+
+    /**
+     * Проверяет, что @Lazy-бин создаётся только при первом вызове метода.
+     */
+    private static void testLazyBean() {
+        System.out.println("Тест 8: Ленивый бин");
+
+        DIContainer container = new DIContainer();
+        container.register(Report.class, ExpensiveReport.class);
+        ExpensiveReport.created.set(0);
+
+        Report report = container.resolve(Report.class);
+        assert ExpensiveReport.created.get() == 0 : "До первого вызова бин не создаётся";
+        assert container.resolve(Report.class) == report : "Прокси — синглтон";
+        assert "отчёт".equals(report.render()) : "Вызов доходит до бина";
+        report.render();
+        assert ExpensiveReport.created.get() == 1 : "Бин создан один раз";
+
+        System.out.println("  Бин создан при первом вызове\n");
+    }
+
+    /**
+     * Проверяет, что @Lazy на параметре разрывает цикл.
+     */
+    private static void testLazyParameter() {
+        System.out.println("Тест 9: Цикл через @Lazy-параметр");
+
+        DIContainer container = new DIContainer();
+        container.register(Report.class, LinkedReport.class);
+        container.register(Publisher.class, DefaultPublisher.class);
+        Publisher publisher = container.resolve(Publisher.class);
+
+        assert "опубликован: связанный отчёт".equals(publisher.publish()) : publisher.publish();
+        Publisher linked = ((LinkedReport) container.resolve(Report.class)).getPublisher();
+        assert linked != publisher : "Внедрён прокси, а не сам бин";
+        assert "опубликован: связанный отчёт".equals(linked.publish()) : "Прокси ведёт к тому же синглтону";
+
+        System.out.println("  Publisher → Report → @Lazy Publisher разрешён\n");
+    }
+
+    /**
+     * Проверяет прототипы, область «поток» и пользовательскую область видимости.
+     */
+    private static void testScopes() {
+        System.out.println("Тест 10: Области видимости");
+
+        DIContainer container = new DIContainer();
+        container.register(ServiceA.class);
+        container.register(RequestHandler.class);
+        RequestHandler first = container.resolve(RequestHandler.class);
+        RequestHandler second = container.resolve(RequestHandler.class);
+        assert first != second : "@Scoped(prototype) — новый экземпляр на каждый resolve";
+        assert first.getServiceA() == second.getServiceA() : "Зависимость-синглтон общая";
+
+        container.register(ServiceB.class, DIContainer.THREAD);
+        ServiceB inThread = container.resolve(ServiceB.class);
+        assert container.resolve(ServiceB.class) == inThread : "В одном потоке — один экземпляр";
+        Object[] other = new Object[1];
+        Thread thread = new Thread(() -> other[0] = container.resolve(ServiceB.class));
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        assert other[0] != null && other[0] != inThread : "В другом потоке — свой экземпляр";
+        container.clearThreadScope();
+        assert container.resolve(ServiceB.class) != inThread : "После очистки области — новый экземпляр";
+
+        Map<Class<?>, Object> session = new HashMap<>();
+        Scope sessionScope = (key, factory) -> {
+            Object instance = session.get(key);
+            if (instance == null) {
+                instance = factory.get();
+                session.put(key, instance);
+            }
+            return instance;
+        };
+        container.registerScope("session", sessionScope);
+        container.register(ServiceC.class, "session");
+        ServiceC inSession = container.resolve(ServiceC.class);
+        assert container.resolve(ServiceC.class) == inSession : "Пользовательская область отдаёт свой экземпляр";
+        session.clear();
+        assert container.resolve(ServiceC.class) != inSession : "Новая сессия — новый экземпляр";
+
+        try {
+            container.register(ServiceA.class, "unknown");
+            assert false : "Неизвестная область должна отклоняться";
+        } catch (IllegalArgumentException expected) {
+            // ожидаемо
+        }
+        try {
+            container.compile();
+            assert false : "Скомпилированный контейнер не поддерживает прототипы";
+        } catch (IllegalStateException expected) {
+            // ожидаемо
+        }
+
+        System.out.println("  prototype, thread и пользовательская область работают\n");
+    }
+
+    /**
+     * Проверяет, что пул отдаёт сброшенные экспортеры повторно.
+     */
+    private static void testInstancePool() {
+        System.out.println("Тест 11: Пул экспортеров");
+
+        DIContainer container = new DIContainer();
+        InstancePool<JsonOperationExporter> pool = container.pool(JsonOperationExporter.class, 2);
+        Operation operation = new Operation("op-1", OperationType.INCOME, "acc-1",
+                new BigDecimal("10.00"), LocalDate.of(2024, 1, 1), "cat-1");
+
+        JsonOperationExporter exporter = pool.acquire();
+        operation.accept(exporter);
+        String json = exporter.getJson();
+        pool.release(exporter);
+        assert pool.idleCount() == 1 : "Экспортер вернулся в пул";
+
+        try (InstancePool.Lease<JsonOperationExporter> lease = pool.lease()) {
+            assert lease.get() == exporter : "Пул отдаёт тот же экспортер";
+            operation.accept(lease.get());
+            assert json.equals(lease.get().getJson()) : "После сброса экспорт не содержит прошлых записей";
+        }
+        assert pool.idleCount() == 1 : "Аренда вернула экспортер в пул";
+
+        pool.release(new JsonOperationExporter());
+        pool.release(new JsonOperationExporter());
+        assert pool.idleCount() == 2 : "Пул не растёт сверх ёмкости";
+
+        System.out.println("  Экспортер переиспользован после сброса\n");
+    }
+
+    /**
+     * Проверяет индекс компонентов: процессор аннотаций строит его при компиляции, контейнер загружает.
+     */
+    private static void testComponentIndex() {
+        System.out.println("Тест 12: Индекс компонентов");
+
+        javax.tools.JavaCompiler javac = javax.tools.ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            System.out.println("  пропущено: нужен JDK с javac\n");
+            return;
+        }
+
+        try {
+            Path dir = Files.createTempDirectory("component-index");
+            Path sources = Files.createDirectories(dir.resolve("gen"));
+            Files.writeString(sources.resolve("Greeter.java"),
+                    "package gen; public interface Greeter { String greet(); }");
+            Files.writeString(sources.resolve("Clock.java"),
+                    "package gen; @com.hsebank.finance.di.annotations.Component public class Clock {}");
+            Files.writeString(sources.resolve("PoliteGreeter.java"),
+                    "package gen; @com.hsebank.finance.di.annotations.Component public class PoliteGreeter implements Greeter {"
+                            + " private final Clock clock; public PoliteGreeter(Clock clock) { this.clock = clock; }"
+                            + " public String greet() { return \"Здравствуйте\"; } }");
+            String classPath = System.getProperty("java.class.path");
+            int status = javac.run(null, null, null, "-processor",
+                    "com.hsebank.finance.di.processor.ComponentIndexProcessor", "-processorpath", classPath,
+                    "-cp", classPath, "-d", dir.toString(),
+                    sources.resolve("Greeter.java").toString(), sources.resolve("Clock.java").toString(),
+                    sources.resolve("PoliteGreeter.java").toString());
+            assert status == 0 : "Компоненты компилируются";
+
+            String index = Files.readString(dir.resolve(DIContainer.COMPONENT_INDEX));
+            assert index.contains("gen.Clock\n") && index.contains("gen.Greeter=gen.PoliteGreeter")
+                    : "Индекс содержит компоненты и связи интерфейсов: " + index;
+
+            // Родитель — платформенный загрузчик: индекс самого проекта не должен попасть в выборку.
+            // Сгенерированным классам достаточно этого каталога, аннотации без своих классов просто не видны
+            try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()},
+                    ClassLoader.getPlatformClassLoader())) {
+                DIContainer container = new DIContainer();
+                int registered = container.registerIndexedComponents(loader);
+                assert registered == 3 : "Зарегистрированы все записи индекса";
+                Class<?> greeter = loader.loadClass("gen.Greeter");
+                Object instance = container.resolve(greeter);
+                assert instance.getClass().getName().equals("gen.PoliteGreeter") : "Интерфейс связан с реализацией";
+            }
+
+            Path broken = dir.resolve("Broken.java");
+            Files.writeString(broken,
+                    "package gen; @com.hsebank.finance.di.annotations.Component public abstract class Broken {}");
+            java.io.ByteArrayOutputStream errors = new java.io.ByteArrayOutputStream();
+            status = javac.run(null, null, errors, "-processor",
+                    "com.hsebank.finance.di.processor.ComponentIndexProcessor", "-processorpath", classPath,
+                    "-cp", classPath + File.pathSeparator + dir, "-d", dir.toString(), broken.toString());
+            assert status != 0 : "Абстрактный @Component — ошибка компиляции";
+
+            Path wrongDefault = dir.resolve("WrongDefault.java");
+            Files.writeString(wrongDefault,
+                    "package gen; @com.hsebank.finance.di.annotations.ImplementedBy(String.class) public interface WrongDefault {}");
+            status = javac.run(null, null, errors, "-processor",
+                    "com.hsebank.finance.di.processor.ComponentIndexProcessor", "-processorpath", classPath,
+                    "-cp", classPath, "-d", dir.toString(), wrongDefault.toString());
+            assert status != 0 : "@ImplementedBy с классом, не реализующим интерфейс, — ошибка компиляции";
+
+            try (java.util.stream.Stream<Path> files = Files.walk(dir)) {
+                files.sorted(java.util.Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new AssertionError(e);
+        }
+
+        System.out.println("  Индекс построен при компиляции и загружен контейнером\n");
+    }
+
     // Вспомогательные классы для демонстрации внедрения зависимостей
 
     public static class ServiceA {
@@ -106,4 +480,86 @@ public class DIContainerTest {
         public ServiceA getServiceA() { return serviceA; }
         public ServiceB getServiceB() { return serviceB; }
     }
+
+    public static class CycleA {
+        public CycleA(CycleB cycleB) {
+        }
+    }
+
+    public static class CycleB {
+        public CycleB(CycleA cycleA) {
+        }
+    }
+
+    public static class SlowService {
+        static final AtomicInteger created = new AtomicInteger();
+
+        public SlowService() throws InterruptedException {
+            created.incrementAndGet();
+            Thread.sleep(50);
+        }
+    }
+
+    public interface Report {
+        String render();
+    }
+
+    @Lazy
+    public static class ExpensiveReport implements Report {
+        static final AtomicInteger created = new AtomicInteger();
+
+        public ExpensiveReport() {
+            created.incrementAndGet();
+        }
+
+        @Override
+        public String render() {
+            return "отчёт";
+        }
+    }
+
+    public interface Publisher {
+        String publish();
+    }
+
+    public static class DefaultPublisher implements Publisher {
+        private final Report report;
+
+        public DefaultPublisher(Report report) {
+            this.report = report;
+        }
+
+        @Override
+        public String publish() {
+            return "опубликован: " + report.render();
+        }
+    }
+
+    public static class LinkedReport implements Report {
+        private final Publisher publisher;
+
+        public LinkedReport(@Lazy Publisher publisher) {
+            this.publisher = publisher;
+        }
+
+        public Publisher getPublisher() {
+            return publisher;
+        }
+
+        @Override
+        public String render() {
+            return "связанный отчёт";
+        }
+    }
+
+    @Scoped(DIContainer.PROTOTYPE)
+    public static class RequestHandler {
+        private final ServiceA serviceA;
+
+        public RequestHandler(ServiceA serviceA) {
+            this.serviceA = serviceA;
+        }
+
+        public ServiceA getServiceA() { return serviceA; }
+    }
 }
@@ -0,0 +1,836 @@
+package finance;
+
+import com.hsebank.finance.analytics.AggregationService;
+import com.hsebank.finance.analytics.AnalyticsEngine;
+import com.hsebank.finance.analytics.BalanceHistoryService;
+import com.hsebank.finance.analytics.BalanceReconciler;
+import com.hsebank.finance.command.CommandBus;
+import com.hsebank.finance.command.CreateExpenseCommand;
+import com.hsebank.finance.command.CreateIncomeCommand;
+import com.hsebank.finance.command.OperationCommand;
+import com.hsebank.finance.di.CompiledContainer;
+import com.hsebank.finance.di.DIContainer;
+import com.hsebank.finance.di.InstancePool;
+import com.hsebank.finance.domain.model.BankAccount;
+import com.hsebank.finance.domain.model.Money;
+import com.hsebank.finance.domain.model.Operation;
+import com.hsebank.finance.domain.model.OperationType;
+import com.hsebank.finance.exporter.ChannelExportWriter;
+import com.hsebank.finance.exporter.binary.BinaryOperationExporter;
+import com.hsebank.finance.exporter.csv.CsvOperationExporter;
+import com.hsebank.finance.exporter.json.JsonOperationExporter;
+import com.hsebank.finance.facade.AccountBalanceUpdater;
+import com.hsebank.finance.facade.BankAccountFacade;
+import com.hsebank.finance.facade.OperationFacade;
+import com.hsebank.finance.factory.BankAccountFactory;
+import com.hsebank.finance.factory.IdGenerator;
+import com.hsebank.finance.factory.OperationFactory;
+import com.hsebank.finance.factory.RandomIdGenerator;
+import com.hsebank.finance.factory.TimeOrderedIdGenerator;
+import com.hsebank.finance.importer.binary.BinaryOperationImporter;
+import com.hsebank.finance.importer.csv.CsvOperationImporter;
+import com.hsebank.finance.importer.json.JsonOperationImporter;
+import com.hsebank.finance.repository.ColumnarOperationRepository;
+import com.hsebank.finance.repository.ConcurrentBankAccountRepository;
+import com.hsebank.finance.repository.ConcurrentCategoryRepository;
+import com.hsebank.finance.repository.InMemoryOperationRepository;
+import com.hsebank.finance.repository.JournaledOperationRepository;
+import com.hsebank.finance.repository.PagedOperationRepository;
+import com.hsebank.finance.repository.Repository;
+import com.hsebank.finance.repository.snapshot.Snapshot;
+import com.hsebank.finance.repository.snapshot.SnapshotManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Замеры производительности без внешних зависимостей: время и объём выделенной памяти
+ * на одну итерацию после прогрева. Запуск: java -cp ... finance.PerformanceBenchmark [размер]
+ */
+public class PerformanceBenchmark {
+
+    private static final int DEFAULT_SIZE = 1_000_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 10;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Результат замеров уходит сюда, чтобы JIT не выбросил «бесполезный» код
+    private static long sink;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║   ЗАМЕРЫ ПРОИЗВОДИТЕЛЬНОСТИ                    ║");
+        System.out.println("╚════════════════════════════════════════════════╝\n");
+
+        repositoryIteration(size);
+        durableOperations(new int[]{1, 4, 16});
+        coldStart(size);
+        exportFormats(size);
+        pagedStore(size);
+        columnarAnalytics(size);
+        incrementalAggregates(size);
+        analyticsScaling(size);
+        reconciliation(size);
+        balanceHistory(size);
+        moneyHotPath();
+        idGeneration(new int[]{1, 4, 16});
+        containerStartup(300);
+        exporterReuse();
+        commandBus(20_000);
+
+        System.out.println("\n(контрольное значение: " + sink + ")");
+    }
+
+    /**
+     * Полный обход репозитория: копия через findAll против представления и forEach.
+     */
+    private static void repositoryIteration(int size) {
+        System.out.println("Обход репозитория операций, записей: " + size);
+
+        Repository<Operation, String> repository = new InMemoryOperationRepository();
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < size; i++) {
+            repository.save(new Operation("op-" + i, OperationType.EXPENSE, "acc-" + (i % 100),
+                    BigDecimal.ONE, date.plusDays(i % 365), "cat-" + (i % 20)));
+        }
+
+        measure("findAll()", repository, repo -> {
+            long total = 0;
+            for (Operation operation : repo.findAll()) {
+                total += operation.getId().length();
+            }
+            return total;
+        });
+        measure("findAllView()", repository, repo -> {
+            long total = 0;
+            for (Operation operation : repo.findAllView()) {
+                total += operation.getId().length();
+            }
+            return total;
+        });
+        measure("forEach()", repository, repo -> {
+            long[] total = {0};
+            repo.forEach(operation -> total[0] += operation.getId().length());
+            return total[0];
+        });
+        measure("stream()", repository, repo -> repo.stream().mapToLong(op -> op.getId().length()).sum());
+    }
+
+    /**
+     * Пропускная способность долговечных createIncome с журналом и fsync при разном числе потоков:
+     * групповая фиксация должна давать рост почти пропорционально числу писателей.
+     */
+    private static void durableOperations(int[] threadCounts) {
+        System.out.println("\nДолговечные createIncome через журнал (fsync)");
+
+        for (int threads : threadCounts) {
+            try {
+                Path journal = Files.createTempFile("benchmark-operations", ".journal");
+                Files.delete(journal);
+                ConcurrentBankAccountRepository accounts = new ConcurrentBankAccountRepository();
+                accounts.save(new BankAccount("acc", "Счёт", BigDecimal.ZERO));
+
+                try (JournaledOperationRepository operations = new JournaledOperationRepository(journal)) {
+                    OperationFacade facade = new OperationFacade(new OperationFactory(), operations, accounts);
+
+                    int perThread = 2_000;
+                    Thread[] workers = new Thread[threads];
+                    long start = System.nanoTime();
+                    for (int t = 0; t < threads; t++) {
+                        workers[t] = new Thread(() -> {
+                            for (int i = 0; i < perThread; i++) {
+                                facade.createIncome("acc", BigDecimal.ONE, "cat", "Доход");
+                            }
+                        });
+                        workers[t].start();
+                    }
+                    for (Thread worker : workers) {
+                        worker.join();
+                    }
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("  потоков: %-3d %,10.0f операций/с%n", threads, threads * perThread / seconds);
+                }
+                Files.delete(journal);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Холодный старт: запись снимка и восстановление из снимка с коротким хвостом журнала.
+     */
+    private static void coldStart(int size) {
+        System.out.println("\nХолодный старт из снимка, операций: " + size);
+
+        try {
+            Path dir = Files.createTempDirectory("benchmark-snapshot");
+            Path journal = dir.resolve("operations.journal");
+            Path snapshotPath = dir.resolve("state.snapshot");
+            ConcurrentBankAccountRepository accounts = new ConcurrentBankAccountRepository();
+            ConcurrentCategoryRepository categories = new ConcurrentCategoryRepository();
+
+            try (JournaledOperationRepository operations = new JournaledOperationRepository(journal, false)) {
+                List<Operation> batch = new ArrayList<>(size);
+                LocalDate date = LocalDate.of(2020, 1, 1);
+                for (int i = 0; i < size; i++) {
+                    batch.add(new Operation("op-" + i, OperationType.EXPENSE, "acc-" + (i % 100),
+                            new BigDecimal("12.34"), date.plusDays(i % 2000), "cat-" + (i % 20), "Покупка " + i));
+                }
+                operations.saveAll(batch);
+
+                long start = System.nanoTime();
+                try (SnapshotManager manager = new SnapshotManager(snapshotPath, accounts, categories, operations)) {
+                    manager.snapshot();
+                }
+                System.out.printf("  запись снимка: %,d мс, %,d байт%n",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Files.size(snapshotPath));
+            }
+
+            long start = System.nanoTime();
+            Snapshot snapshot = SnapshotManager.load(snapshotPath).orElseThrow();
+            long decoded = System.nanoTime();
+            try (JournaledOperationRepository restored =
+                         new JournaledOperationRepository(journal, snapshot.getOperations(), false)) {
+                sink += restored.count();
+            }
+            long end = System.nanoTime();
+            System.out.printf("  загрузка: декодирование %,d мс, построение индексов %,d мс%n",
+                    TimeUnit.NANOSECONDS.toMillis(decoded - start), TimeUnit.NANOSECONDS.toMillis(end - decoded));
+
+            Files.delete(journal);
+            Files.delete(snapshotPath);
+            Files.delete(dir);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Суммы расходов по категориям за квартал: объекты Operation против примитивных колонок,
+     * и сколько памяти занимают оба хранилища.
+     */
+    private static void columnarAnalytics(int size) {
+        System.out.println("\nАналитика по колонкам, операций: " + size);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        LocalDate from = date.plusDays(100);
+        LocalDate to = date.plusDays(190);
+
+        long before = usedMemory();
+        InMemoryOperationRepository objects = new InMemoryOperationRepository();
+        fill(objects, size, date);
+        long objectMemory = usedMemory() - before;
+
+        before = usedMemory();
+        ColumnarOperationRepository columns = new ColumnarOperationRepository();
+        fill(columns, size, date);
+        long columnMemory = usedMemory() - before;
+
+        System.out.printf("  память: объекты %,d байт, колонки %,d байт%n", objectMemory, columnMemory);
+
+        OperationFacade objectFacade = new OperationFacade(new OperationFactory(), objects, new ConcurrentBankAccountRepository());
+        OperationFacade columnFacade = new OperationFacade(new OperationFactory(), columns, new ConcurrentBankAccountRepository());
+        measure("по категориям: объекты", objectFacade,
+                facade -> facade.getTotalsByCategory(OperationType.EXPENSE, from, to).size());
+        measure("по категориям: колонки", columnFacade,
+                facade -> facade.getTotalsByCategory(OperationType.EXPENSE, from, to).size());
+        measure("общая сумма: колонки", columns,
+                repo -> repo.sum(OperationType.EXPENSE, from, to).longValue());
+        sink += objects.count() + columns.count();
+    }
+
+    /**
+     * Сводка «расходы по категориям за месяц»: просмотр всех операций против нарастающих итогов,
+     * и сколько стоит поддержка итогов при записи.
+     */
+    private static void incrementalAggregates(int size) {
+        System.out.println("\nНарастающие итоги, операций: " + size);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        List<Operation> operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add(new Operation("op-" + i, i % 3 == 0 ? OperationType.INCOME : OperationType.EXPENSE,
+                    "acc-" + (i % 100), BigDecimal.valueOf(100 + i % 10_000, 2), date.plusDays(i % 2000), "cat-" + (i % 20)));
+        }
+
+        OperationFacade plain = aggregateFacade();
+        long start = System.nanoTime();
+        plain.addOperations(operations);
+        System.out.printf("  запись без итогов: %,d мс%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        OperationFacade tracked = aggregateFacade();
+        AggregationService aggregates = new AggregationService();
+        tracked.addListener(aggregates);
+        start = System.nanoTime();
+        tracked.addOperations(operations);
+        System.out.printf("  запись с итогами:  %,d мс%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        YearMonth month = YearMonth.from(date.plusDays(400));
+        measure("месяц по категориям: просмотр", plain,
+                facade -> facade.getTotalsByCategory(OperationType.EXPENSE, month.atDay(1), month.atEndOfMonth()).size());
+        measure("месяц по категориям: итоги", aggregates,
+                service -> service.getCategoryTotals(OperationType.EXPENSE, month).size());
+    }
+
+    /**
+     * Масштабирование параллельных отчётов: пул ForkJoin с 1, 2, 4... потоками до числа ядер.
+     */
+    private static void analyticsScaling(int size) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("\nПараллельные отчёты, операций: " + size + ", ядер: " + cores);
+
+        OperationFacade facade = aggregateFacade();
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        List<Operation> operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add(new Operation("op-" + i, i % 3 == 0 ? OperationType.INCOME : OperationType.EXPENSE,
+                    "acc-" + (i % 100), BigDecimal.valueOf(100 + i % 10_000, 2), date.plusDays(i % 2000), "cat-" + (i % 20)));
+        }
+        facade.addOperations(operations);
+        operations = null;
+
+        LocalDate from = date.plusDays(100);
+        LocalDate to = date.plusDays(1100);
+        for (int parallelism = 1; ; parallelism = Math.min(parallelism * 2, cores)) {
+            try (AnalyticsEngine engine = new AnalyticsEngine(facade, parallelism)) {
+                measure("итоги по категориям, потоков " + parallelism, engine,
+                        e -> e.totalsByCategory(OperationType.EXPENSE, from, to).size());
+                measure("топ-100 расходов, потоков " + parallelism, engine,
+                        e -> e.topExpenses(100, from, to).size());
+                measure("движение по дням, потоков " + parallelism, engine,
+                        e -> e.dailyCashFlow(from, to).size());
+            }
+            if (parallelism == cores) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Сверка балансов: один параллельный проход по операциям против выборки операций по каждому счёту.
+     */
+    private static void reconciliation(int size) {
+        System.out.println("\nСверка балансов, операций: " + size);
+        ConcurrentBankAccountRepository accounts = new ConcurrentBankAccountRepository();
+        for (int i = 0; i < 100; i++) {
+            accounts.save(new BankAccount("acc-" + i, "Счёт " + i, BigDecimal.ZERO));
+        }
+        InMemoryOperationRepository operations = new InMemoryOperationRepository();
+        fill(operations, size, LocalDate.of(2020, 1, 1));
+        OperationFacade facade = new OperationFacade(new OperationFactory(), operations, accounts);
+        BankAccountFacade accountFacade = new BankAccountFacade(new BankAccountFactory(), accounts);
+
+        measure("по счетам", facade, f -> {
+            long mismatches = 0;
+            for (BankAccount account : accountFacade.getAllBankAccountsView()) {
+                BigDecimal net = BigDecimal.ZERO;
+                for (Operation op : f.getOperationsByAccount(account.getId())) {
+                    net = op.getType() == OperationType.INCOME ? net.add(op.getAmount()) : net.subtract(op.getAmount());
+                }
+                if (net.compareTo(account.getBalance()) != 0) {
+                    mismatches++;
+                }
+            }
+            return mismatches;
+        });
+        try (AnalyticsEngine engine = new AnalyticsEngine(facade, Runtime.getRuntime().availableProcessors())) {
+            BalanceReconciler reconciler = new BalanceReconciler(engine, accountFacade, facade);
+            measure("одним проходом", reconciler, r -> r.check().getDiscrepancies().size());
+        }
+    }
+
+    /**
+     * Баланс на дату: сумма операций счёта по дату против дерева изменений по дням.
+     */
+    private static void balanceHistory(int size) {
+        System.out.println("\nБаланс на дату, операций: " + size);
+        ConcurrentBankAccountRepository accounts = new ConcurrentBankAccountRepository();
+        for (int i = 0; i < 100; i++) {
+            accounts.save(new BankAccount("acc-" + i, "Счёт " + i, BigDecimal.ZERO));
+        }
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        List<Operation> operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // Даты вперемешку, как при импорте задним числом
+            operations.add(new Operation("op-" + i, i % 3 == 0 ? OperationType.INCOME : OperationType.EXPENSE,
+                    "acc-" + (i % 100), BigDecimal.valueOf(100 + i % 10_000, 2), date.plusDays((i * 7919L) % 2000), "cat-" + (i % 20)));
+        }
+        OperationFacade facade = new OperationFacade(new OperationFactory(), new InMemoryOperationRepository(), accounts);
+        BalanceHistoryService history = new BalanceHistoryService(new BankAccountFacade(new BankAccountFactory(), accounts));
+        facade.addListener(history);
+        long start = System.nanoTime();
+        facade.addOperations(operations);
+        System.out.printf("  запись с историей: %,d мс%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        operations = null;
+
+        LocalDate asOf = date.plusDays(1500);
+        measure("по операциям счёта", facade, f -> {
+            BigDecimal balance = BigDecimal.ZERO;
+            for (Operation op : f.getOperationsByAccount("acc-42")) {
+                if (!op.getDate().isAfter(asOf)) {
+                    balance = op.getType() == OperationType.INCOME ? balance.add(op.getAmount()) : balance.subtract(op.getAmount());
+                }
+            }
+            return balance.signum();
+        });
+        measure("по дереву изменений", history, h -> h.getBalanceAsOf("acc-42", asOf).signum());
+    }
+
+    /**
+     * Выделение памяти на горячем пути: изменение баланса через BigDecimal и через Money,
+     * создание расхода с нарастающими итогами. Одна итерация — 10 000 изменений.
+     */
+    private static void moneyHotPath() {
+        System.out.println("\nСуммы с фиксированной точкой, изменений за итерацию: 10 000");
+        ConcurrentBankAccountRepository accounts = new ConcurrentBankAccountRepository();
+        accounts.save(new BankAccount("acc-0", "Счёт", new BigDecimal("1000000.00")));
+        AccountBalanceUpdater updater = new AccountBalanceUpdater(accounts);
+        BigDecimal amount = new BigDecimal("123.45");
+        BigDecimal negated = amount.negate();
+        Money money = Money.of(amount);
+
+        measure("баланс через BigDecimal", updater, u -> {
+            for (int i = 0; i < 10_000; i++) {
+                u.apply("acc-0", (i & 1) == 0 ? amount : negated);
+            }
+            return 0;
+        });
+        measure("баланс через Money", updater, u -> {
+            for (int i = 0; i < 10_000; i++) {
+                if ((i & 1) == 0) {
+                    u.deposit("acc-0", money);
+                } else {
+                    u.withdraw("acc-0", money);
+                }
+            }
+            return 0;
+        });
+
+        OperationFacade facade = aggregateFacade();
+        facade.addListener(new AggregationService());
+        measure("создание расхода с итогами", facade, f -> {
+            for (int i = 0; i < 10_000; i++) {
+                f.createExpense("acc-" + (i % 100), amount, "cat-" + (i % 20), null);
+            }
+            return 0;
+        });
+    }
+
+    /**
+     * Генерация идентификаторов из нескольких потоков: случайные UUID против упорядоченных по времени.
+     */
+    private static void idGeneration(int[] threadCounts) {
+        System.out.println("\nГенерация идентификаторов");
+        IdGenerator[] generators = {new RandomIdGenerator(), new TimeOrderedIdGenerator()};
+        for (IdGenerator generator : generators) {
+            for (int threads : threadCounts) {
+                int perThread = 200_000;
+                Thread[] workers = new Thread[threads];
+                long start = System.nanoTime();
+                for (int t = 0; t < threads; t++) {
+                    workers[t] = new Thread(() -> {
+                        long length = 0;
+                        for (int i = 0; i < perThread; i++) {
+                            length += generator.nextId().length();
+                        }
+                        sink += length;
+                    });
+                    workers[t].start();
+                }
+                try {
+                    for (Thread worker : workers) {
+                        worker.join();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("  %-22s потоков: %-3d %,12.0f ID/с%n",
+                        generator.getClass().getSimpleName(), threads, threads * perThread / seconds);
+            }
+        }
+    }
+
+    /**
+     * Старт DI-контейнера на графе из beanCount сгенерированных классов: рефлексивный resolve каждого бина
+     * против компиляции графа и заранее созданных бинов. Классы компилируются на лету через javac из JDK.
+     */
+    private static void containerStartup(int beanCount) {
+        System.out.println("\nСтарт DI-контейнера, бинов: " + beanCount);
+        javax.tools.JavaCompiler javac = javax.tools.ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            System.out.println("  пропущено: нужен JDK с javac");
+            return;
+        }
+
+        try {
+            Path dir = Files.createTempDirectory("di-benchmark");
+            List<String> sources = new ArrayList<>();
+            java.util.Random random = new java.util.Random(1);
+            for (int i = 0; i < beanCount; i++) {
+                StringBuilder parameters = new StringBuilder();
+                int dependencies = i == 0 ? 0 : random.nextInt(Math.min(i, 3) + 1);
+                for (int d = 0; d < dependencies; d++) {
+                    parameters.append(d == 0 ? "" : ", ").append("Bean").append(random.nextInt(i)).append(" d").append(d);
+                }
+                Path source = dir.resolve("Bean" + i + ".java");
+                Files.writeString(source, "package gen; public class Bean" + i
+                        + " { public Bean" + i + "(" + parameters + ") {} }");
+                sources.add(source.toString());
+            }
+            List<String> arguments = new ArrayList<>(List.of("-d", dir.toString()));
+            arguments.addAll(sources);
+            if (javac.run(null, null, null, arguments.toArray(new String[0])) != 0) {
+                System.out.println("  пропущено: классы не скомпилировались");
+                return;
+            }
+
+            try (java.net.URLClassLoader loader = new java.net.URLClassLoader(new java.net.URL[]{dir.toUri().toURL()})) {
+                List<Class<?>> classes = new ArrayList<>();
+                for (int i = 0; i < beanCount; i++) {
+                    classes.add(loader.loadClass("gen.Bean" + i));
+                }
+                int cores = Runtime.getRuntime().availableProcessors();
+
+                measure("рефлексивный resolve", classes, beans -> silently(() -> {
+                    DIContainer container = new DIContainer();
+                    beans.forEach(container::register);
+                    beans.forEach(container::resolve);
+                }));
+                measure("компиляция и старт", classes, beans -> silently(() -> {
+                    DIContainer container = new DIContainer();
+                    beans.forEach(container::register);
+                    CompiledContainer compiled = container.compile();
+                    compiled.start(cores);
+                    beans.forEach(compiled::resolve);
+                }));
+
+                DIContainer container = new DIContainer();
+                silently(() -> classes.forEach(container::register));
+                CompiledContainer compiled = container.compile();
+                measure("старт готового графа", compiled, c -> {
+                    CompiledContainer fresh = c.fresh();
+                    fresh.start(cores);
+                    return fresh.size();
+                });
+                compiled.start();
+                measure("resolve после старта", compiled, c -> {
+                    long found = 0;
+                    for (Class<?> bean : classes) {
+                        found += c.resolve(bean) == null ? 0 : 1;
+                    }
+                    return found;
+                });
+            }
+
+            try (java.util.stream.Stream<Path> files = Files.walk(dir)) {
+                files.sorted(java.util.Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Много маленьких экспортов (20 операций): новый экспортер на каждый вызов против экспортера из пула.
+     */
+    private static void exporterReuse() {
+        System.out.println("\nПовторное использование экспортеров, экспортов за итерацию: 1 000");
+        List<Operation> operations = new ArrayList<>();
+        LocalDate date = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 20; i++) {
+            operations.add(new Operation(UUID.randomUUID().toString(), OperationType.EXPENSE, "acc-" + i,
+                    new BigDecimal("1234.56"), date.plusDays(i), "cat-" + i, "Покупка " + i));
+        }
+
+        measure("new JsonOperationExporter", operations, ops -> {
+            long length = 0;
+            for (int call = 0; call < 1_000; call++) {
+                JsonOperationExporter exporter = new JsonOperationExporter();
+                for (Operation operation : ops) {
+                    operation.accept(exporter);
+                }
+                length += exporter.getJson().length();
+            }
+            return length;
+        });
+
+        DIContainer container = new DIContainer();
+        silently(() -> container.register(JsonOperationExporter.class, DIContainer.PROTOTYPE));
+        measure("resolve прототипа", operations, ops -> {
+            long length = 0;
+            for (int call = 0; call < 1_000; call++) {
+                JsonOperationExporter exporter = container.resolve(JsonOperationExporter.class);
+                for (Operation operation : ops) {
+                    operation.accept(exporter);
+                }
+                length += exporter.getJson().length();
+            }
+            return length;
+        });
+
+        InstancePool<JsonOperationExporter> pool = container.pool(JsonOperationExporter.class, 4);
+        measure("экспортер из пула", operations, ops -> {
+            long length = 0;
+            for (int call = 0; call < 1_000; call++) {
+                JsonOperationExporter exporter = pool.acquire();
+                for (Operation operation : ops) {
+                    operation.accept(exporter);
+                }
+                length += exporter.getJson().length();
+                pool.release(exporter);
+            }
+            return length;
+        });
+    }
+
+    /**
+     * Поток команд создания операций по 100 счетам: синхронное выполнение против шины команд,
+     * которая сохраняет команды пачками с одним изменением баланса на счёт.
+     */
+    private static void commandBus(int commands) {
+        System.out.println("\nШина команд, команд за итерацию: " + commands);
+        BigDecimal amount = new BigDecimal("12.34");
+
+        measure("execute() в вызывающем потоке", commands, count -> {
+            OperationFacade facade = aggregateFacade();
+            for (int i = 0; i < count; i++) {
+                OperationCommand command = operationCommand(facade, i, amount);
+                command.execute();
+                sink += command.getResult().getId().length();
+            }
+            return count;
+        });
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Байты в замере — только потока-отправителя: работа рабочих потоков в них не входит
+        for (int workers : cores == 1 ? new int[]{1} : new int[]{1, cores}) {
+            long[] submitNanos = new long[1];
+            measure("CommandBus, потоков: " + workers, commands, count -> {
+                OperationFacade facade = aggregateFacade();
+                List<java.util.concurrent.CompletableFuture<Operation>> futures = new ArrayList<>(count);
+                try (CommandBus bus = new CommandBus(workers, count, 512)) {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < count; i++) {
+                        futures.add(bus.submit(operationCommand(facade, i, amount)));
+                    }
+                    submitNanos[0] = System.nanoTime() - start;
+                    for (java.util.concurrent.CompletableFuture<Operation> future : futures) {
+                        sink += future.join().getId().length();
+                    }
+                }
+                return count;
+            });
+            System.out.printf("    из них в submit: %.2f мс%n", submitNanos[0] / 1e6);
+        }
+    }
+
+    private static OperationCommand operationCommand(OperationFacade facade, int i, BigDecimal amount) {
+        String accountId = "acc-" + (i % 100);
+        return i % 3 == 0
+                ? new CreateIncomeCommand(facade, accountId, amount, "cat-" + (i % 20), "Доход")
+                : new CreateExpenseCommand(facade, accountId, amount, "cat-" + (i % 20), "Расход");
+    }
+
+    /**
+     * Выполняет действие с отключённым System.out: рефлексивный контейнер печатает каждый бин.
+     */
+    private static long silently(Runnable action) {
+        java.io.PrintStream out = System.out;
+        System.setOut(new java.io.PrintStream(OutputStream.nullOutputStream()));
+        try {
+            action.run();
+        } finally {
+            System.setOut(out);
+        }
+        return 0;
+    }
+
+    private static OperationFacade aggregateFacade() {
+        ConcurrentBankAccountRepository accounts = new ConcurrentBankAccountRepository();
+        for (int i = 0; i < 100; i++) {
+            accounts.save(new BankAccount("acc-" + i, "Счёт " + i, BigDecimal.ZERO));
+        }
+        return new OperationFacade(new OperationFactory(), new InMemoryOperationRepository(), accounts);
+    }
+
+    private static void fill(Repository<Operation, String> repository, int size, LocalDate date) {
+        for (int i = 0; i < size; i++) {
+            repository.save(new Operation("op-" + i, i % 3 == 0 ? OperationType.INCOME : OperationType.EXPENSE,
+                    "acc-" + (i % 100), BigDecimal.valueOf(100 + i % 10_000, 2), date.plusDays(i % 2000), "cat-" + (i % 20)));
+        }
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Дисковый репозиторий с маленьким кэшем страниц: загрузка, случайный поиск по id
+     * и выборка месяца по дате. Куча почти не зависит от объёма данных.
+     */
+    private static void pagedStore(int size) {
+        System.out.println("\nДисковый репозиторий (B+-деревья), операций: " + size + ", кэш 256 страниц");
+
+        try {
+            Path dir = Files.createTempDirectory("benchmark-paged");
+            LocalDate date = LocalDate.of(2020, 1, 1);
+            String[] ids = new String[size];
+
+            try (PagedOperationRepository repo = new PagedOperationRepository(dir, 256)) {
+                long start = System.nanoTime();
+                List<Operation> batch = new ArrayList<>(10_000);
+                for (int i = 0; i < size; i++) {
+                    ids[i] = UUID.randomUUID().toString();
+                    batch.add(new Operation(ids[i], OperationType.EXPENSE, "acc-" + (i % 100),
+                            new BigDecimal("12.34"), date.plusDays(i % 2000), "cat-" + (i % 20), "Покупка " + i));
+                    if (batch.size() == 10_000) {
+                        repo.saveAll(batch);
+                        batch.clear();
+                    }
+                }
+                repo.saveAll(batch);
+                repo.flush();
+                System.out.printf("  запись: %,d мс, индекс %,d байт, данные %,d байт%n",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                        Files.size(dir.resolve("operations.idx")), Files.size(dir.resolve("operations.dat")));
+            }
+
+            try (PagedOperationRepository repo = new PagedOperationRepository(dir, 256)) {
+                java.util.Random random = new java.util.Random(42);
+                int lookups = 100_000;
+                long start = System.nanoTime();
+                for (int i = 0; i < lookups; i++) {
+                    sink += repo.findById(ids[random.nextInt(size)]).orElseThrow().getDate().getDayOfMonth();
+                }
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("  поиск по id: %,d нс на запрос%n", elapsed / lookups);
+
+                start = System.nanoTime();
+                int found = repo.findByDateRange(date.plusDays(100), date.plusDays(130)).size();
+                sink += found;
+                System.out.printf("  выборка за месяц: %,d операций за %,d мс%n",
+                        found, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+
+            try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                files.forEach(file -> file.toFile().delete());
+            }
+            Files.delete(dir);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Размер файла и время выгрузки/загрузки операций в CSV, JSON и двоичном формате.
+     */
+    private static void exportFormats(int size) {
+        System.out.println("\nФорматы выгрузки, операций: " + size);
+
+        List<Operation> operations = new ArrayList<>(size);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        String[] accounts = new String[100];
+        String[] categories = new String[20];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = UUID.randomUUID().toString();
+        }
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = UUID.randomUUID().toString();
+        }
+        for (int i = 0; i < size; i++) {
+            operations.add(new Operation(UUID.randomUUID().toString(), i % 3 == 0 ? OperationType.INCOME : OperationType.EXPENSE,
+                    accounts[i % accounts.length], BigDecimal.valueOf(100 + i % 10_000, 2), date.plusDays(i % 2000),
+                    categories[i % categories.length], "Покупка " + i));
+        }
+
+        try {
+            Path csv = Files.createTempFile("benchmark", ".csv");
+            Path json = Files.createTempFile("benchmark", ".json");
+            Path binary = Files.createTempFile("benchmark", ".bin");
+
+            long csvExport = timeMillis(() -> {
+                try (ChannelExportWriter writer = new ChannelExportWriter(csv)) {
+                    CsvOperationExporter exporter = new CsvOperationExporter(writer);
+                    operations.forEach(operation -> operation.accept(exporter));
+                    exporter.finish();
+                }
+            });
+            long jsonExport = timeMillis(() -> {
+                try (ChannelExportWriter writer = new ChannelExportWriter(json)) {
+                    JsonOperationExporter exporter = new JsonOperationExporter(writer);
+                    operations.forEach(operation -> operation.accept(exporter));
+                    exporter.finish();
+                }
+            });
+            long binaryExport = timeMillis(() -> {
+                try (OutputStream out = Files.newOutputStream(binary)) {
+                    BinaryOperationExporter exporter = new BinaryOperationExporter(out);
+                    operations.forEach(operation -> operation.accept(exporter));
+                    exporter.finish();
+                }
+            });
+
+            long csvImport = timeMillis(() -> new CsvOperationImporter().importFromFile(csv.toString(), 10_000, batch -> sink += batch.size()));
+            long jsonImport = timeMillis(() -> new JsonOperationImporter().importFromFile(json.toString(), 10_000, batch -> sink += batch.size()));
+            long binaryImport = timeMillis(() -> new BinaryOperationImporter().importFromFile(binary.toString(), 10_000, batch -> sink += batch.size()));
+
+            System.out.printf("  %-10s %,14d байт, выгрузка %,6d мс, загрузка %,6d мс%n", "CSV", Files.size(csv), csvExport, csvImport);
+            System.out.printf("  %-10s %,14d байт, выгрузка %,6d мс, загрузка %,6d мс%n", "JSON", Files.size(json), jsonExport, jsonImport);
+            System.out.printf("  %-10s %,14d байт, выгрузка %,6d мс, загрузка %,6d мс%n", "двоичный", Files.size(binary), binaryExport, binaryImport);
+
+            Files.delete(csv);
+            Files.delete(json);
+            Files.delete(binary);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long timeMillis(IoTask task) throws IOException {
+        long start = System.nanoTime();
+        task.run();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    private static <R> void measure(String name, R target, ToLongFunction<R> body) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += body.applyAsLong(target);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += body.applyAsLong(target);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("  %-28s %8.2f мс/итерация, %,14d байт/итерация%n",
+                name, elapsed / (double) TimeUnit.MILLISECONDS.toNanos(1) / ITERATIONS, allocated / ITERATIONS);
+    }
+}
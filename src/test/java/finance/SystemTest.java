@@ -3,19 +3,34 @@ package finance;
 import com.hsebank.finance.command.*;
 import com.hsebank.finance.decorator.TimingDecorator;
 import com.hsebank.finance.domain.model.*;
+import com.hsebank.finance.exporter.ChannelExportWriter;
+import com.hsebank.finance.exporter.binary.BinaryBankAccountExporter;
+import com.hsebank.finance.exporter.binary.BinaryOperationExporter;
 import com.hsebank.finance.exporter.csv.*;
 import com.hsebank.finance.exporter.json.*;
 import com.hsebank.finance.facade.*;
 import com.hsebank.finance.factory.*;
 import com.hsebank.finance.importer.*;
+import com.hsebank.finance.importer.binary.BinaryBankAccountImporter;
+import com.hsebank.finance.importer.binary.BinaryCategoryImporter;
+import com.hsebank.finance.importer.binary.BinaryOperationImporter;
+import com.hsebank.finance.importer.csv.CsvBankAccountImporter;
 import com.hsebank.finance.importer.csv.CsvCategoryImporter;
+import com.hsebank.finance.importer.csv.CsvOperationImporter;
+import com.hsebank.finance.importer.csv.MappedCsvOperationImporter;
 import com.hsebank.finance.importer.json.JsonCategoryImporter;
+import com.hsebank.finance.importer.json.JsonOperationImporter;
 import com.hsebank.finance.repository.*;
+import com.hsebank.finance.repository.snapshot.Snapshot;
+import com.hsebank.finance.repository.snapshot.SnapshotManager;
 
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Комплексный тест системы: проверка бизнес-логики и всех реализованных паттернов.
@@ -41,6 +56,13 @@ public class SystemTest {
         System.out.println("═══ ТЕСТИРОВАНИЕ ПАТТЕРНОВ ═══\n");
         testFactoryPattern();
         testRepositoryPattern();
+        testOperationIndexes();
+        testRepositoryViews();
+        testBatchOperations();
+        testJournalRecovery();
+        testSnapshotAndCompaction();
+        testPagedRepository();
+        testColumnarRepository();
         testFacadePattern();
         testCommandPattern();
         testDecoratorPattern();
@@ -54,13 +76,25 @@ public class SystemTest {
         testCreateIncome();
         testCreateExpense();
         testBalanceCalculation();
+        testIncrementalAggregates();
+        testParallelAnalytics();
+        testBalanceReconciliation();
+        testBalanceHistory();
+        testMoney();
+        testTimeOrderedIds();
+        testCommandBus();
 
         // Тестирование импорта/экспорта
         System.out.println("\n═══ ТЕСТИРОВАНИЕ ИМПОРТА/ЭКСПОРТА ═══\n");
         testJsonExport();
         testCsvExport();
+        testStreamingExport();
         testJsonImport();
         testCsvImport();
+        testCsvStreamingImport();
+        testMappedCsvImport();
+        testJsonOperationsRoundtrip();
+        testBinaryRoundtrip();
         testImportExportRoundtrip();
 
         // Итоговый отчёт
@@ -125,6 +159,414 @@ public class SystemTest {
         }
     }
 
+    private static void testOperationIndexes() {
+        System.out.println("Тест: Индексы операций по счёту, категории и дате");
+        try {
+            InMemoryOperationRepository repo = new InMemoryOperationRepository();
+            java.time.LocalDate jan = java.time.LocalDate.of(2024, 1, 10);
+            java.time.LocalDate feb = java.time.LocalDate.of(2024, 2, 10);
+            java.time.LocalDate mar = java.time.LocalDate.of(2024, 3, 10);
+
+            repo.save(new Operation("i-1", OperationType.INCOME, "acc-a", BigDecimal.TEN, mar, "cat-x"));
+            repo.save(new Operation("i-2", OperationType.EXPENSE, "acc-a", BigDecimal.ONE, jan, "cat-y"));
+            repo.save(new Operation("i-3", OperationType.EXPENSE, "acc-b", BigDecimal.ONE, feb, "cat-x"));
+
+            assert ids(repo.findByBankAccountId("acc-a")).equals(List.of("i-2", "i-1")) : "Выборка по счёту упорядочена по дате";
+            assert ids(repo.findByCategoryId("cat-x")).equals(List.of("i-3", "i-1")) : "Выборка по категории";
+            assert ids(repo.findByDateRange(jan, feb)).equals(List.of("i-2", "i-3")) : "Диапазон дат включительный";
+            assert ids(repo.findByBankAccountIdAndDateRange("acc-a", feb, mar)).equals(List.of("i-1")) : "Выписка по счёту";
+
+            // Изменённая сущность пересохраняется — индексы должны переехать вместе с ней
+            Operation moved = repo.findById("i-1").get();
+            moved.setBankAccountId("acc-b");
+            moved.setDate(jan);
+            repo.save(moved);
+            assert ids(repo.findByBankAccountId("acc-a")).equals(List.of("i-2")) : "Старый ключ счёта очищен";
+            assert ids(repo.findByBankAccountId("acc-b")).equals(List.of("i-1", "i-3")) : "Новый ключ счёта добавлен";
+
+            repo.delete("i-3");
+            assert ids(repo.findByCategoryId("cat-x")).equals(List.of("i-1")) : "Удалённая операция исчезает из индекса";
+            assert repo.findByDateRange(feb, mar).isEmpty() : "Удалённая операция исчезает из индекса дат";
+
+            pass("Индексы обновляются при сохранении и удалении");
+        } catch (Exception e) {
+            fail("Индексы операций", e.getMessage());
+        }
+    }
+
+    private static void testRepositoryViews() {
+        System.out.println("Тест: Представления репозитория без копирования");
+        try {
+            InMemoryCategoryRepository repo = new InMemoryCategoryRepository();
+            java.util.Collection<Category> view = repo.findAllView();
+            assert view.isEmpty() && repo.count() == 0 : "Пустой репозиторий";
+
+            repo.save(new Category("v-1", OperationType.INCOME, "Зарплата"));
+            repo.save(new Category("v-2", OperationType.EXPENSE, "Кафе"));
+            assert view.size() == 2 && repo.count() == 2 : "Представление видит новые записи";
+            assert repo.findAllView() == view : "Представление не пересоздаётся";
+            assert repo.stream().filter(c -> c.getType() == OperationType.INCOME).count() == 1 : "stream по хранилищу";
+
+            try {
+                view.clear();
+                fail("Представления", "удалось изменить представление");
+                return;
+            } catch (UnsupportedOperationException expected) {
+                // представление только для чтения
+            }
+
+            repo.delete("v-1");
+            int[] visited = {0};
+            repo.forEach(c -> visited[0]++);
+            assert visited[0] == 1 && view.size() == 1 : "Удаление видно в представлении";
+
+            pass("Представления живые и неизменяемые");
+        } catch (Exception e) {
+            fail("Представления репозитория", e.getMessage());
+        }
+    }
+
+    private static void testBatchOperations() {
+        System.out.println("Тест: Пакетное сохранение через фасады");
+        try {
+            InMemoryBankAccountRepository accountRepo = new InMemoryBankAccountRepository();
+            InMemoryOperationRepository operationRepo = new InMemoryOperationRepository();
+            OperationFacade operationFacade = new OperationFacade(new OperationFactory(), operationRepo, accountRepo);
+            BankAccountFacade accountFacade = new BankAccountFacade(new BankAccountFactory(), accountRepo);
+
+            accountFacade.saveBankAccounts(List.of(
+                    new BankAccount("b-1", "Основной", new BigDecimal("100")),
+                    new BankAccount("b-2", "Накопительный", BigDecimal.ZERO)));
+            assert accountRepo.count() == 2 : "Счета сохранены пачкой";
+
+            java.time.LocalDate today = java.time.LocalDate.now();
+            operationFacade.addOperations(List.of(
+                    new Operation("bo-1", OperationType.INCOME, "b-1", new BigDecimal("50"), today, "cat"),
+                    new Operation("bo-2", OperationType.EXPENSE, "b-1", new BigDecimal("30"), today, "cat"),
+                    new Operation("bo-3", OperationType.INCOME, "b-2", new BigDecimal("7"), today, "cat")));
+
+            assert operationRepo.count() == 3 : "Операции сохранены";
+            assert accountRepo.findById("b-1").get().getBalance().compareTo(new BigDecimal("120")) == 0 : "Баланс b-1";
+            assert accountRepo.findById("b-2").get().getBalance().compareTo(new BigDecimal("7")) == 0 : "Баланс b-2";
+
+            try {
+                operationFacade.addOperations(List.of(
+                        new Operation("bo-4", OperationType.INCOME, "b-1", BigDecimal.ONE, today, "cat"),
+                        new Operation("bo-5", OperationType.INCOME, "missing", BigDecimal.ONE, today, "cat")));
+                fail("Пакет с неизвестным счётом", "исключение не выброшено");
+                return;
+            } catch (IllegalArgumentException expected) {
+                assert operationRepo.count() == 3 : "Пакет с ошибкой не сохраняется";
+                assert accountRepo.findById("b-1").get().getBalance().compareTo(new BigDecimal("120")) == 0
+                        : "Баланс не меняется при ошибке";
+            }
+
+            operationFacade.deleteOperations(List.of("bo-1", "bo-2"));
+            assert operationRepo.count() == 1 : "Операции удалены пачкой";
+
+            // Сбой на втором счёте пачки: изменение первого отменяется
+            InMemoryBankAccountRepository failingRepo = new InMemoryBankAccountRepository() {
+                @Override
+                public void save(BankAccount account) {
+                    if (account.getId().equals("r-2") && account.getBalance().signum() != 0) {
+                        throw new IllegalStateException("Запись счёта недоступна");
+                    }
+                    super.save(account);
+                }
+            };
+            failingRepo.save(new BankAccount("r-1", "Первый", BigDecimal.TEN));
+            failingRepo.save(new BankAccount("r-2", "Второй", BigDecimal.ZERO));
+            java.util.Map<String, BigDecimal> deltas = new java.util.LinkedHashMap<>();
+            deltas.put("r-1", BigDecimal.ONE);
+            deltas.put("r-2", BigDecimal.ONE);
+            try {
+                new AccountBalanceUpdater(failingRepo).applyAll(deltas);
+                fail("Пакет со сбоем записи", "исключение не выброшено");
+                return;
+            } catch (IllegalStateException expected) {
+                assert failingRepo.findById("r-1").get().getBalance().compareTo(BigDecimal.TEN) == 0
+                        : "Применённое до сбоя изменение отменено";
+            }
+
+            pass("Пакет применяется целиком, балансы суммируются по счетам");
+        } catch (Exception e) {
+            fail("Пакетное сохранение", e.getMessage());
+        }
+    }
+
+    private static void testJournalRecovery() {
+        System.out.println("Тест: Восстановление операций из журнала");
+        try {
+            Path journal = Files.createTempFile("operations", ".journal");
+            Files.delete(journal);
+            java.time.LocalDate date = java.time.LocalDate.of(2024, 5, 1);
+
+            try (JournaledOperationRepository repo = new JournaledOperationRepository(journal)) {
+                Operation first = new Operation("j-1", OperationType.INCOME, "acc", new BigDecimal("100.50"), date, "cat", "Зарплата");
+                repo.save(first);
+                repo.saveAll(List.of(
+                        new Operation("j-2", OperationType.EXPENSE, "acc", new BigDecimal("20"), date, "cat"),
+                        new Operation("j-3", OperationType.EXPENSE, "acc", new BigDecimal("5"), null, null)));
+                first.setAmount(new BigDecimal("150.00"));
+                repo.save(first);
+                repo.delete("j-2");
+            }
+
+            long intactSize = Files.size(journal);
+            // Имитируем обрыв записи: недописанная запись в конце файла
+            Files.write(journal, new byte[]{0, 0, 0, 42, 1, 2, 3}, java.nio.file.StandardOpenOption.APPEND);
+
+            try (JournaledOperationRepository repo = new JournaledOperationRepository(journal)) {
+                assert repo.getRecoveredTruncatedBytes() == 7 : "Повреждённый хвост отброшен";
+                assert Files.size(journal) == intactSize : "Файл усечён до последней целой записи";
+                assert repo.count() == 2 : "Удаление восстановлено";
+
+                Operation restored = repo.findById("j-1").orElseThrow();
+                assert restored.getAmount().compareTo(new BigDecimal("150.00")) == 0 : "Восстановлена последняя версия";
+                assert "Зарплата".equals(restored.getDescription()) : "Описание восстановлено";
+                assert restored.getDate().equals(date) : "Дата восстановлена";
+                assert repo.findById("j-3").orElseThrow().getDate() == null : "null-поля восстановлены";
+                assert ids(repo.findByBankAccountId("acc")).equals(List.of("j-3", "j-1")) : "Индексы восстановлены";
+
+                repo.save(new Operation("j-4", OperationType.INCOME, "acc", BigDecimal.ONE, date, "cat"));
+            }
+
+            try (JournaledOperationRepository repo = new JournaledOperationRepository(journal)) {
+                assert repo.count() == 3 && repo.getRecoveredTruncatedBytes() == 0 : "Дозапись после восстановления";
+            }
+
+            Files.delete(journal);
+            pass("Журнал переживает перезапуск и обрыв записи");
+        } catch (Exception e) {
+            fail("Восстановление из журнала", e.getMessage());
+        }
+    }
+
+    private static void testSnapshotAndCompaction() {
+        System.out.println("Тест: Снимок состояния и сжатие журнала");
+        try {
+            Path dir = Files.createTempDirectory("snapshot-test");
+            Path journal = dir.resolve("operations.journal");
+            Path snapshotPath = dir.resolve("state.snapshot");
+            java.time.LocalDate date = java.time.LocalDate.of(2024, 6, 1);
+
+            ConcurrentBankAccountRepository accounts = new ConcurrentBankAccountRepository();
+            ConcurrentCategoryRepository categories = new ConcurrentCategoryRepository();
+            accounts.save(new BankAccount("s-acc", "Основной", new BigDecimal("1000.00")));
+            categories.save(new Category("s-cat", OperationType.EXPENSE, "Продукты"));
+
+            int total = 40_000; // несколько блоков снимка
+            try (JournaledOperationRepository operations = new JournaledOperationRepository(journal)) {
+                List<Operation> batch = new java.util.ArrayList<>();
+                for (int i = 0; i < total; i++) {
+                    batch.add(new Operation("s-" + i, OperationType.EXPENSE, "s-acc", BigDecimal.ONE, date, "s-cat"));
+                }
+                operations.saveAll(batch);
+
+                long journalBefore = Files.size(journal);
+                try (SnapshotManager manager =
+                             new SnapshotManager(snapshotPath, accounts, categories, operations)) {
+                    manager.snapshotAsync().join();
+                }
+                assert Files.size(journal) < journalBefore / 100 : "Журнал сжат после снимка";
+
+                // Изменения после снимка живут только в журнале
+                operations.save(new Operation("s-0", OperationType.INCOME, "s-acc", BigDecimal.TEN, date, "s-cat"));
+                operations.delete("s-1");
+            }
+
+            Snapshot snapshot =
+                    SnapshotManager.load(snapshotPath).orElseThrow();
+            assert snapshot.getOperations().size() == total : "Снимок содержит все операции";
+
+            ConcurrentBankAccountRepository restoredAccounts = new ConcurrentBankAccountRepository();
+            ConcurrentCategoryRepository restoredCategories = new ConcurrentCategoryRepository();
+            try (JournaledOperationRepository restored =
+                         new JournaledOperationRepository(journal, snapshot.getOperations(), true)) {
+                new SnapshotManager(snapshotPath, restoredAccounts, restoredCategories, restored)
+                        .restore(snapshot);
+
+                assert restored.count() == total - 1 : "Удаление после снимка восстановлено из журнала";
+                assert restored.findById("s-0").orElseThrow().getType() == OperationType.INCOME : "Изменение после снимка";
+                assert restored.findById(("s-" + (total - 1))).isPresent() : "Операции из снимка";
+                assert restored.findByBankAccountId("s-acc").size() == total - 1 : "Индексы построены";
+                assert restoredAccounts.findById("s-acc").orElseThrow().getBalance().compareTo(new BigDecimal("1000.00")) == 0
+                        : "Счёт восстановлен";
+                assert restoredAccounts.findById("s-acc").orElseThrow().getOpeningBalance().compareTo(new BigDecimal("1000.00")) == 0
+                        : "Входящий остаток восстановлен";
+                assert "Продукты".equals(restoredCategories.findById("s-cat").orElseThrow().getName()) : "Категория восстановлена";
+            }
+
+            try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                files.forEach(file -> file.toFile().delete());
+            }
+            Files.delete(dir);
+            pass("Снимок + хвост журнала дают полное состояние");
+        } catch (Exception e) {
+            fail("Снимок и сжатие журнала", e.getMessage());
+        }
+    }
+
+    private static void testPagedRepository() {
+        System.out.println("Тест: Дисковый репозиторий операций на B+-деревьях");
+        try {
+            Path dir = Files.createTempDirectory("paged-test");
+            java.time.LocalDate start = java.time.LocalDate.of(2023, 1, 1);
+            int total = 20_000; // несколько уровней дерева при кэше в 32 страницы
+
+            try (PagedOperationRepository repo = new PagedOperationRepository(dir, 32)) {
+                List<Operation> batch = new java.util.ArrayList<>();
+                for (int i = 0; i < total; i++) {
+                    batch.add(new Operation(java.util.UUID.nameUUIDFromBytes(("p-" + i).getBytes()).toString(),
+                            i % 2 == 0 ? OperationType.INCOME : OperationType.EXPENSE, "acc-" + (i % 10),
+                            BigDecimal.valueOf(i, 2), start.plusDays(i % 365), "cat", "Операция " + i));
+                }
+                repo.saveAll(batch);
+                repo.save(new Operation("no-date", OperationType.EXPENSE, "acc-0", BigDecimal.ONE, null, null));
+
+                Operation moved = batch.get(7);
+                moved.setDate(start.minusDays(10));
+                moved.setAmount(new BigDecimal("777.77"));
+                repo.save(moved);
+                repo.delete(batch.get(8).getId());
+                repo.delete("missing");
+
+                assert repo.count() == total : "Счётчик учитывает обновление и удаление";
+                assert repo.findById(moved.getId()).orElseThrow().getAmount().compareTo(new BigDecimal("777.77")) == 0
+                        : "Читается последняя версия";
+                assert repo.findById(batch.get(8).getId()).isEmpty() : "Удалённая операция не находится";
+                assert repo.findByDateRange(start.minusDays(10), start.minusDays(10)).size() == 1 : "Дата обновлена в индексе";
+            }
+
+            try (PagedOperationRepository repo = new PagedOperationRepository(dir, 32)) {
+                assert repo.count() == total : "Счётчик восстановлен после открытия";
+                for (int i = 0; i < total; i += 97) {
+                    String id = java.util.UUID.nameUUIDFromBytes(("p-" + i).getBytes()).toString();
+                    assert repo.findById(id).isPresent() == (i != 8) : "Поиск по id после открытия";
+                }
+                assert "Операция 0".equals(repo.findById(java.util.UUID.nameUUIDFromBytes("p-0".getBytes()).toString())
+                        .orElseThrow().getDescription()) : "Поля восстановлены";
+
+                List<Operation> january = repo.findByDateRange(start, start.plusDays(30));
+                long expected = java.util.stream.IntStream.range(0, total)
+                        .filter(i -> i != 7 && i != 8 && i % 365 <= 30).count();
+                assert january.size() == expected : "Выборка по датам";
+                for (int i = 1; i < january.size(); i++) {
+                    assert !january.get(i).getDate().isBefore(january.get(i - 1).getDate()) : "Упорядочено по дате";
+                }
+
+                assert repo.findByBankAccountId("acc-0").get(0).getId().equals("no-date") : "Операции без даты идут первыми";
+                assert repo.findByBankAccountIdAndDateRange("acc-3", start, start).size()
+                        == repo.findByDateRange(start, start).stream().filter(o -> o.getBankAccountId().equals("acc-3")).count()
+                        : "Выписка по счёту";
+                assert repo.stream().count() == total : "Ленивый обход всех операций";
+                assert repo.findAllView().size() == total : "Представление знает размер";
+
+                try {
+                    repo.save(new Operation(null, OperationType.INCOME, "acc", BigDecimal.ONE, start, "cat"));
+                    assert false : "Операция без id отклоняется";
+                } catch (IllegalArgumentException expectedError) {
+                    // ожидаемо
+                }
+            }
+
+            try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                files.forEach(file -> file.toFile().delete());
+            }
+            Files.delete(dir);
+            pass("B+-деревья по id и дате на отображённых в память страницах");
+        } catch (Exception e) {
+            fail("Дисковый репозиторий операций", e.getMessage());
+        }
+    }
+
+    private static void testColumnarRepository() {
+        System.out.println("Тест: Колоночное хранилище операций");
+        try {
+            java.time.LocalDate start = java.time.LocalDate.of(2024, 1, 1);
+            java.util.Random random = new java.util.Random(7);
+            InMemoryOperationRepository reference = new InMemoryOperationRepository();
+            ColumnarOperationRepository columnar = new ColumnarOperationRepository();
+
+            for (int i = 0; i < 5_000; i++) {
+                Operation operation = new Operation("c-" + i, random.nextBoolean() ? OperationType.INCOME : OperationType.EXPENSE,
+                        "acc-" + random.nextInt(7), BigDecimal.valueOf(random.nextInt(1_000_000), 2),
+                        start.plusDays(random.nextInt(90)), "cat-" + random.nextInt(5), "Операция " + i);
+                reference.save(operation);
+                columnar.save(new Operation(operation.getId(), operation.getType(), operation.getBankAccountId(),
+                        operation.getAmount(), operation.getDate(), operation.getCategoryId(), operation.getDescription()));
+            }
+            for (int i = 0; i < 5_000; i += 3) {
+                reference.delete("c-" + i);
+                columnar.delete("c-" + i);
+            }
+            // Сумма точнее копеек: колонка переходит на более мелкие единицы
+            Operation precise = new Operation("c-precise", OperationType.EXPENSE, "acc-1", new BigDecimal("0.125"),
+                    start.plusDays(5), "cat-1", null);
+            reference.save(precise);
+            columnar.save(precise);
+            reference.save(new Operation("c-empty", null, null, null, null, null));
+            columnar.save(new Operation("c-empty", null, null, null, null, null));
+
+            assert columnar.count() == reference.count() : "Число операций";
+            assert columnar.findById("c-precise").orElseThrow().getAmount().equals(new BigDecimal("0.125")) : "Сумма после пересчёта шкалы";
+            assert columnar.findById("c-1").orElseThrow().getAmount().equals(reference.findById("c-1").orElseThrow().getAmount())
+                    : "Шкала суммы сохранена";
+            Operation empty = columnar.findById("c-empty").orElseThrow();
+            assert empty.getAmount() == null && empty.getDate() == null && empty.getType() == null : "null-поля";
+            assert columnar.findById("c-3").isEmpty() : "Удаление";
+
+            java.time.LocalDate from = start.plusDays(10);
+            java.time.LocalDate to = start.plusDays(40);
+            assert new java.util.HashSet<>(ids(columnar.findByDateRange(from, to)))
+                    .equals(new java.util.HashSet<>(ids(reference.findByDateRange(from, to)))) : "Выборка по датам";
+            assert new java.util.HashSet<>(ids(columnar.findByBankAccountIdAndDateRange("acc-2", from, to)))
+                    .equals(new java.util.HashSet<>(ids(reference.findByBankAccountIdAndDateRange("acc-2", from, to)))) : "Выписка";
+            List<Operation> byCategory = columnar.findByCategoryId("cat-3");
+            assert byCategory.size() == reference.findByCategoryId("cat-3").size() : "Выборка по категории";
+            for (int i = 1; i < byCategory.size(); i++) {
+                assert !byCategory.get(i).getDate().isBefore(byCategory.get(i - 1).getDate()) : "Упорядочено по дате";
+            }
+
+            OperationFacade referenceFacade = new OperationFacade(new OperationFactory(), reference, new InMemoryBankAccountRepository());
+            OperationFacade columnarFacade = new OperationFacade(new OperationFactory(), columnar, new InMemoryBankAccountRepository());
+            for (OperationType type : new OperationType[]{OperationType.INCOME, OperationType.EXPENSE, null}) {
+                java.util.Map<String, BigDecimal> expected = referenceFacade.getTotalsByCategory(type, from, to);
+                java.util.Map<String, BigDecimal> actual = columnarFacade.getTotalsByCategory(type, from, to);
+                assert expected.keySet().equals(actual.keySet()) : "Группы по категориям";
+                for (String key : expected.keySet()) {
+                    assert expected.get(key).compareTo(actual.get(key)) == 0 : "Сумма по категории " + key;
+                }
+                java.util.Map<String, BigDecimal> expectedAccounts = referenceFacade.getTotalsByAccount(type, null, null);
+                java.util.Map<String, BigDecimal> actualAccounts = columnarFacade.getTotalsByAccount(type, null, null);
+                assert expectedAccounts.keySet().equals(actualAccounts.keySet()) : "Группы по счетам";
+                for (String key : expectedAccounts.keySet()) {
+                    assert expectedAccounts.get(key).compareTo(actualAccounts.get(key)) == 0 : "Сумма по счёту " + key;
+                }
+            }
+
+            try {
+                columnar.save(new Operation("c-huge", OperationType.INCOME, "acc", new BigDecimal("1e30"), start, "cat"));
+                assert false : "Слишком большая сумма отклоняется";
+            } catch (IllegalArgumentException expectedError) {
+                // ожидаемо
+            }
+            assert columnar.findById("c-huge").isEmpty() : "Отклонённая операция не сохранена";
+
+            pass("Колонки дают те же выборки и суммы, что и объектное хранилище");
+        } catch (Exception e) {
+            fail("Колоночное хранилище", e.getMessage());
+        }
+    }
+
+    private static List<String> ids(List<Operation> operations) {
+        List<String> ids = new java.util.ArrayList<>();
+        for (Operation operation : operations) {
+            ids.add(operation.getId());
+        }
+        return ids;
+    }
+
     private static void testFacadePattern() {
         System.out.println("Тест: Facade Pattern");
         try {
@@ -355,6 +797,431 @@ public class SystemTest {
     // ТЕСТЫ ИМПОРТА/ЭКСПОРТА
     // ════════════════════════════════════════════════════════
 
+    private static void testIncrementalAggregates() {
+        System.out.println("Тест: Нарастающие итоги по категориям и месяцам");
+        try {
+            InMemoryBankAccountRepository accounts = new InMemoryBankAccountRepository();
+            accounts.save(new BankAccount("agg-acc", "Основной", BigDecimal.ZERO));
+            accounts.save(new BankAccount("agg-acc-2", "Резерв", BigDecimal.ZERO));
+            OperationFacade facade = new OperationFacade(new OperationFactory(), new InMemoryOperationRepository(), accounts);
+            com.hsebank.finance.analytics.AggregationService aggregates = new com.hsebank.finance.analytics.AggregationService();
+            facade.addListener(aggregates);
+
+            java.time.YearMonth month = java.time.YearMonth.now();
+            java.time.YearMonth lastYear = month.minusYears(1);
+
+            facade.createIncome("agg-acc", new BigDecimal("1000"), "salary", "Зарплата");
+            Operation lunch = facade.createExpense("agg-acc", new BigDecimal("250.50"), "food", "Обед");
+            facade.createExpense("agg-acc-2", new BigDecimal("100"), "food", "Кофе");
+            facade.addOperations(List.of(
+                    new Operation("agg-old", OperationType.EXPENSE, "agg-acc", new BigDecimal("40"),
+                            lastYear.atDay(15), "food", "Импорт")));
+
+            assert aggregates.getTotal(OperationType.INCOME, month).compareTo(new BigDecimal("1000")) == 0 : "Доход за месяц";
+            assert aggregates.getCategoryTotal("food", OperationType.EXPENSE, month).compareTo(new BigDecimal("350.50")) == 0
+                    : "Расход по категории за месяц";
+            assert aggregates.getCategoryTotal("food", OperationType.EXPENSE, lastYear).compareTo(new BigDecimal("40")) == 0
+                    : "Импортированная операция в своём месяце";
+            assert aggregates.getCategoryTotal("food", OperationType.EXPENSE, null).compareTo(new BigDecimal("390.50")) == 0
+                    : "Итог за всё время";
+            assert aggregates.getAccountTotal("agg-acc-2", OperationType.EXPENSE, month).compareTo(new BigDecimal("100")) == 0
+                    : "Расход по счёту";
+            assert aggregates.getCategoryTotals(OperationType.EXPENSE, month).keySet().equals(java.util.Set.of("food"))
+                    : "Разрез по категориям";
+
+            // Изменённый после создания объект не должен исказить вычитание при удалении
+            lunch.setAmount(new BigDecimal("999"));
+            facade.deleteOperation(lunch.getId());
+            facade.deleteOperations(List.of("agg-old", "missing"));
+
+            assert aggregates.getCategoryTotal("food", OperationType.EXPENSE, month).compareTo(new BigDecimal("100")) == 0
+                    : "Удаление вычитает учтённую сумму";
+            assert aggregates.getCategoryTotal("food", OperationType.EXPENSE, lastYear).signum() == 0 : "Пакетное удаление";
+            assert aggregates.getTotal(OperationType.EXPENSE, null).compareTo(new BigDecimal("100")) == 0 : "Общий итог";
+
+            aggregates.rebuild(facade.getAllOperations());
+            assert aggregates.getTotal(OperationType.EXPENSE, month).compareTo(new BigDecimal("100")) == 0 : "Пересчёт совпадает";
+
+            pass("Итоги обновляются при создании, импорте и удалении");
+        } catch (Exception e) {
+            fail("Нарастающие итоги", e.getMessage());
+        }
+    }
+
+    private static void testParallelAnalytics() {
+        System.out.println("Тест: Параллельные отчёты по операциям");
+        try {
+            java.time.LocalDate start = java.time.LocalDate.of(2024, 3, 1);
+            java.util.Random random = new java.util.Random(11);
+            InMemoryOperationRepository operations = new InMemoryOperationRepository();
+            for (int i = 0; i < 20_000; i++) {
+                operations.save(new Operation("an-" + i, random.nextInt(4) == 0 ? OperationType.INCOME : OperationType.EXPENSE,
+                        "acc", BigDecimal.valueOf(random.nextInt(5_000), random.nextInt(3)),
+                        start.plusDays(random.nextInt(60)), i % 50 == 0 ? null : "cat-" + random.nextInt(8)));
+            }
+            OperationFacade facade = new OperationFacade(new OperationFactory(), operations, new InMemoryBankAccountRepository());
+            java.time.LocalDate from = start.plusDays(10);
+            java.time.LocalDate to = start.plusDays(20);
+
+            try (com.hsebank.finance.analytics.AnalyticsEngine sequential = new com.hsebank.finance.analytics.AnalyticsEngine(facade, 1);
+                 com.hsebank.finance.analytics.AnalyticsEngine parallel = new com.hsebank.finance.analytics.AnalyticsEngine(facade, 4)) {
+                java.util.Map<String, BigDecimal> totals = sequential.totalsByCategory(OperationType.EXPENSE, from, to);
+                assert totals.equals(parallel.totalsByCategory(OperationType.EXPENSE, from, to)) : "Итоги не зависят от параллелизма";
+                assert totals.containsKey(null) : "Операции без категории в отдельной группе";
+
+                java.util.Map<String, BigDecimal> expected = facade.getTotalsByCategory(OperationType.EXPENSE, from, to);
+                for (String key : expected.keySet()) {
+                    assert expected.get(key).compareTo(totals.get(key)) == 0 : "Сумма по категории " + key;
+                }
+
+                List<Operation> top = sequential.topExpenses(25, from, to);
+                assert ids(top).equals(ids(parallel.topExpenses(25, from, to))) : "Топ не зависит от параллелизма";
+                assert top.size() == 25 : "Размер топа";
+                BigDecimal largest = operations.findAll().stream()
+                        .filter(op -> op.getType() == OperationType.EXPENSE && !op.getDate().isBefore(from) && !op.getDate().isAfter(to))
+                        .map(Operation::getAmount).max(BigDecimal::compareTo).orElseThrow();
+                assert top.get(0).getAmount().compareTo(largest) == 0 : "Крупнейший расход первым";
+                for (int i = 1; i < top.size(); i++) {
+                    assert top.get(i).getAmount().compareTo(top.get(i - 1).getAmount()) <= 0 : "По убыванию";
+                }
+
+                java.util.NavigableMap<java.time.LocalDate, BigDecimal> flow = sequential.dailyCashFlow(from, to.plusDays(100));
+                assert flow.equals(parallel.dailyCashFlow(from, to.plusDays(100))) : "Движение денег не зависит от параллелизма";
+                assert flow.size() == 111 && flow.lastEntry().getValue().signum() == 0 : "Дни без операций с нулём";
+                BigDecimal firstDay = BigDecimal.ZERO;
+                for (Operation op : operations.findByDateRange(from, from)) {
+                    firstDay = op.getType() == OperationType.INCOME ? firstDay.add(op.getAmount()) : firstDay.subtract(op.getAmount());
+                }
+                assert flow.firstEntry().getValue().compareTo(firstDay) == 0 : "Движение за день";
+            }
+
+            pass("Отчёты в пуле ForkJoin детерминированы при любом параллелизме");
+        } catch (Exception e) {
+            fail("Параллельные отчёты", e.getMessage());
+        }
+    }
+
+
+    private static void testBalanceReconciliation() {
+        System.out.println("Тест: Сверка балансов с операциями");
+        try {
+            InMemoryBankAccountRepository accounts = new InMemoryBankAccountRepository();
+            accounts.save(new BankAccount("rec-acc", "Основной", new BigDecimal("500")));
+            accounts.save(new BankAccount("rec-acc-2", "Резерв", BigDecimal.ZERO));
+            InMemoryOperationRepository operations = new InMemoryOperationRepository();
+            OperationFacade facade = new OperationFacade(new OperationFactory(), operations, accounts);
+            BankAccountFacade accountFacade = new BankAccountFacade(new BankAccountFactory(), accounts);
+
+            facade.createIncome("rec-acc", new BigDecimal("1000"), "salary", "Зарплата");
+            Operation lunch = facade.createExpense("rec-acc", new BigDecimal("250.50"), "food", "Обед");
+            facade.createExpense("rec-acc-2", new BigDecimal("100"), "food", "Кофе");
+
+            facade.deleteOperation(lunch.getId());
+            assert accounts.findById("rec-acc").orElseThrow().getBalance().compareTo(new BigDecimal("1500")) == 0
+                    : "Удаление отменяет операцию в балансе";
+
+            try (com.hsebank.finance.analytics.AnalyticsEngine engine = new com.hsebank.finance.analytics.AnalyticsEngine(facade, 2)) {
+                com.hsebank.finance.analytics.BalanceReconciler reconciler =
+                        new com.hsebank.finance.analytics.BalanceReconciler(engine, accountFacade, facade);
+                assert reconciler.check().isConsistent() : "Балансы сходятся";
+
+                // Расхождения: операция в обход фасада и операция несуществующего счёта
+                operations.save(new Operation("rec-raw", OperationType.EXPENSE, "rec-acc-2", new BigDecimal("40"),
+                        java.time.LocalDate.now(), "food"));
+                operations.save(new Operation("rec-orphan", OperationType.INCOME, "rec-gone", BigDecimal.TEN,
+                        java.time.LocalDate.now(), "salary"));
+
+                com.hsebank.finance.analytics.ReconciliationReport report = reconciler.check();
+                assert report.getAccountsChecked() == 2 : "Проверены все счета";
+                assert report.getDiscrepancies().size() == 1 : "Одно расхождение";
+                com.hsebank.finance.analytics.ReconciliationReport.Discrepancy discrepancy = report.getDiscrepancies().get(0);
+                assert "rec-acc-2".equals(discrepancy.getAccountId()) : "Расхождение по счёту";
+                assert discrepancy.getDifference().compareTo(new BigDecimal("-40")) == 0 : "Размер расхождения";
+                assert report.getOrphanedTotals().get("rec-gone").compareTo(BigDecimal.TEN) == 0 : "Операции без счёта";
+                assert !report.isRepaired() : "Проверка ничего не меняет";
+                assert accounts.findById("rec-acc-2").orElseThrow().getBalance().compareTo(new BigDecimal("-100")) == 0
+                        : "Баланс не тронут проверкой";
+
+                assert reconciler.repair().isRepaired() : "Исправление применено";
+                assert accounts.findById("rec-acc-2").orElseThrow().getBalance().compareTo(new BigDecimal("-140")) == 0
+                        : "Баланс исправлен";
+                assert reconciler.check().getDiscrepancies().isEmpty() : "После исправления расхождений нет";
+            }
+
+            pass("Сверка находит и исправляет расхождения одним проходом");
+        } catch (Exception e) {
+            fail("Сверка балансов", e.getMessage());
+        }
+    }
+
+    private static void testBalanceHistory() {
+        System.out.println("Тест: Баланс счёта на дату");
+        try {
+            InMemoryBankAccountRepository accounts = new InMemoryBankAccountRepository();
+            accounts.save(new BankAccount("hist-acc", "Основной", new BigDecimal("300")));
+            accounts.save(new BankAccount("hist-acc-2", "Резерв", BigDecimal.ZERO));
+            BankAccountFacade accountFacade = new BankAccountFacade(new BankAccountFactory(), accounts);
+            OperationFacade facade = new OperationFacade(new OperationFactory(), new InMemoryOperationRepository(), accounts);
+            com.hsebank.finance.analytics.BalanceHistoryService history =
+                    new com.hsebank.finance.analytics.BalanceHistoryService(accountFacade);
+            facade.addListener(history);
+
+            // Сначала поздние операции, затем задним числом: диапазон дней растёт в обе стороны
+            java.time.LocalDate start = java.time.LocalDate.of(2024, 1, 1);
+            java.util.Random random = new java.util.Random(5);
+            List<Operation> all = new java.util.ArrayList<>();
+            for (int round = 0; round < 4; round++) {
+                List<Operation> batch = new java.util.ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    java.time.LocalDate date = start.plusDays(random.nextInt(400) - round * 300L);
+                    batch.add(new Operation("h-" + round + "-" + i, random.nextBoolean() ? OperationType.INCOME : OperationType.EXPENSE,
+                            random.nextInt(3) == 0 ? "hist-acc-2" : "hist-acc", BigDecimal.valueOf(random.nextInt(10_000), 2),
+                            date, "cat"));
+                }
+                facade.addOperations(batch);
+                all.addAll(batch);
+            }
+            facade.deleteOperations(List.of("h-0-1", "h-2-7", "h-3-3"));
+            all.removeIf(op -> List.of("h-0-1", "h-2-7", "h-3-3").contains(op.getId()));
+
+            for (int probe = 0; probe < 50; probe++) {
+                java.time.LocalDate date = start.plusDays(random.nextInt(1400) - 1000L);
+                BigDecimal expected = new BigDecimal("300");
+                for (Operation op : all) {
+                    if (op.getBankAccountId().equals("hist-acc") && !op.getDate().isAfter(date)) {
+                        expected = op.getType() == OperationType.INCOME ? expected.add(op.getAmount()) : expected.subtract(op.getAmount());
+                    }
+                }
+                assert history.getBalanceAsOf("hist-acc", date).compareTo(expected) == 0 : "Баланс на " + date;
+            }
+            java.time.LocalDate today = java.time.LocalDate.now().plusYears(10);
+            assert history.getBalanceAsOf("hist-acc", today).compareTo(accounts.findById("hist-acc").orElseThrow().getBalance()) == 0
+                    : "Баланс на сегодня совпадает с текущим";
+            assert history.getBalanceAsOf("hist-acc-2", start.minusYears(10)).signum() == 0 : "До первой операции — входящий остаток";
+
+            BigDecimal change = history.getChange("hist-acc", start, start.plusDays(30));
+            BigDecimal expectedChange = history.getBalanceAsOf("hist-acc", start.plusDays(30))
+                    .subtract(history.getBalanceAsOf("hist-acc", start.minusDays(1)));
+            assert change.compareTo(expectedChange) == 0 : "Изменение за период";
+
+            // Заведомо ошибочная дата не ломает историю
+            facade.addOperations(List.of(new Operation("h-far", OperationType.INCOME, "hist-acc", BigDecimal.ONE,
+                    java.time.LocalDate.of(9999, 1, 1), "cat")));
+            assert history.getBalanceAsOf("hist-acc", java.time.LocalDate.of(9999, 1, 1))
+                    .subtract(history.getBalanceAsOf("hist-acc", today)).compareTo(BigDecimal.ONE) == 0 : "Далёкая дата учтена";
+
+            try {
+                history.getBalanceAsOf("missing", start);
+                assert false : "Неизвестный счёт";
+            } catch (IllegalArgumentException expectedError) {
+                // ожидаемо
+            }
+
+            pass("Баланс на дату совпадает с прямым подсчётом, в том числе после операций задним числом");
+        } catch (Exception e) {
+            fail("Баланс на дату", e.getMessage());
+        }
+    }
+
+    private static void testMoney() {
+        System.out.println("Тест: Суммы с фиксированной точкой");
+        try {
+            for (String value : new String[]{"0", "-10.50", "1000", "0.001", "92233720368547758.07"}) {
+                BigDecimal amount = new BigDecimal(value);
+                assert Money.of(amount).toBigDecimal().equals(amount) : "Точное преобразование " + value;
+            }
+            assert Money.tryOf(new BigDecimal("1E+3")) == null : "Отрицательный масштаб";
+            assert Money.tryOf(new BigDecimal("1e-19")) == null : "Слишком много знаков";
+            assert Money.tryOf(new BigDecimal("92233720368547758.08")) == null : "Больше 63 бит";
+
+            // Аккумулятор совпадает с последовательным сложением BigDecimal, включая масштаб и переполнение
+            java.util.Random random = new java.util.Random(3);
+            MoneyAccumulator accumulator = new MoneyAccumulator();
+            BigDecimal expected = BigDecimal.ZERO;
+            for (int i = 0; i < 10_000; i++) {
+                BigDecimal amount = BigDecimal.valueOf(i % 1000 == 999 ? Long.MAX_VALUE - random.nextInt(10) : random.nextInt(100_000) - 50_000,
+                        random.nextInt(4));
+                if (random.nextBoolean()) {
+                    accumulator.add(Money.of(amount));
+                    expected = expected.add(amount);
+                } else {
+                    accumulator.subtract(Money.of(amount));
+                    expected = expected.subtract(amount);
+                }
+            }
+            assert accumulator.toBigDecimal().equals(expected) : "Сумма совпадает с BigDecimal";
+            accumulator.add(new BigDecimal("1E+3"));
+            assert accumulator.toBigDecimal().compareTo(expected.add(new BigDecimal("1000"))) == 0 : "Непредставимая сумма";
+
+            BankAccount account = new BankAccount("m-acc", "Основной", new BigDecimal("-10.50"));
+            assert account.getBalance().equals(new BigDecimal("-10.50")) : "Баланс без изменения масштаба";
+            account.deposit(Money.of(new BigDecimal("0.005")));
+            account.withdraw(Money.of(new BigDecimal("100")));
+            assert account.getBalance().equals(new BigDecimal("-110.495")) : "Изменение баланса";
+            assert account.getOpeningBalance().equals(new BigDecimal("-10.50")) : "Входящий остаток не меняется";
+
+            InMemoryBankAccountRepository accounts = new InMemoryBankAccountRepository();
+            accounts.save(new BankAccount("m-acc", "Основной", new BigDecimal("100.00")));
+            OperationFacade facade = new OperationFacade(new OperationFactory(), new InMemoryOperationRepository(), accounts);
+            Operation expense = facade.createExpense("m-acc", new BigDecimal("30.25"), "food", "Обед");
+            facade.createIncome("m-acc", new BigDecimal("1.5"), "salary", "Кешбэк");
+            assert expense.getMoney().equals(Money.of(new BigDecimal("30.25"))) : "Сумма операции как Money";
+            assert accounts.findById("m-acc").orElseThrow().getBalance().equals(new BigDecimal("71.25")) : "Баланс после операций";
+            expense.setAmount(new BigDecimal("1E+2"));
+            assert expense.getMoney() == null : "Кэш сбрасывается при смене суммы";
+
+            pass("Money и MoneyAccumulator считают точно, как BigDecimal");
+        } catch (Exception e) {
+            fail("Суммы с фиксированной точкой", e.getMessage());
+        }
+    }
+
+    private static void testTimeOrderedIds() {
+        System.out.println("Тест: Упорядоченные по времени идентификаторы");
+        try {
+            TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+            long before = System.currentTimeMillis();
+
+            String previous = generator.nextId();
+            for (int i = 0; i < 100_000; i++) {
+                String next = generator.nextId();
+                assert next.compareTo(previous) > 0 : "Идентификаторы потока возрастают";
+                previous = next;
+            }
+            java.util.UUID uuid = java.util.UUID.fromString(previous);
+            assert uuid.version() == 7 && uuid.variant() == 2 : "UUID версии 7";
+            assert uuid.toString().equals(previous) : "Каноническая запись";
+            long timestamp = TimeOrderedIdGenerator.timestampOf(uuid);
+            assert timestamp >= before && timestamp <= System.currentTimeMillis() + 1_000 : "Время в идентификаторе";
+
+            // Несколько потоков без общих блокировок не дают повторов
+            java.util.Set<String> ids = java.util.concurrent.ConcurrentHashMap.newKeySet();
+            Thread[] workers = new Thread[4];
+            for (int t = 0; t < workers.length; t++) {
+                workers[t] = new Thread(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assert ids.size() == 200_000 : "Идентификаторы уникальны между потоками";
+
+            int[] counter = {0};
+            CategoryFactory factory = new CategoryFactory(() -> "cat-" + (++counter[0]));
+            assert "cat-1".equals(factory.create(OperationType.INCOME, "Тест").getId()) : "Генератор внедряется в фабрику";
+
+            pass("Идентификаторы уникальны, возрастают и содержат время");
+        } catch (Exception e) {
+            fail("Упорядоченные по времени идентификаторы", e.getMessage());
+        }
+    }
+
+    private static void testCommandBus() {
+        System.out.println("Тест: Асинхронная шина команд");
+        try {
+            Category income = categoryFacade.createCategory(OperationType.INCOME, "Шина: доход");
+            Category expense = categoryFacade.createCategory(OperationType.EXPENSE, "Шина: расход");
+            BankAccount first = accountFacade.createBankAccount("Шина 1", new BigDecimal("1000"));
+            BankAccount second = accountFacade.createBankAccount("Шина 2", new BigDecimal("1000"));
+            int operationsBefore = operationFacade.getAllOperations().size();
+
+            List<CompletableFuture<Operation>> futures = new ArrayList<>();
+            List<OperationCommand> commands = new ArrayList<>();
+            try (CommandBus bus = new CommandBus(2, 10_000, 64)) {
+                for (int i = 0; i < 500; i++) {
+                    String accountId = i % 2 == 0 ? first.getId() : second.getId();
+                    OperationCommand command = i % 5 == 0
+                            ? new CreateExpenseCommand(operationFacade, accountId, new BigDecimal("3.00"), expense.getId(), "Расход " + i)
+                            : new CreateIncomeCommand(operationFacade, accountId, new BigDecimal("2.50"), income.getId(), "Доход " + i);
+                    commands.add(command);
+                    futures.add(bus.submit(command));
+                }
+                // Команда с несуществующим счётом не должна мешать остальным командам своей пачки
+                CompletableFuture<Operation> broken = bus.submit(new CreateIncomeCommand(operationFacade,
+                        "нет-такого-счёта", BigDecimal.ONE, income.getId(), "Ошибка"));
+                CompletableFuture<Operation> invalid = bus.submit(new CreateExpenseCommand(operationFacade,
+                        first.getId(), new BigDecimal("-1"), expense.getId(), "Отрицательная сумма"));
+                CompletableFuture<Void> plain = bus.submit(() -> { });
+
+                for (int i = 0; i < futures.size(); i++) {
+                    Operation operation = futures.get(i).get(10, TimeUnit.SECONDS);
+                    assert operation != null && operation == commands.get(i).getResult() : "Future несёт результат команды";
+                }
+                assertFails(broken, IllegalArgumentException.class);
+                assertFails(invalid, IllegalArgumentException.class);
+                plain.get(10, TimeUnit.SECONDS);
+            }
+
+            // 250 операций на счёт: 50 расходов по 3.00 и 200 доходов по 2.50
+            BigDecimal expected = new BigDecimal("1000").subtract(new BigDecimal("150.00")).add(new BigDecimal("500.00"));
+            for (BankAccount account : new BankAccount[]{first, second}) {
+                BigDecimal balance = accountFacade.getBankAccountById(account.getId()).get().getBalance();
+                assert balance.compareTo(expected) == 0 : "Баланс " + balance + " вместо " + expected;
+            }
+            assert operationFacade.getAllOperations().size() == operationsBefore + 500 : "Сохранены все операции: " + (operationFacade.getAllOperations().size() - operationsBefore);
+
+            // Репозиторий не принял пачку: команды выполняются по одной, и баланс меняется ровно один раз
+            InMemoryBankAccountRepository rejectingAccounts = new InMemoryBankAccountRepository();
+            OperationFacade rejectingFacade = new OperationFacade(new OperationFactory(), new InMemoryOperationRepository() {
+                @Override
+                public void saveAll(java.util.Collection<? extends Operation> entities) {
+                    throw new IllegalStateException("Пакетная запись недоступна");
+                }
+            }, rejectingAccounts);
+            BankAccount rejected = new BankAccountFacade(new BankAccountFactory(), rejectingAccounts)
+                    .createBankAccount("Шина 3", BigDecimal.ZERO);
+            List<CompletableFuture<Operation>> retried = new ArrayList<>();
+            try (CommandBus bus = new CommandBus(1, 100, 64)) {
+                for (int i = 0; i < 10; i++) {
+                    retried.add(bus.submit(new CreateIncomeCommand(rejectingFacade, rejected.getId(),
+                            BigDecimal.ONE, income.getId(), "Доход " + i)));
+                }
+                for (CompletableFuture<Operation> future : retried) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+            }
+            BigDecimal retriedBalance = rejectingAccounts.findById(rejected.getId()).get().getBalance();
+            assert retriedBalance.compareTo(BigDecimal.TEN) == 0 : "Баланс после повтора по одной: " + retriedBalance;
+
+            // Переполнение очереди не блокирует вызывающего
+            java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+            try (CommandBus bus = new CommandBus(1, 2, 16)) {
+                CompletableFuture<Void> blocker = bus.submit(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                while (bus.pending() > 0) {
+                    Thread.sleep(1);
+                }
+                bus.submit(() -> { });
+                bus.submit(() -> { });
+                assertFails(bus.submit(() -> { }), java.util.concurrent.RejectedExecutionException.class);
+                release.countDown();
+                blocker.get(10, TimeUnit.SECONDS);
+            }
+
+            pass("Команды выполнены пачками, балансы сошлись, ошибки изолированы");
+        } catch (Exception e) {
+            fail("Асинхронная шина команд", e.getMessage());
+        }
+    }
+
+    private static void assertFails(CompletableFuture<?> future, Class<? extends Throwable> expected) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            assert false : "Ожидалась ошибка " + expected.getSimpleName();
+        } catch (java.util.concurrent.ExecutionException e) {
+            assert expected.isInstance(e.getCause()) : "Ошибка " + e.getCause();
+        }
+    }
+
     private static void testJsonExport() {
         System.out.println("Тест: Экспорт в JSON");
         try {
@@ -398,6 +1265,43 @@ public class SystemTest {
         }
     }
 
+    private static void testStreamingExport() {
+        System.out.println("Тест: Потоковый экспорт");
+        try {
+            List<Operation> operations = new java.util.ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                operations.add(new Operation("stream-" + i, OperationType.INCOME, "acc", new BigDecimal(i + 1),
+                        java.time.LocalDate.of(2024, 5, 1), "cat", "Перевод №" + i));
+            }
+
+            JsonOperationExporter inMemory = new JsonOperationExporter();
+            java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+            // Маленький буфер, чтобы многобайтовые символы попадали на границу сброса
+            try (ChannelExportWriter writer = new ChannelExportWriter(java.nio.channels.Channels.newChannel(out), 16)) {
+                JsonOperationExporter streaming = new JsonOperationExporter(writer);
+                for (Operation operation : operations) {
+                    operation.accept(inMemory);
+                    operation.accept(streaming);
+                }
+                streaming.finish();
+            }
+
+            String streamed = out.toString(java.nio.charset.StandardCharsets.UTF_8);
+            assert streamed.equals(inMemory.getJson()) : "Потоковый JSON должен совпадать с накопленным";
+
+            java.io.ByteArrayOutputStream emptyOut = new java.io.ByteArrayOutputStream();
+            try (ChannelExportWriter writer = new ChannelExportWriter(emptyOut)) {
+                new CsvCategoryExporter(writer).finish();
+            }
+            assert emptyOut.toString(java.nio.charset.StandardCharsets.UTF_8).equals("id,type,name\n")
+                    : "Пустой CSV должен содержать заголовок";
+
+            pass("Потоковый экспорт пишет тот же документ через фиксированный буфер");
+        } catch (Exception e) {
+            fail("Потоковый экспорт", e.getMessage());
+        }
+    }
+
     private static void testJsonImport() {
         System.out.println("Тест: Импорт из JSON");
         try {
@@ -434,6 +1338,20 @@ public class SystemTest {
             assert categories.get(0).getId().equals("csv-test") : "ID должен совпадать";
             assert categories.get(0).getName().equals("CSV тест") : "Имя должно совпадать";
 
+            // Потоковый режим поддерживают все CSV-импортёры, не только операций
+            List<Category> streamed = new ArrayList<>();
+            long streamedCount = importer.importFromFile(tempFile.toString(), 10, streamed::addAll);
+            assert streamedCount == 1 : "Потоковый импорт категорий";
+            assert streamed.get(0).getId().equals("csv-test") : "Потоковый импорт даёт ту же категорию";
+
+            Path accountsFile = Files.createTempFile("import-accounts", ".csv");
+            Files.writeString(accountsFile, "id,name,balance\n\"acc-csv\",\"Счёт CSV\",\"150.00\"\n");
+            List<BankAccount> accounts = new ArrayList<>();
+            new CsvBankAccountImporter().importFromFile(accountsFile.toString(), 10, accounts::addAll);
+            assert accounts.size() == 1 && accounts.get(0).getBalance().compareTo(new BigDecimal("150")) == 0
+                    : "Потоковый импорт счетов";
+
+            Files.deleteIfExists(accountsFile);
             Files.deleteIfExists(tempFile);
 
             pass("CSV импорт корректно парсит данные");
@@ -442,6 +1360,184 @@ public class SystemTest {
         }
     }
 
+    private static void testCsvStreamingImport() {
+        System.out.println("Тест: Потоковый импорт операций из CSV");
+        try {
+            StringBuilder csv = new StringBuilder("id,type,bankAccountId,amount,date,categoryId,description\n");
+            for (int i = 0; i < 25; i++) {
+                csv.append("op-").append(i).append(",INCOME,acc-1,").append(i + 1)
+                        .append(",2024-01-15,cat-1,Строка ").append(i).append("\n");
+            }
+            csv.append("битая строка\n");
+            Path tempFile = Files.createTempFile("stream-import", ".csv");
+            Files.writeString(tempFile, csv.toString());
+
+            List<Integer> batchSizes = new java.util.ArrayList<>();
+            DataImporter<Operation> importer = new CsvOperationImporter();
+            long count = importer.importFromFile(tempFile.toString(), 10, batch -> batchSizes.add(batch.size()));
+
+            assert count == 25 : "Должно быть импортировано 25 операций";
+            assert batchSizes.equals(List.of(10, 10, 5)) : "Операции должны приходить пачками не больше 10";
+
+            Files.deleteIfExists(tempFile);
+
+            pass("Потоковый импорт отдаёт операции ограниченными пачками");
+        } catch (Exception e) {
+            fail("Потоковый импорт CSV", e.getMessage());
+        }
+    }
+
+    private static void testMappedCsvImport() {
+        System.out.println("Тест: Параллельный импорт операций из CSV");
+        try {
+            StringBuilder csv = new StringBuilder("id,type,bankAccountId,amount,date,categoryId,description\n");
+            for (int i = 0; i < 5000; i++) {
+                csv.append("\"op-").append(i).append("\",").append(i % 3 == 0 ? "EXPENSE" : "INCOME")
+                        .append(",acc-").append(i % 7).append(",").append(i + 1).append(".").append(i % 100)
+                        .append(",2024-02-").append(10 + i % 19).append(",cat-").append(i % 5)
+                        .append(",Операция ").append(i).append("\r\n");
+            }
+            Path tempFile = Files.createTempFile("mapped-import", ".csv");
+            Files.writeString(tempFile, csv.toString());
+
+            List<Operation> expected = new CsvOperationImporter().importFromFile(tempFile.toString());
+            List<Operation> actual = new MappedCsvOperationImporter().importFromFile(tempFile.toString());
+
+            assert actual.size() == expected.size() : "Количество операций должно совпадать";
+            for (int i = 0; i < expected.size(); i++) {
+                Operation e = expected.get(i);
+                Operation a = actual.get(i);
+                assert e.getId().equals(a.getId()) : "Порядок и ID должны совпадать";
+                assert e.getType() == a.getType() : "Тип должен совпадать";
+                assert e.getAmount().equals(a.getAmount()) : "Сумма должна совпадать";
+                assert e.getDate().equals(a.getDate()) : "Дата должна совпадать";
+                assert e.getCategoryId().equals(a.getCategoryId()) : "Категория должна совпадать";
+                assert e.getDescription().equals(a.getDescription()) : "Описание должно совпадать";
+            }
+
+            Files.deleteIfExists(tempFile);
+
+            pass("Параллельный импорт даёт тот же результат в том же порядке");
+        } catch (Exception e) {
+            fail("Параллельный импорт CSV", e.getMessage());
+        }
+    }
+
+    private static void testBinaryRoundtrip() {
+        System.out.println("Тест: Двоичный формат выгрузки");
+        try {
+            Path file = Files.createTempFile("operations", ".bin");
+            String uuid = java.util.UUID.randomUUID().toString();
+            List<Operation> source = List.of(
+                    new Operation(uuid, OperationType.INCOME, "acc-1", new BigDecimal("1500.75"),
+                            java.time.LocalDate.of(2024, 3, 15), "cat-1", "Зарплата, \"март\""),
+                    new Operation("op-2", OperationType.EXPENSE, "acc-1", new BigDecimal("123456789012345678901234.5"),
+                            java.time.LocalDate.of(1999, 12, 31), "cat-2"),
+                    new Operation("op-3", OperationType.EXPENSE, "acc-2", new BigDecimal("1E+3"),
+                            java.time.LocalDate.of(2024, 3, 16), "cat-1", ""));
+
+            try (java.io.OutputStream out = Files.newOutputStream(file)) {
+                BinaryOperationExporter exporter = new BinaryOperationExporter(out);
+                for (Operation operation : source) {
+                    operation.accept(exporter);
+                }
+                exporter.finish();
+            }
+
+            List<Operation> imported = new BinaryOperationImporter().importFromFile(file.toString());
+            assert imported.size() == source.size() : "Количество записей";
+            for (int i = 0; i < source.size(); i++) {
+                Operation expected = source.get(i);
+                Operation actual = imported.get(i);
+                assert expected.getId().equals(actual.getId()) : "ID " + i;
+                assert expected.getType() == actual.getType() : "Тип " + i;
+                assert expected.getBankAccountId().equals(actual.getBankAccountId()) : "Счёт " + i;
+                assert expected.getCategoryId().equals(actual.getCategoryId()) : "Категория " + i;
+                assert expected.getAmount().equals(actual.getAmount()) : "Сумма вместе с масштабом " + i;
+                assert expected.getDate().equals(actual.getDate()) : "Дата " + i;
+                assert java.util.Objects.equals(expected.getDescription(), actual.getDescription()) : "Описание " + i;
+            }
+
+            long[] streamed = {0};
+            new BinaryOperationImporter().importFromFile(file.toString(), 2, batch -> streamed[0] += batch.size());
+            assert streamed[0] == source.size() : "Пакетный импорт";
+
+            // Порча одного байта должна обнаруживаться контрольной суммой
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[bytes.length / 2] ^= 0x01;
+            Files.write(file, bytes);
+            try {
+                new BinaryOperationImporter().importFromFile(file.toString());
+                fail("Двоичный формат", "повреждение не обнаружено");
+                return;
+            } catch (java.io.IOException | IllegalArgumentException expected) {
+                // ожидаемо
+            }
+
+            java.io.ByteArrayOutputStream accountsOut = new java.io.ByteArrayOutputStream();
+            BinaryBankAccountExporter accountExporter = new BinaryBankAccountExporter(accountsOut);
+            new BankAccount("acc-1", "Основной", new BigDecimal("-10.50")).accept(accountExporter);
+            accountExporter.finish();
+            Files.write(file, accountsOut.toByteArray());
+            BankAccount account = new BinaryBankAccountImporter().importFromFile(file.toString()).get(0);
+            assert "Основной".equals(account.getName()) && account.getBalance().equals(new BigDecimal("-10.50")) : "Счёт";
+
+            try {
+                new BinaryCategoryImporter().importFromFile(file.toString());
+                fail("Двоичный формат", "файл счетов прочитан как категории");
+                return;
+            } catch (IllegalArgumentException expected) {
+                // ожидаемо
+            }
+
+            Files.delete(file);
+            pass("Двоичный формат: точный round-trip и обнаружение повреждений");
+        } catch (Exception e) {
+            fail("Двоичный формат", e.getMessage());
+        }
+    }
+
+    private static void testJsonOperationsRoundtrip() {
+        System.out.println("Тест: JSON операций — экспорт, импорт и порядок полей");
+        try {
+            Operation original = new Operation("json-op", OperationType.EXPENSE, "acc-json",
+                    new BigDecimal("1250.75"), java.time.LocalDate.of(2024, 3, 8), "cat-json",
+                    "Кафе \"Уют\", чек C:\\tmp\nвторая строка");
+
+            JsonOperationExporter exporter = new JsonOperationExporter();
+            original.accept(exporter);
+            Path exported = Files.createTempFile("json-ops", ".json");
+            Files.writeString(exported, exporter.getJson());
+
+            List<Operation> imported = new JsonOperationImporter().importFromFile(exported.toString());
+            assert imported.size() == 1 : "Должна быть импортирована 1 операция";
+            Operation restored = imported.get(0);
+            assert restored.getAmount().equals(original.getAmount()) : "Числовая сумма должна читаться";
+            assert restored.getDescription().equals(original.getDescription()) : "Экранирование должно сохраняться";
+            assert restored.getDate().equals(original.getDate()) : "Дата должна совпадать";
+
+            String reordered = "[{\"description\":\"x\", \"categoryId\":\"c\", \"extra\":{\"a\":[1,2]},"
+                    + " \"amount\":\"10\", \"date\":\"2024-01-01\", \"bankAccountId\":\"a\","
+                    + " \"type\":\"INCOME\", \"id\":\"r-1\"}, {\"id\":\"r-2\", \"type\":\"INCOME\","
+                    + " \"amount\":5, \"date\":\"2024-01-02\", \"bankAccountId\":\"a\", \"categoryId\":\"c\"}]";
+            Path reorderedFile = Files.createTempFile("json-reordered", ".json");
+            Files.writeString(reorderedFile, reordered);
+
+            List<String> streamedIds = new java.util.ArrayList<>();
+            long count = new JsonOperationImporter().importFromFile(reorderedFile.toString(), 1,
+                    batch -> batch.forEach(op -> streamedIds.add(op.getId())));
+            assert count == 2 : "Должно быть импортировано 2 операции";
+            assert streamedIds.equals(List.of("r-1", "r-2")) : "Порядок полей не должен влиять на разбор";
+
+            Files.deleteIfExists(exported);
+            Files.deleteIfExists(reorderedFile);
+
+            pass("JSON-парсер не зависит от порядка полей и читает собственный экспорт");
+        } catch (Exception e) {
+            fail("JSON операций", e.getMessage());
+        }
+    }
+
     private static void testImportExportRoundtrip() {
         System.out.println("Тест: Импорт → Экспорт → Импорт");
         try {